@@ -0,0 +1,81 @@
+package ai.review.exception;
+
+import ai.review.dto.ReviewRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a failure into the JSON error body the client receives: the handler, including
+ * its logging, and the serialization Spring does afterwards. Errors logged with their stack
+ * trace are written to build/results/jmh/benchmark.log (see logback.xml), so their cost is
+ * measured rather than discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ErrorRenderingBenchmark {
+    
+    private GlobalExceptionHandler handler;
+    private ObjectMapper mapper;
+    private MockHttpServletRequest request;
+    private GitHubApiException gitHubError;
+    private ValidationException validationError;
+    private ConstraintViolationException constraintViolations;
+    private IllegalStateException unexpectedError;
+    
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        request = new MockHttpServletRequest("POST", "/api/review");
+        gitHubError = new GitHubApiException("Failed to fetch pull request diff", 502, "Bad Gateway");
+        validationError = new ValidationException("Repository cannot be null or empty", "repository", "");
+        
+        ReviewRequest invalid = new ReviewRequest();
+        invalid.setRepository("-octocat//Hello-World");
+        invalid.setPrNumber(0);
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        constraintViolations = new ConstraintViolationException(factory.getValidator().validate(invalid));
+        factory.close();
+        unexpectedError = new IllegalStateException("Template registry is closed");
+    }
+    
+    @Benchmark
+    public byte[] gitHubApiError() throws JsonProcessingException {
+        return render(handler.handleGitHubApiException(gitHubError, request));
+    }
+    
+    @Benchmark
+    public byte[] validationError() throws JsonProcessingException {
+        return render(handler.handleValidationException(validationError, request));
+    }
+    
+    @Benchmark
+    public byte[] constraintViolations() throws JsonProcessingException {
+        return render(handler.handleConstraintViolationException(constraintViolations, request));
+    }
+    
+    @Benchmark
+    public byte[] unexpectedError() throws JsonProcessingException {
+        return render(handler.handleGenericException(unexpectedError, request));
+    }
+    
+    private byte[] render(ResponseEntity<?> response) throws JsonProcessingException {
+        return mapper.writeValueAsBytes(response.getBody());
+    }
+}
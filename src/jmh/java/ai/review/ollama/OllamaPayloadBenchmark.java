@@ -0,0 +1,68 @@
+package ai.review.ollama;
+
+import ai.review.config.OllamaProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON work of a model call: the request body carrying the whole prompt, and the answer
+ * carrying the review and Ollama's timings. No request is sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OllamaPayloadBenchmark {
+    
+    private static final String TIMINGS = "\"total_duration\":5043500667,\"load_duration\":5025959,"
+            + "\"prompt_eval_count\":26,\"prompt_eval_duration\":325953000,"
+            + "\"eval_count\":290,\"eval_duration\":4709213000";
+    
+    /** Prompt length in characters; the review is a tenth of it */
+    @Param({"4096", "262144", "4194304"})
+    private int promptChars;
+    
+    private OllamaClient client;
+    private String prompt;
+    private String answer;
+    
+    @Setup
+    public void setUp() throws IOException {
+        client = new OllamaClient(new OllamaProperties());
+        prompt = text(promptChars);
+        answer = "{\"model\":\"openchat\",\"created_at\":\"2024-05-01T10:00:00Z\",\"response\":"
+                + new ObjectMapper().writeValueAsString(text(promptChars / 10)) + ",\"done\":true," + TIMINGS + "}";
+    }
+    
+    @Benchmark
+    public String buildPayload() {
+        return client.generatePayload(prompt, false);
+    }
+    
+    @Benchmark
+    public Generation parseAnswer() throws IOException {
+        return client.parseGeneration(answer);
+    }
+    
+    /**
+     * Review-like text that needs JSON escaping: quotes, tabs and line breaks, and Cyrillic
+     * as the default templates produce
+     */
+    private static String text(int chars) {
+        String line = "\t- Метод \"calculate\" не проверяет null; see `Order.getAmount()`\n";
+        StringBuilder text = new StringBuilder(chars + line.length());
+        while (text.length() < chars) {
+            text.append(line);
+        }
+        return text.substring(0, chars);
+    }
+}
@@ -0,0 +1,79 @@
+package ai.review.service;
+
+import ai.review.diff.UnifiedDiff;
+import ai.review.diff.UnifiedDiffParser;
+import ai.review.template.PromptTemplate;
+import ai.review.template.TemplateRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a GitHub diff into the review prompt, for diffs from a one-line fix up to the
+ * largest GitHub serves: parsing the diff text, and rendering the parsed diff into the
+ * template as the review does before every model call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromptBuildBenchmark {
+    
+    @Param({"1024", "65536", "1048576", "52428800"})
+    private int diffBytes;
+    
+    private String rawDiff;
+    private UnifiedDiff diff;
+    private PromptTemplate template;
+    
+    @Setup
+    public void setUp() {
+        rawDiff = syntheticDiff(diffBytes);
+        diff = UnifiedDiffParser.parse(rawDiff);
+        template = new TemplateRegistry().get("prompt-template.txt");
+    }
+    
+    @Benchmark
+    public UnifiedDiff parseDiff() {
+        return UnifiedDiffParser.parse(rawDiff);
+    }
+    
+    @Benchmark
+    public String buildPrompt() {
+        return ReviewService.renderPrompt(diff, template);
+    }
+    
+    /**
+     * A diff of at least {@code bytes}, rounded up to a whole hunk, made of files of up to
+     * 8 hunks of 20 lines each, the shape of an ordinary pull request
+     */
+    private static String syntheticDiff(int bytes) {
+        StringBuilder diff = new StringBuilder(bytes + 4096);
+        int file = 0;
+        while (diff.length() < bytes) {
+            String path = "src/main/java/com/example/module" + (file % 50) + "/Service" + file + ".java";
+            diff.append("diff --git a/").append(path).append(" b/").append(path).append('\n')
+                .append("index 3b18e51..a9c2f07 100644\n")
+                .append("--- a/").append(path).append('\n')
+                .append("+++ b/").append(path).append('\n');
+            for (int h = 0; h < 8 && diff.length() < bytes; h++) {
+                int start = h * 120 + 1;
+                diff.append("@@ -").append(start).append(",20 +").append(start).append(",20 @@ public class Service")
+                    .append(file).append(" {\n");
+                for (int l = 0; l < 10; l++) {
+                    diff.append("         Order order = repository.findById(orderId").append(l).append(");\n");
+                    diff.append("-        total = total.add(order.getAmount()); // ").append(l).append('\n');
+                    diff.append("+        total = total.add(order.getAmount().multiply(rate").append(l).append("));\n");
+                }
+            }
+            file++;
+        }
+        return diff.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package ai.review.validation;
+
+import ai.review.dto.ReviewRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of every review request: the repository and PR number validators on their own,
+ * and the whole request through Bean Validation as the controllers run it, where a rejected
+ * request also pays for its interpolated messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ValidatorBenchmark {
+    
+    private static final String[] REPOSITORIES = {
+        "octocat/Hello-World", "qa-guru/ai-review", "spring-projects/spring-boot", "user123/repo.name_with-parts"
+    };
+    
+    private RepositoryValidator repositoryValidator;
+    private PrNumberValidator prNumberValidator;
+    private ValidatorFactory factory;
+    private Validator validator;
+    private ReviewRequest validRequest;
+    private ReviewRequest invalidRequest;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        repositoryValidator = new RepositoryValidator();
+        prNumberValidator = new PrNumberValidator();
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        validRequest = request("octocat/Hello-World", 42);
+        invalidRequest = request("-octocat//Hello-World", 0);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+    
+    // Valid input never touches the context, which is only used to report a violation
+    
+    @Benchmark
+    public boolean validRepository() {
+        return repositoryValidator.isValid(REPOSITORIES[next++ & 3], null);
+    }
+    
+    @Benchmark
+    public boolean validPrNumber() {
+        return prNumberValidator.isValid((++next & 0xffff) | 1, null);
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<ReviewRequest>> validRequest() {
+        return validator.validate(validRequest);
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<ReviewRequest>> invalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+    
+    private static ReviewRequest request(String repository, int prNumber) {
+        ReviewRequest request = new ReviewRequest();
+        request.setRepository(repository);
+        request.setPrNumber(prNumber);
+        return request;
+    }
+}
@@ -0,0 +1,17 @@
+package ai.review.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Snapshot of cache counters since startup. {@code hits} includes {@code diskHits}, the
+ * lookups that missed memory but were answered by the persistent store.
+ */
+public record CacheStats(long hits, long diskHits, long misses, long evictions, int size,
+                         int persistedEntries, long persistedBytes) {
+    
+    @JsonProperty("hitRate")
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,325 @@
+package ai.review.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk store of generated reviews that survives restarts.
+ * <p>
+ * Every put appends one record to {@code reviews.log}:
+ * {@code [int keyLength][int valueLength][long writtenAtMillis][key][value][long crc32]}.
+ * The key -> offset index lives in memory and is rebuilt by scanning the log on startup;
+ * a torn or corrupt tail (e.g. after a crash mid-write) is truncated away. When the live
+ * data exceeds the size cap the oldest entries are dropped from the index, and once the
+ * log holds more garbage than live data it is compacted into a fresh file.
+ */
+public class PersistentReviewStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PersistentReviewStore.class);
+    
+    static final String FILE_NAME = "reviews.log";
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES;
+    private static final int TRAILER_BYTES = Long.BYTES;
+    private static final int MAX_KEY_BYTES = 4096;
+    private static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+    
+    private final Path file;
+    private final long maxBytes;
+    private final UnaryOperator<FileChannel> channels;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Insertion order doubles as age order: re-written keys are moved to the end
+    private final LinkedHashMap<String, Location> index = new LinkedHashMap<>();
+    private FileChannel channel;
+    private long liveBytes;
+    
+    private PersistentReviewStore(Path file, long maxBytes, UnaryOperator<FileChannel> channels) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.channels = channels;
+    }
+    
+    public static PersistentReviewStore open(Path directory, long maxBytes) throws IOException {
+        return open(directory, maxBytes, UnaryOperator.identity());
+    }
+    
+    /**
+     * @param channels wraps every channel opened on the log, for tests to inject I/O failures
+     */
+    static PersistentReviewStore open(Path directory, long maxBytes, UnaryOperator<FileChannel> channels)
+            throws IOException {
+        Files.createDirectories(directory);
+        PersistentReviewStore store = new PersistentReviewStore(directory.resolve(FILE_NAME), maxBytes, channels);
+        store.load();
+        return store;
+    }
+    
+    public Optional<StoredReview> get(String key) {
+        lock.readLock().lock();
+        try {
+            Location location = index.get(key);
+            if (location == null) {
+                return Optional.empty();
+            }
+            ByteBuffer value = ByteBuffer.allocate(location.valueLength());
+            readFully(channel, value, location.valueOffset());
+            return Optional.of(new StoredReview(
+                new String(value.array(), StandardCharsets.UTF_8),
+                Instant.ofEpochMilli(location.writtenAt())));
+        } catch (IOException e) {
+            logger.warn("Failed to read persisted review from {}: {}", file, e.getMessage());
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void put(String key, String review, Instant writtenAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = review.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Cache key exceeds " + MAX_KEY_BYTES + " bytes");
+        }
+        ByteBuffer record = encode(keyBytes, valueBytes, writtenAt.toEpochMilli());
+        
+        lock.writeLock().lock();
+        try {
+            long offset = channel.size();
+            try {
+                writeFully(channel, record, offset);
+            } catch (IOException e) {
+                // Cut off the partial record, or every later append lands behind it and is lost on load
+                channel.truncate(offset);
+                throw e;
+            }
+            index(key, new Location(offset, record.capacity(), keyBytes.length, valueBytes.length, writtenAt.toEpochMilli()));
+            enforceSizeCap();
+            if (shouldCompact()) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to persist review to {}: {}", file, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Location removed = index.remove(key);
+            if (removed != null) {
+                liveBytes -= removed.recordLength();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long liveBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long fileBytes() {
+        lock.readLock().lock();
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Rebuild the index from the log, stopping at the first incomplete or corrupt record
+     */
+    private void load() throws IOException {
+        channel = channels.apply(
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int keyLength = header.getInt();
+            int valueLength = header.getInt();
+            long writtenAt = header.getLong();
+            long recordLength = (long) HEADER_BYTES + keyLength + valueLength + TRAILER_BYTES;
+            if (keyLength < 0 || keyLength > MAX_KEY_BYTES || valueLength < 0 || position + recordLength > size) {
+                break;
+            }
+            
+            ByteBuffer body = ByteBuffer.allocate(keyLength + valueLength + TRAILER_BYTES);
+            readFully(channel, body, position + HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(body.array(), 0, keyLength + valueLength);
+            if (crc.getValue() != body.getLong(keyLength + valueLength)) {
+                break;
+            }
+            
+            String key = new String(body.array(), 0, keyLength, StandardCharsets.UTF_8);
+            index(key, new Location(position, (int) recordLength, keyLength, valueLength, writtenAt));
+            position += recordLength;
+        }
+        
+        if (position < size) {
+            logger.warn("Truncating {} bytes of incomplete or corrupt data at the end of {}", size - position, file);
+            channel.truncate(position);
+        }
+        enforceSizeCap();
+        if (shouldCompact()) {
+            compact();
+        }
+        logger.info("Loaded {} persisted reviews ({} bytes) from {}", index.size(), liveBytes, file);
+    }
+    
+    private void index(String key, Location location) {
+        // Remove first so that a re-written key moves to the young end of the index
+        Location previous = index.remove(key);
+        if (previous != null) {
+            liveBytes -= previous.recordLength();
+        }
+        index.put(key, location);
+        liveBytes += location.recordLength();
+    }
+    
+    private void enforceSizeCap() {
+        Iterator<Location> oldestFirst = index.values().iterator();
+        while (liveBytes > maxBytes && oldestFirst.hasNext()) {
+            liveBytes -= oldestFirst.next().recordLength();
+            oldestFirst.remove();
+        }
+    }
+    
+    private boolean shouldCompact() throws IOException {
+        long fileBytes = channel.size();
+        return fileBytes > MIN_COMPACTION_BYTES && fileBytes > 2 * liveBytes;
+    }
+    
+    /**
+     * Copy the live records into a new file and atomically swap it in place of the log
+     */
+    private void compact() throws IOException {
+        long before = channel.size();
+        Path compactFile = file.resolveSibling(FILE_NAME + ".compact");
+        LinkedHashMap<String, Location> compacted = new LinkedHashMap<>();
+        try (FileChannel out = FileChannel.open(compactFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                ByteBuffer record = ByteBuffer.allocate(location.recordLength());
+                readFully(channel, record, location.recordOffset());
+                record.flip();
+                writeFully(out, record, position);
+                compacted.put(entry.getKey(), location.movedTo(position));
+                position += location.recordLength();
+            }
+            out.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(compactFile);
+            throw e;
+        }
+        
+        channel.close();
+        try {
+            Files.move(compactFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index.clear();
+            index.putAll(compacted);
+        } finally {
+            // Either the compacted file or, if the move failed, the original log
+            channel = channels.apply(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+        logger.info("Compacted {} from {} to {} bytes", file, before, channel.size());
+    }
+    
+    private static ByteBuffer encode(byte[] key, byte[] value, long writtenAt) {
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(value);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + key.length + value.length + TRAILER_BYTES);
+        record.putInt(key.length)
+                .putInt(value.length)
+                .putLong(writtenAt)
+                .put(key)
+                .put(value)
+                .putLong(crc.getValue());
+        record.flip();
+        return record;
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of review store at offset " + (start + buffer.position()));
+            }
+        }
+    }
+    
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, start + buffer.position());
+        }
+    }
+    
+    private record Location(long recordOffset, int recordLength, int keyLength, int valueLength, long writtenAt) {
+        
+        long valueOffset() {
+            return recordOffset + HEADER_BYTES + keyLength;
+        }
+        
+        Location movedTo(long newOffset) {
+            return new Location(newOffset, recordLength, keyLength, valueLength, writtenAt);
+        }
+    }
+}
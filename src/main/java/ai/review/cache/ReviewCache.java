@@ -0,0 +1,184 @@
+package ai.review.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory LRU cache of generated reviews with a maximum entry count and a time to live,
+ * optionally backed by a {@link PersistentReviewStore} that is consulted on memory misses
+ * and written through on every put. Memory access is synchronized; disk I/O happens
+ * outside the lock.
+ */
+public class ReviewCache implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ReviewCache.class);
+    
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final PersistentReviewStore store;
+    private final LinkedHashMap<ReviewCacheKey, Entry> entries;
+    // Guarded by entries
+    private int putsSinceSweep;
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    public ReviewCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, null, Clock.systemUTC());
+    }
+    
+    public ReviewCache(int maxEntries, Duration ttl, PersistentReviewStore store) {
+        this(maxEntries, ttl, store, Clock.systemUTC());
+    }
+    
+    public ReviewCache(int maxEntries, Duration ttl, Clock clock) {
+        this(maxEntries, ttl, null, clock);
+    }
+    
+    public ReviewCache(int maxEntries, Duration ttl, PersistentReviewStore store, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.store = store;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ReviewCacheKey, Entry> eldest) {
+                if (size() > ReviewCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * A cache that never stores anything
+     */
+    public static ReviewCache disabled() {
+        return new ReviewCache(0, Duration.ZERO);
+    }
+    
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+    
+    public Optional<String> get(ReviewCacheKey key) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        Instant now = clock.instant();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry != null) {
+                hits.incrementAndGet();
+                return Optional.of(entry.review);
+            }
+        }
+        
+        Optional<String> persisted = getPersisted(key, now);
+        if (persisted.isPresent()) {
+            hits.incrementAndGet();
+            diskHits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return persisted;
+    }
+    
+    public void put(ReviewCacheKey key, String review) {
+        if (!isEnabled()) {
+            return;
+        }
+        Instant now = clock.instant();
+        putInMemory(key, review, now.plus(ttl));
+        if (store != null) {
+            store.put(key.asString(), review, now);
+        }
+    }
+    
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.get(), diskHits.get(), misses.get(), evictions.get(), size,
+            store != null ? store.size() : 0, store != null ? store.fileBytes() : 0);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+    
+    private Optional<String> getPersisted(ReviewCacheKey key, Instant now) {
+        if (store == null) {
+            return Optional.empty();
+        }
+        Optional<StoredReview> stored = store.get(key.asString());
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        Instant expiresAt = stored.get().writtenAt().plus(ttl);
+        if (!now.isBefore(expiresAt)) {
+            store.remove(key.asString());
+            evictions.incrementAndGet();
+            return Optional.empty();
+        }
+        logger.debug("Promoting persisted review {} into memory", key.asString());
+        putInMemory(key, stored.get().review(), expiresAt);
+        return Optional.of(stored.get().review());
+    }
+    
+    /**
+     * Expired entries are dropped when read, pushed out as least recently used, or swept
+     * once every {@code maxEntries} puts, so a sweep of the whole map costs each put O(1)
+     * amortized rather than O(n)
+     */
+    private void putInMemory(ReviewCacheKey key, String review, Instant expiresAt) {
+        synchronized (entries) {
+            if (++putsSinceSweep >= maxEntries) {
+                putsSinceSweep = 0;
+                evictExpired(clock.instant());
+            }
+            entries.put(key, new Entry(review, expiresAt));
+        }
+    }
+    
+    private void evictExpired(Instant now) {
+        // Iteration order is least recently used first, not by age, so the whole map is scanned
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+    
+    private record Entry(String review, Instant expiresAt) {
+        boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
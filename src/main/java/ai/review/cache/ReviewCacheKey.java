@@ -0,0 +1,40 @@
+package ai.review.cache;
+
+import ai.review.diff.UnifiedDiff;
+import ai.review.template.PromptTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Identifies a generated review by what actually went into it: the diff, the model and the
+ * prompt template. Two requests for an unchanged pull request map to the same key.
+ */
+public record ReviewCacheKey(String diffHash, String model, String templateHash) {
+    
+    public static ReviewCacheKey of(String diff, String model, String template) {
+        return new ReviewCacheKey(Hashing.sha256Hex(diff), model != null ? model : "", Hashing.sha256Hex(template));
+    }
+    
+    /**
+     * Hashes the diff line by line, without rendering it into one string, and reuses the
+     * precomputed template hash. Both equal the hashes of the raw texts, so keys match the
+     * ones derived from the raw diff and template.
+     */
+    public static ReviewCacheKey of(UnifiedDiff diff, String model, PromptTemplate template) {
+        MessageDigest digest = Hashing.newSha256();
+        diff.forEachLine(line -> {
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        });
+        return new ReviewCacheKey(HexFormat.of().formatHex(digest.digest()), model != null ? model : "", template.getHash());
+    }
+    
+    /**
+     * Stable textual form, e.g. for use as a key outside the JVM
+     */
+    public String asString() {
+        return diffHash + ":" + model + ":" + templateHash;
+    }
+}
@@ -0,0 +1,9 @@
+package ai.review.cache;
+
+import java.time.Instant;
+
+/**
+ * A review read back from the persistent store together with the time it was written.
+ */
+public record StoredReview(String review, Instant writtenAt) {
+}
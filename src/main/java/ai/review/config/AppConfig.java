@@ -1,28 +1,196 @@
 package ai.review.config;
 
+import ai.review.cache.PersistentReviewStore;
+import ai.review.cache.ReviewCache;
 import ai.review.github.GitHubClient;
+import ai.review.http.HttpClientFactory;
+import ai.review.http.RequestDecompressionFilter;
+import ai.review.metrics.CacheMetrics;
+import ai.review.metrics.ResilienceMetrics;
+import ai.review.metrics.ReviewMetrics;
 import ai.review.ollama.OllamaClient;
+import ai.review.service.BatchReviewService;
+import ai.review.service.ReviewJobService;
 import ai.review.service.ReviewService;
+import ai.review.template.TemplateRegistry;
+import ai.review.tracing.JsonLinesSpanExporter;
+import ai.review.tracing.LoggingSpanExporter;
+import ai.review.tracing.SpanExporter;
+import ai.review.tracing.Tracer;
+import ai.review.tracing.TracingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executor;
 
 @Configuration
 @EnableConfigurationProperties(AppProperties.class)
 public class AppConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
+    
+    /**
+     * One client for all outbound calls, so connections (and their TLS sessions) to GitHub
+     * and Ollama are pooled and reused across requests
+     */
+    @Bean
+    public HttpClient outboundHttpClient(AppProperties appProperties, Environment environment) {
+        return HttpClientFactory.create(appProperties.getHttp(), httpClientExecutor(environment));
+    }
+    
+    @Bean
+    public GitHubClient gitHubClient(AppProperties appProperties, HttpClient outboundHttpClient, Tracer tracer) {
+        return new GitHubClient(appProperties.getGitHub(), outboundHttpClient, tracer);
+    }
+    
+    @Bean
+    public OllamaClient ollamaClient(AppProperties appProperties, HttpClient outboundHttpClient, Tracer tracer) {
+        return new OllamaClient(appProperties.getOllama(), outboundHttpClient, tracer);
+    }
+    
+    @Bean
+    public Tracer tracer(AppProperties appProperties) {
+        TracingProperties tracing = appProperties.getTracing();
+        return new Tracer(spanExporter(tracing), tracing.getSampleRatio());
+    }
+    
+    @Bean
+    public ReviewCache reviewCache(AppProperties appProperties) {
+        CacheProperties cache = appProperties.getCache();
+        return new ReviewCache(cache.getMaxEntries(), Duration.ofMinutes(cache.getTtlMinutes()), persistentReviewStore(cache));
+    }
+    
+    @Bean
+    public TemplateRegistry templateRegistry(AppProperties appProperties) {
+        String directory = appProperties.getReview().getTemplateDirectory();
+        if (!StringUtils.hasText(directory)) {
+            return new TemplateRegistry();
+        }
+        try {
+            return TemplateRegistry.withDirectory(Path.of(directory));
+        } catch (IOException e) {
+            logger.error("Failed to watch template directory {}, continuing with built-in templates", directory, e);
+            return new TemplateRegistry();
+        }
+    }
+    
+    @Bean
+    public ReviewMetrics reviewMetrics(MeterRegistry meterRegistry) {
+        return new ReviewMetrics(meterRegistry);
+    }
+    
+    @Bean
+    public ReviewService reviewService(GitHubClient gitHubClient, OllamaClient ollamaClient, ReviewCache reviewCache,
+                                       TemplateRegistry templateRegistry, AppProperties appProperties,
+                                       ReviewMetrics reviewMetrics, Tracer tracer) {
+        return new ReviewService(gitHubClient, ollamaClient, reviewCache, appProperties.getReview(), templateRegistry,
+            reviewMetrics, tracer);
+    }
+    
+    /**
+     * Picked up by Boot's metrics auto-configuration, which binds it to the registry
+     */
+    @Bean
+    public CacheMetrics cacheMetrics(ReviewService reviewService) {
+        return new CacheMetrics(reviewService::getCacheStats, reviewService::getGitHubCacheStats);
+    }
+    
+    @Bean
+    public ResilienceMetrics resilienceMetrics(ReviewService reviewService) {
+        return new ResilienceMetrics(reviewService::getGitHubRateLimitStats, reviewService::getCircuitBreakerStats,
+            reviewService::getOllamaEndpointStats);
+    }
     
     @Bean
-    public GitHubClient gitHubClient(AppProperties appProperties) {
-        return new GitHubClient(appProperties.getGitHub());
+    public ReviewJobService reviewJobService(ReviewService reviewService, AppProperties appProperties) {
+        return new ReviewJobService(reviewService, appProperties.getJobs());
     }
     
     @Bean
-    public OllamaClient ollamaClient(AppProperties appProperties) {
-        return new OllamaClient(appProperties.getOllama());
+    public BatchReviewService batchReviewService(ReviewService reviewService, AppProperties appProperties) {
+        return new BatchReviewService(reviewService, appProperties.getBatch());
     }
     
     @Bean
-    public ReviewService reviewService(GitHubClient gitHubClient, OllamaClient ollamaClient) {
-        return new ReviewService(gitHubClient, ollamaClient);
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(AppProperties appProperties,
+                                                                                         ObjectMapper objectMapper) {
+        long maxInflatedBytes = appProperties.getCompression().getMaxInflatedRequestKilobytes() * 1024L;
+        FilterRegistrationBean<RequestDecompressionFilter> registration =
+                new FilterRegistrationBean<>(new RequestDecompressionFilter(maxInflatedBytes, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+    
+    /**
+     * Runs outside the decompression filter, so the span also covers inflating the body
+     */
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+    
+    /**
+     * With spring.threads.virtual.enabled on Java 21+ the outbound HTTP client runs its
+     * internal tasks on virtual threads as well; otherwise the JDK default executor is kept.
+     * Deliberately not a bean, so Boot's own applicationTaskExecutor is left in place.
+     */
+    private static Executor httpClientExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("http-client-");
+        }
+        return null;
+    }
+    
+    /**
+     * A trace file that cannot be opened should not keep the service from starting; spans
+     * are dropped instead
+     */
+    private static SpanExporter spanExporter(TracingProperties tracing) {
+        return switch (tracing.getExporter()) {
+            case NONE -> SpanExporter.NONE;
+            case LOG -> new LoggingSpanExporter();
+            case FILE -> {
+                try {
+                    yield JsonLinesSpanExporter.open(Path.of(tracing.getFile()));
+                } catch (IOException e) {
+                    logger.error("Failed to open trace file {}, spans will not be exported", tracing.getFile(), e);
+                    yield SpanExporter.NONE;
+                }
+            }
+        };
+    }
+    
+    /**
+     * A broken cache directory should not keep the service from starting; it only loses
+     * persistence across restarts.
+     */
+    private static PersistentReviewStore persistentReviewStore(CacheProperties cache) {
+        if (!StringUtils.hasText(cache.getDirectory()) || cache.getMaxEntries() == 0) {
+            return null;
+        }
+        try {
+            return PersistentReviewStore.open(Path.of(cache.getDirectory()), cache.getMaxDiskMegabytes() * 1024L * 1024L);
+        } catch (IOException e) {
+            logger.error("Failed to open persistent review cache in {}, continuing with memory only", cache.getDirectory(), e);
+            return null;
+        }
     }
 }
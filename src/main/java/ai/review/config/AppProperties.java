@@ -18,6 +18,34 @@ public class AppProperties {
     @NotNull
     private OllamaProperties ollama = new OllamaProperties();
     
+    @Valid
+    @NotNull
+    private HttpProperties http = new HttpProperties();
+    
+    @Valid
+    @NotNull
+    private JobProperties jobs = new JobProperties();
+    
+    @Valid
+    @NotNull
+    private BatchProperties batch = new BatchProperties();
+    
+    @Valid
+    @NotNull
+    private CacheProperties cache = new CacheProperties();
+    
+    @Valid
+    @NotNull
+    private ReviewProperties review = new ReviewProperties();
+    
+    @Valid
+    @NotNull
+    private CompressionProperties compression = new CompressionProperties();
+    
+    @Valid
+    @NotNull
+    private TracingProperties tracing = new TracingProperties();
+    
     public GitHubProperties getGitHub() {
         return github;
     }
@@ -33,4 +61,60 @@ public class AppProperties {
     public void setOllama(OllamaProperties ollama) {
         this.ollama = ollama;
     }
+    
+    public HttpProperties getHttp() {
+        return http;
+    }
+    
+    public void setHttp(HttpProperties http) {
+        this.http = http;
+    }
+    
+    public JobProperties getJobs() {
+        return jobs;
+    }
+    
+    public void setJobs(JobProperties jobs) {
+        this.jobs = jobs;
+    }
+    
+    public BatchProperties getBatch() {
+        return batch;
+    }
+    
+    public void setBatch(BatchProperties batch) {
+        this.batch = batch;
+    }
+    
+    public CacheProperties getCache() {
+        return cache;
+    }
+    
+    public void setCache(CacheProperties cache) {
+        this.cache = cache;
+    }
+    
+    public ReviewProperties getReview() {
+        return review;
+    }
+    
+    public void setReview(ReviewProperties review) {
+        this.review = review;
+    }
+    
+    public CompressionProperties getCompression() {
+        return compression;
+    }
+    
+    public void setCompression(CompressionProperties compression) {
+        this.compression = compression;
+    }
+    
+    public TracingProperties getTracing() {
+        return tracing;
+    }
+    
+    public void setTracing(TracingProperties tracing) {
+        this.tracing = tracing;
+    }
 }
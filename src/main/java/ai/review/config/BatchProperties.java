@@ -0,0 +1,42 @@
+package ai.review.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@ConfigurationProperties(prefix = "app.batch")
+@Validated
+public class BatchProperties {
+    
+    /**
+     * Batch items reviewed at the same time, across all batches
+     */
+    @NotNull(message = "Batch parallelism is required")
+    @Positive(message = "Batch parallelism must be positive")
+    private Integer parallelism = 4;
+    
+    /**
+     * How long a batch response may stay open; items not finished by then are dropped
+     */
+    @NotNull(message = "Batch timeout is required")
+    @Positive(message = "Batch timeout must be positive")
+    private Integer timeoutMinutes = 30;
+    
+    public Integer getParallelism() {
+        return parallelism;
+    }
+    
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+    
+    public Integer getTimeoutMinutes() {
+        return timeoutMinutes;
+    }
+    
+    public void setTimeoutMinutes(Integer timeoutMinutes) {
+        this.timeoutMinutes = timeoutMinutes;
+    }
+}
@@ -0,0 +1,62 @@
+package ai.review.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+@ConfigurationProperties(prefix = "app.cache")
+@Validated
+public class CacheProperties {
+    
+    @NotNull(message = "Maximum cache entries is required")
+    @PositiveOrZero(message = "Maximum cache entries must not be negative")
+    private Integer maxEntries = 500;
+    
+    @NotNull(message = "Cache TTL is required")
+    @Positive(message = "Cache TTL must be positive")
+    private Integer ttlMinutes = 1440;
+    
+    /**
+     * Directory of the persistent review store; blank keeps the cache in memory only
+     */
+    private String directory;
+    
+    @NotNull(message = "Maximum persistent cache size is required")
+    @Positive(message = "Maximum persistent cache size must be positive")
+    private Integer maxDiskMegabytes = 256;
+    
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+    
+    public void setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+    
+    public Integer getTtlMinutes() {
+        return ttlMinutes;
+    }
+    
+    public void setTtlMinutes(Integer ttlMinutes) {
+        this.ttlMinutes = ttlMinutes;
+    }
+    
+    public String getDirectory() {
+        return directory;
+    }
+    
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+    
+    public Integer getMaxDiskMegabytes() {
+        return maxDiskMegabytes;
+    }
+    
+    public void setMaxDiskMegabytes(Integer maxDiskMegabytes) {
+        this.maxDiskMegabytes = maxDiskMegabytes;
+    }
+}
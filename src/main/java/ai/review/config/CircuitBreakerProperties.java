@@ -0,0 +1,87 @@
+package ai.review.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Circuit breaker of one backend, nested under its properties as {@code circuit-breaker.*}
+ */
+public class CircuitBreakerProperties {
+    
+    /**
+     * Share of failed calls in the window, in percent, at which the breaker opens
+     */
+    @NotNull(message = "Failure rate threshold is required")
+    @Positive(message = "Failure rate threshold must be positive")
+    @Max(value = 100, message = "Failure rate threshold must be at most 100 percent")
+    private Integer failureRateThreshold = 50;
+    
+    /**
+     * Most recent calls the failure rate is computed over
+     */
+    @NotNull(message = "Sliding window size is required")
+    @Positive(message = "Sliding window size must be positive")
+    private Integer slidingWindowSize = 20;
+    
+    /**
+     * Calls the window must hold before the failure rate is acted on
+     */
+    @NotNull(message = "Minimum calls are required")
+    @Positive(message = "Minimum calls must be positive")
+    private Integer minimumCalls = 10;
+    
+    /**
+     * How long an open breaker fails calls fast before letting trial calls through
+     */
+    @NotNull(message = "Open duration is required")
+    @Positive(message = "Open duration must be positive")
+    private Integer openSeconds = 30;
+    
+    /**
+     * Trial calls let through while half-open; all must succeed to close the breaker
+     */
+    @NotNull(message = "Half-open calls are required")
+    @Positive(message = "Half-open calls must be positive")
+    private Integer halfOpenCalls = 3;
+    
+    public Integer getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+    
+    public void setFailureRateThreshold(Integer failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+    
+    public Integer getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+    
+    public void setSlidingWindowSize(Integer slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+    
+    public Integer getMinimumCalls() {
+        return minimumCalls;
+    }
+    
+    public void setMinimumCalls(Integer minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+    
+    public Integer getOpenSeconds() {
+        return openSeconds;
+    }
+    
+    public void setOpenSeconds(Integer openSeconds) {
+        this.openSeconds = openSeconds;
+    }
+    
+    public Integer getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+    
+    public void setHalfOpenCalls(Integer halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+}
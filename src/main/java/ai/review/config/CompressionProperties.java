@@ -0,0 +1,28 @@
+package ai.review.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@ConfigurationProperties(prefix = "app.compression")
+@Validated
+public class CompressionProperties {
+    
+    /**
+     * Largest gzip/deflate request body accepted once inflated; a small compressed body can
+     * expand to gigabytes, so this is checked while inflating rather than on the wire size
+     */
+    @NotNull(message = "Maximum inflated request size is required")
+    @Positive(message = "Maximum inflated request size must be positive")
+    private Integer maxInflatedRequestKilobytes = 10240;
+    
+    public Integer getMaxInflatedRequestKilobytes() {
+        return maxInflatedRequestKilobytes;
+    }
+    
+    public void setMaxInflatedRequestKilobytes(Integer maxInflatedRequestKilobytes) {
+        this.maxInflatedRequestKilobytes = maxInflatedRequestKilobytes;
+    }
+}
@@ -3,9 +3,12 @@ package ai.review.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 @ConfigurationProperties(prefix = "app.github")
 @Validated
@@ -16,14 +19,46 @@ public class GitHubProperties {
     
     private String token;
     
-    @NotNull(message = "Connection timeout is required")
-    @Positive(message = "Connection timeout must be positive")
-    private Integer connectTimeoutSeconds = 15;
-    
     @NotNull(message = "Request timeout is required")
     @Positive(message = "Request timeout must be positive")
     private Integer requestTimeoutSeconds = 30;
     
+    /**
+     * Memory budget for cached GitHub responses revalidated with ETag / Last-Modified;
+     * 0 disables conditional requests.
+     */
+    @NotNull(message = "Response cache size is required")
+    @PositiveOrZero(message = "Response cache size must not be negative")
+    private Integer responseCacheMaxMegabytes = 32;
+    
+    /**
+     * Share of the hourly rate limit kept in reserve: once fewer calls remain, they are
+     * spread evenly over the time left until the reset instead of spent at once.
+     */
+    @NotNull(message = "Rate limit reserve is required")
+    @PositiveOrZero(message = "Rate limit reserve must not be negative")
+    @Max(value = 100, message = "Rate limit reserve must be at most 100 percent")
+    private Integer rateLimitReservePercent = 10;
+    
+    /**
+     * Longest a call waits for rate limit budget or a Retry-After before failing with 429
+     */
+    @NotNull(message = "Rate limit maximum wait is required")
+    @PositiveOrZero(message = "Rate limit maximum wait must not be negative")
+    private Integer rateLimitMaxWaitSeconds = 60;
+    
+    @NotNull(message = "Rate limit retries are required")
+    @PositiveOrZero(message = "Rate limit retries must not be negative")
+    private Integer rateLimitMaxRetries = 2;
+    
+    @Valid
+    @NotNull(message = "Retry configuration is required")
+    private RetryProperties retry = new RetryProperties();
+    
+    @Valid
+    @NotNull(message = "Circuit breaker configuration is required")
+    private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+    
     public String getBaseUrl() {
         return baseUrl;
     }
@@ -40,14 +75,6 @@ public class GitHubProperties {
         this.token = token;
     }
     
-    public Integer getConnectTimeoutSeconds() {
-        return connectTimeoutSeconds;
-    }
-    
-    public void setConnectTimeoutSeconds(Integer connectTimeoutSeconds) {
-        this.connectTimeoutSeconds = connectTimeoutSeconds;
-    }
-    
     public Integer getRequestTimeoutSeconds() {
         return requestTimeoutSeconds;
     }
@@ -55,4 +82,52 @@ public class GitHubProperties {
     public void setRequestTimeoutSeconds(Integer requestTimeoutSeconds) {
         this.requestTimeoutSeconds = requestTimeoutSeconds;
     }
+    
+    public Integer getResponseCacheMaxMegabytes() {
+        return responseCacheMaxMegabytes;
+    }
+    
+    public void setResponseCacheMaxMegabytes(Integer responseCacheMaxMegabytes) {
+        this.responseCacheMaxMegabytes = responseCacheMaxMegabytes;
+    }
+    
+    public Integer getRateLimitReservePercent() {
+        return rateLimitReservePercent;
+    }
+    
+    public void setRateLimitReservePercent(Integer rateLimitReservePercent) {
+        this.rateLimitReservePercent = rateLimitReservePercent;
+    }
+    
+    public Integer getRateLimitMaxWaitSeconds() {
+        return rateLimitMaxWaitSeconds;
+    }
+    
+    public void setRateLimitMaxWaitSeconds(Integer rateLimitMaxWaitSeconds) {
+        this.rateLimitMaxWaitSeconds = rateLimitMaxWaitSeconds;
+    }
+    
+    public Integer getRateLimitMaxRetries() {
+        return rateLimitMaxRetries;
+    }
+    
+    public void setRateLimitMaxRetries(Integer rateLimitMaxRetries) {
+        this.rateLimitMaxRetries = rateLimitMaxRetries;
+    }
+    
+    public RetryProperties getRetry() {
+        return retry;
+    }
+    
+    public void setRetry(RetryProperties retry) {
+        this.retry = retry;
+    }
+    
+    public CircuitBreakerProperties getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    public void setCircuitBreaker(CircuitBreakerProperties circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
 }
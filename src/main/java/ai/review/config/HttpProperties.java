@@ -0,0 +1,72 @@
+package ai.review.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.net.http.HttpClient;
+
+@ConfigurationProperties(prefix = "app.http")
+@Validated
+public class HttpProperties {
+    
+    /**
+     * Preferred protocol of the shared outbound client; HTTP/2 multiplexes all requests to a
+     * host over one connection and falls back to HTTP/1.1 when the server does not offer it
+     */
+    @NotNull(message = "HTTP version is required")
+    private HttpClient.Version version = HttpClient.Version.HTTP_2;
+    
+    @NotNull(message = "Connection timeout is required")
+    @Positive(message = "Connection timeout must be positive")
+    private Integer connectTimeoutSeconds = 15;
+    
+    /**
+     * How long an idle connection is kept open for reuse
+     */
+    @NotNull(message = "Keep-alive timeout is required")
+    @Positive(message = "Keep-alive timeout must be positive")
+    private Integer keepAliveSeconds = 300;
+    
+    /**
+     * Idle HTTP/1.1 connections kept for reuse, across all hosts; 0 keeps every one of them
+     */
+    @NotNull(message = "Max idle connections is required")
+    @PositiveOrZero(message = "Max idle connections must not be negative")
+    private Integer maxIdleConnections = 0;
+    
+    public HttpClient.Version getVersion() {
+        return version;
+    }
+    
+    public void setVersion(HttpClient.Version version) {
+        this.version = version;
+    }
+    
+    public Integer getConnectTimeoutSeconds() {
+        return connectTimeoutSeconds;
+    }
+    
+    public void setConnectTimeoutSeconds(Integer connectTimeoutSeconds) {
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+    }
+    
+    public Integer getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+    
+    public void setKeepAliveSeconds(Integer keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+    
+    public Integer getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+    
+    public void setMaxIdleConnections(Integer maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+}
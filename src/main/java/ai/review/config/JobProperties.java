@@ -0,0 +1,60 @@
+package ai.review.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@ConfigurationProperties(prefix = "app.jobs")
+@Validated
+public class JobProperties {
+    
+    @NotNull(message = "Worker thread count is required")
+    @Positive(message = "Worker thread count must be positive")
+    private Integer workerThreads = 4;
+    
+    @NotNull(message = "Queue capacity is required")
+    @Positive(message = "Queue capacity must be positive")
+    private Integer queueCapacity = 50;
+    
+    @NotNull(message = "Job retention is required")
+    @Positive(message = "Job retention must be positive")
+    private Integer retentionMinutes = 60;
+    
+    @NotNull(message = "Maximum retained jobs is required")
+    @Positive(message = "Maximum retained jobs must be positive")
+    private Integer maxRetainedJobs = 1000;
+    
+    public Integer getWorkerThreads() {
+        return workerThreads;
+    }
+    
+    public void setWorkerThreads(Integer workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+    
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public Integer getRetentionMinutes() {
+        return retentionMinutes;
+    }
+    
+    public void setRetentionMinutes(Integer retentionMinutes) {
+        this.retentionMinutes = retentionMinutes;
+    }
+    
+    public Integer getMaxRetainedJobs() {
+        return maxRetainedJobs;
+    }
+    
+    public void setMaxRetainedJobs(Integer maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+}
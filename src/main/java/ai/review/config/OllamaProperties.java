@@ -3,9 +3,15 @@ package ai.review.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @ConfigurationProperties(prefix = "app.ollama")
 @Validated
@@ -16,17 +22,78 @@ public class OllamaProperties {
     
     private String apiToken;
     
+    /**
+     * Model servers to spread generations over; empty uses {@code apiUrl} alone
+     */
+    @Valid
+    @NotNull(message = "Ollama endpoints are required")
+    private List<Endpoint> endpoints = new ArrayList<>();
+    
+    @NotNull(message = "Ollama routing is required")
+    private Routing routing = Routing.LEAST_OUTSTANDING;
+    
+    /**
+     * Consecutive failures (network errors, 5xx) after which an endpoint stops receiving
+     * generations for {@code ejectionSeconds}
+     */
+    @NotNull(message = "Ejection failure threshold is required")
+    @Positive(message = "Ejection failure threshold must be positive")
+    private Integer ejectionFailureThreshold = 3;
+    
+    @NotNull(message = "Ejection time is required")
+    @Positive(message = "Ejection time must be positive")
+    private Integer ejectionSeconds = 30;
+    
     @NotBlank(message = "Ollama model is required")
     private String model = "openchat:latest";
     
-    @NotNull(message = "Connection timeout is required")
-    @Positive(message = "Connection timeout must be positive")
-    private Integer connectTimeoutSeconds = 15;
-    
     @NotNull(message = "Request timeout is required")
     @Positive(message = "Request timeout must be positive")
     private Integer requestTimeoutSeconds = 60;
     
+    /**
+     * Generations allowed in flight at start; the limit then adapts between the min and max
+     * limits to the latency and overload responses of the model server
+     */
+    @NotNull(message = "Initial concurrency limit is required")
+    @Positive(message = "Initial concurrency limit must be positive")
+    private Integer limiterInitialLimit = 4;
+    
+    @NotNull(message = "Minimum concurrency limit is required")
+    @Positive(message = "Minimum concurrency limit must be positive")
+    private Integer limiterMinLimit = 1;
+    
+    @NotNull(message = "Maximum concurrency limit is required")
+    @Positive(message = "Maximum concurrency limit must be positive")
+    private Integer limiterMaxLimit = 32;
+    
+    /**
+     * Generations allowed to wait for a slot; more are rejected at once with 503
+     */
+    @NotNull(message = "Limiter queue capacity is required")
+    @PositiveOrZero(message = "Limiter queue capacity must not be negative")
+    private Integer limiterQueueCapacity = 50;
+    
+    @NotNull(message = "Limiter maximum wait is required")
+    @Positive(message = "Limiter maximum wait must be positive")
+    private Integer limiterMaxWaitSeconds = 30;
+    
+    /**
+     * A generation slower than this many times the running average latency is taken as a
+     * sign the model server is overloaded
+     */
+    @NotNull(message = "Limiter latency tolerance is required")
+    @DecimalMin(value = "1.0", message = "Limiter latency tolerance must be at least 1.0")
+    private Double limiterLatencyTolerance = 2.0;
+    
+    @Valid
+    @NotNull(message = "Retry configuration is required")
+    private RetryProperties retry = new RetryProperties();
+    
+    @Valid
+    @NotNull(message = "Circuit breaker configuration is required")
+    private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+    
     public String getApiUrl() {
         return apiUrl;
     }
@@ -43,20 +110,44 @@ public class OllamaProperties {
         this.apiToken = apiToken;
     }
     
-    public String getModel() {
-        return model;
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
     }
     
-    public void setModel(String model) {
-        this.model = model;
+    public void setEndpoints(List<Endpoint> endpoints) {
+        this.endpoints = endpoints;
     }
     
-    public Integer getConnectTimeoutSeconds() {
-        return connectTimeoutSeconds;
+    public Routing getRouting() {
+        return routing;
     }
     
-    public void setConnectTimeoutSeconds(Integer connectTimeoutSeconds) {
-        this.connectTimeoutSeconds = connectTimeoutSeconds;
+    public void setRouting(Routing routing) {
+        this.routing = routing;
+    }
+    
+    public Integer getEjectionFailureThreshold() {
+        return ejectionFailureThreshold;
+    }
+    
+    public void setEjectionFailureThreshold(Integer ejectionFailureThreshold) {
+        this.ejectionFailureThreshold = ejectionFailureThreshold;
+    }
+    
+    public Integer getEjectionSeconds() {
+        return ejectionSeconds;
+    }
+    
+    public void setEjectionSeconds(Integer ejectionSeconds) {
+        this.ejectionSeconds = ejectionSeconds;
+    }
+    
+    public String getModel() {
+        return model;
+    }
+    
+    public void setModel(String model) {
+        this.model = model;
     }
     
     public Integer getRequestTimeoutSeconds() {
@@ -66,4 +157,132 @@ public class OllamaProperties {
     public void setRequestTimeoutSeconds(Integer requestTimeoutSeconds) {
         this.requestTimeoutSeconds = requestTimeoutSeconds;
     }
+    
+    public Integer getLimiterInitialLimit() {
+        return limiterInitialLimit;
+    }
+    
+    public void setLimiterInitialLimit(Integer limiterInitialLimit) {
+        this.limiterInitialLimit = limiterInitialLimit;
+    }
+    
+    public Integer getLimiterMinLimit() {
+        return limiterMinLimit;
+    }
+    
+    public void setLimiterMinLimit(Integer limiterMinLimit) {
+        this.limiterMinLimit = limiterMinLimit;
+    }
+    
+    public Integer getLimiterMaxLimit() {
+        return limiterMaxLimit;
+    }
+    
+    public void setLimiterMaxLimit(Integer limiterMaxLimit) {
+        this.limiterMaxLimit = limiterMaxLimit;
+    }
+    
+    public Integer getLimiterQueueCapacity() {
+        return limiterQueueCapacity;
+    }
+    
+    public void setLimiterQueueCapacity(Integer limiterQueueCapacity) {
+        this.limiterQueueCapacity = limiterQueueCapacity;
+    }
+    
+    public Integer getLimiterMaxWaitSeconds() {
+        return limiterMaxWaitSeconds;
+    }
+    
+    public void setLimiterMaxWaitSeconds(Integer limiterMaxWaitSeconds) {
+        this.limiterMaxWaitSeconds = limiterMaxWaitSeconds;
+    }
+    
+    public Double getLimiterLatencyTolerance() {
+        return limiterLatencyTolerance;
+    }
+    
+    public void setLimiterLatencyTolerance(Double limiterLatencyTolerance) {
+        this.limiterLatencyTolerance = limiterLatencyTolerance;
+    }
+    
+    public RetryProperties getRetry() {
+        return retry;
+    }
+    
+    public void setRetry(RetryProperties retry) {
+        this.retry = retry;
+    }
+    
+    public CircuitBreakerProperties getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    public void setCircuitBreaker(CircuitBreakerProperties circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    /**
+     * How a generation picks among the healthy endpoints
+     */
+    public enum Routing {
+        /**
+         * Fewest generations in flight or waiting, relative to the endpoint's weight
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * Lowest average latency scaled by the generations in flight, relative to weight;
+         * endpoints without measurements yet are tried first
+         */
+        LATENCY
+    }
+    
+    public static class Endpoint {
+        
+        @NotBlank(message = "Ollama endpoint URL is required")
+        private String url;
+        
+        /**
+         * Token for this endpoint; blank falls back to {@code app.ollama.api-token}
+         */
+        private String apiToken;
+        
+        /**
+         * Relative share of generations, e.g. 2 for a box with twice the GPU capacity
+         */
+        @NotNull(message = "Ollama endpoint weight is required")
+        @Positive(message = "Ollama endpoint weight must be positive")
+        private Integer weight = 1;
+        
+        public Endpoint() {}
+        
+        public Endpoint(String url, int weight) {
+            this.url = url;
+            this.weight = weight;
+        }
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public String getApiToken() {
+            return apiToken;
+        }
+        
+        public void setApiToken(String apiToken) {
+            this.apiToken = apiToken;
+        }
+        
+        public Integer getWeight() {
+            return weight;
+        }
+        
+        public void setWeight(Integer weight) {
+            this.weight = weight;
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package ai.review.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Retry of transient failures of one backend, nested under its properties as {@code retry.*}
+ */
+public class RetryProperties {
+    
+    /**
+     * Attempts in total, including the first; 1 disables retries
+     */
+    @NotNull(message = "Retry attempts are required")
+    @Positive(message = "Retry attempts must be positive")
+    private Integer maxAttempts = 3;
+    
+    /**
+     * Backoff cap before the first retry, doubled for every further one up to the maximum;
+     * the actual wait is a random share of it (full jitter)
+     */
+    @NotNull(message = "Initial retry backoff is required")
+    @PositiveOrZero(message = "Initial retry backoff must not be negative")
+    private Integer initialBackoffMillis = 200;
+    
+    @NotNull(message = "Maximum retry backoff is required")
+    @PositiveOrZero(message = "Maximum retry backoff must not be negative")
+    private Integer maxBackoffMillis = 5000;
+    
+    /**
+     * HTTP statuses worth another attempt; network errors are retried as well
+     */
+    @NotNull(message = "Retryable statuses are required")
+    private Set<Integer> retryableStatuses = new LinkedHashSet<>(Set.of(500, 502, 503, 504));
+    
+    /**
+     * No retry is started once this much time has passed since the first attempt
+     */
+    @NotNull(message = "Retry deadline is required")
+    @Positive(message = "Retry deadline must be positive")
+    private Integer deadlineSeconds = 90;
+    
+    public Integer getMaxAttempts() {
+        return maxAttempts;
+    }
+    
+    public void setMaxAttempts(Integer maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+    
+    public Integer getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+    
+    public void setInitialBackoffMillis(Integer initialBackoffMillis) {
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+    
+    public Integer getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+    
+    public void setMaxBackoffMillis(Integer maxBackoffMillis) {
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+    
+    public Set<Integer> getRetryableStatuses() {
+        return retryableStatuses;
+    }
+    
+    public void setRetryableStatuses(Set<Integer> retryableStatuses) {
+        this.retryableStatuses = retryableStatuses;
+    }
+    
+    public Integer getDeadlineSeconds() {
+        return deadlineSeconds;
+    }
+    
+    public void setDeadlineSeconds(Integer deadlineSeconds) {
+        this.deadlineSeconds = deadlineSeconds;
+    }
+}
@@ -0,0 +1,127 @@
+package ai.review.config;
+
+import ai.review.dto.ReviewRequest;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.review")
+@Validated
+public class ReviewProperties {
+    
+    /**
+     * Largest diff, in estimated tokens, sent to the model in one prompt; bigger diffs are
+     * reviewed in chunks of this size and the chunk reviews merged in a reduce pass
+     */
+    @NotNull(message = "Chunk token budget is required")
+    @Positive(message = "Chunk token budget must be positive")
+    private Integer chunkTokenBudget = 4000;
+    
+    /**
+     * Chunk reviews running at the same time, across all requests
+     */
+    @NotNull(message = "Chunk parallelism is required")
+    @Positive(message = "Chunk parallelism must be positive")
+    private Integer chunkParallelism = 4;
+    
+    /**
+     * Directory of prompt templates that override the built-in ones and are reloaded when
+     * changed; blank uses the classpath templates only
+     */
+    private String templateDirectory;
+    
+    /**
+     * Default path globs of files to review; empty reviews every file
+     */
+    @NotNull(message = "Include paths are required")
+    private List<String> includePaths = new ArrayList<>();
+    
+    /**
+     * Default path globs of files left out of the prompt: lockfiles, generated, vendored
+     * and minified sources, snapshots
+     */
+    @NotNull(message = "Exclude paths are required")
+    private List<String> excludePaths = new ArrayList<>(List.of(
+            "**/package-lock.json", "**/yarn.lock", "**/pnpm-lock.yaml", "**/*.lock", "**/gradle.lockfile",
+            "**/*.min.js", "**/*.min.css", "**/*.map",
+            "**/generated/**", "**/generated-sources/**", "**/vendor/**", "**/node_modules/**",
+            "**/__snapshots__/**", "**/*.snap"));
+    
+    /**
+     * Time budget of a review whose request sets none; the calls to GitHub and the model
+     * share it, each getting only what is left
+     */
+    @NotNull(message = "Default timeout is required")
+    @Positive(message = "Default timeout must be positive")
+    private Integer defaultTimeoutSeconds = 120;
+    
+    /**
+     * Largest time budget a request may ask for, in the body or the X-Request-Timeout header
+     */
+    @NotNull(message = "Maximum timeout is required")
+    @Positive(message = "Maximum timeout must be positive")
+    @Max(value = ReviewRequest.MAX_TIMEOUT_SECONDS, message = "Maximum timeout must not exceed " + ReviewRequest.MAX_TIMEOUT_SECONDS + " seconds")
+    private Integer maxTimeoutSeconds = 600;
+    
+    public Integer getChunkTokenBudget() {
+        return chunkTokenBudget;
+    }
+    
+    public void setChunkTokenBudget(Integer chunkTokenBudget) {
+        this.chunkTokenBudget = chunkTokenBudget;
+    }
+    
+    public Integer getChunkParallelism() {
+        return chunkParallelism;
+    }
+    
+    public void setChunkParallelism(Integer chunkParallelism) {
+        this.chunkParallelism = chunkParallelism;
+    }
+    
+    public List<String> getIncludePaths() {
+        return includePaths;
+    }
+    
+    public void setIncludePaths(List<String> includePaths) {
+        this.includePaths = includePaths;
+    }
+    
+    public List<String> getExcludePaths() {
+        return excludePaths;
+    }
+    
+    public void setExcludePaths(List<String> excludePaths) {
+        this.excludePaths = excludePaths;
+    }
+    
+    public String getTemplateDirectory() {
+        return templateDirectory;
+    }
+    
+    public void setTemplateDirectory(String templateDirectory) {
+        this.templateDirectory = templateDirectory;
+    }
+    
+    public Integer getDefaultTimeoutSeconds() {
+        return defaultTimeoutSeconds;
+    }
+    
+    public void setDefaultTimeoutSeconds(Integer defaultTimeoutSeconds) {
+        this.defaultTimeoutSeconds = defaultTimeoutSeconds;
+    }
+    
+    public Integer getMaxTimeoutSeconds() {
+        return maxTimeoutSeconds;
+    }
+    
+    public void setMaxTimeoutSeconds(Integer maxTimeoutSeconds) {
+        this.maxTimeoutSeconds = maxTimeoutSeconds;
+    }
+}
@@ -0,0 +1,74 @@
+package ai.review.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+@ConfigurationProperties(prefix = "app.tracing")
+@Validated
+public class TracingProperties {
+    
+    /**
+     * Where finished spans go. Trace context is propagated to GitHub and Ollama either way.
+     */
+    @NotNull(message = "Tracing exporter is required")
+    private Exporter exporter = Exporter.NONE;
+    
+    /**
+     * File the {@code file} exporter appends spans to, one JSON object per line
+     */
+    @NotBlank(message = "Tracing file is required")
+    private String file = "traces.jsonl";
+    
+    /**
+     * Share of new traces that are recorded; traces continued from a caller's traceparent
+     * keep the caller's decision
+     */
+    @NotNull(message = "Tracing sample ratio is required")
+    @DecimalMin(value = "0.0", message = "Tracing sample ratio must be between 0.0 and 1.0")
+    @DecimalMax(value = "1.0", message = "Tracing sample ratio must be between 0.0 and 1.0")
+    private Double sampleRatio = 1.0;
+    
+    public Exporter getExporter() {
+        return exporter;
+    }
+    
+    public void setExporter(Exporter exporter) {
+        this.exporter = exporter;
+    }
+    
+    public String getFile() {
+        return file;
+    }
+    
+    public void setFile(String file) {
+        this.file = file;
+    }
+    
+    public Double getSampleRatio() {
+        return sampleRatio;
+    }
+    
+    public void setSampleRatio(Double sampleRatio) {
+        this.sampleRatio = sampleRatio;
+    }
+    
+    public enum Exporter {
+        /**
+         * Spans are not exported
+         */
+        NONE,
+        /**
+         * Spans are logged as JSON under the ai.review.tracing.spans logger
+         */
+        LOG,
+        /**
+         * Spans are appended to the tracing file as JSON lines
+         */
+        FILE
+    }
+}
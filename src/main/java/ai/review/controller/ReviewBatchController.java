@@ -0,0 +1,92 @@
+package ai.review.controller;
+
+import ai.review.dto.BatchReviewRequest;
+import ai.review.service.BatchReviewService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/review/batch")
+@Tag(name = "Review Batches", description = "API for reviewing many pull requests in one call")
+public class ReviewBatchController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReviewBatchController.class);
+    
+    // Without an explicit charset the String converter would write ISO-8859-1
+    private static final MediaType NDJSON_UTF8 = new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8);
+    
+    private final BatchReviewService batchReviewService;
+    private final ObjectMapper objectMapper;
+    
+    @Autowired
+    public ReviewBatchController(BatchReviewService batchReviewService, ObjectMapper objectMapper) {
+        this.batchReviewService = batchReviewService;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Operation(
+        summary = "Review a batch of pull requests",
+        description = "Reviews every pull request in the batch concurrently, up to the configured parallelism, and " +
+            "streams one JSON line (NDJSON) per item as soon as that item finishes, in completion order. " +
+            "Failed items carry an error instead of a result and do not affect the rest of the batch."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Batch started, results follow as they complete",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+            examples = @ExampleObject(
+                name = "Batch Results",
+                value = """
+                {"index":1,"repository":"owner/api","prNumber":7,"durationMillis":6120,"result":{"review":"Looks good...","postedToGitHub":false,"message":"Review generated successfully"}}
+                {"index":0,"repository":"owner/web","prNumber":42,"durationMillis":9874,"error":"Failed to fetch pull request 42 from repository owner/web"}
+                """
+            )
+        )
+    )
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> reviewBatch(@Valid @RequestBody BatchReviewRequest request) {
+        logger.info("Received batch review request with {} items", request.getItems().size());
+        
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchReviewService.getTimeout().toMillis());
+        CompletableFuture<Void> batch = batchReviewService.reviewAll(request.getItems(), item -> {
+            try {
+                emitter.send(objectMapper.writeValueAsString(item) + "\n", NDJSON_UTF8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        batch.whenComplete((ignored, e) -> {
+            if (e != null) {
+                logger.warn("Batch review ended early: {}", e.getMessage());
+            } else {
+                logger.info("Batch review of {} items completed", request.getItems().size());
+            }
+            emitter.complete();
+        });
+        // Client gone or batch over its time limit: do not start the remaining items
+        emitter.onTimeout(() -> batch.cancel(false));
+        emitter.onError(e -> batch.cancel(false));
+        
+        return ResponseEntity.ok()
+                .contentType(NDJSON_UTF8)
+                .body(emitter);
+    }
+}
@@ -1,8 +1,24 @@
 package ai.review.controller;
 
+import ai.review.cache.CacheStats;
+import ai.review.dto.DiffFilterReport;
+import ai.review.dto.ErrorResponse;
+import ai.review.dto.HealthResponse;
 import ai.review.dto.ReviewRequest;
 import ai.review.dto.ReviewResponse;
+import ai.review.exception.CircuitBreakerOpenException;
+import ai.review.exception.ConcurrencyLimitExceededException;
+import ai.review.exception.DeadlineExceededException;
+import ai.review.exception.ValidationException;
+import ai.review.github.RateLimitStats;
+import ai.review.github.ResponseCacheStats;
+import ai.review.http.CircuitBreaker;
+import ai.review.http.CircuitBreakerStats;
+import ai.review.http.Deadline;
+import ai.review.ollama.OllamaEndpointStats;
 import ai.review.service.ReviewService;
+import ai.review.tracing.Span;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,8 +31,20 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/review")
@@ -25,11 +53,31 @@ public class ReviewController {
     
     private static final Logger logger = LoggerFactory.getLogger(ReviewController.class);
     
+    /**
+     * Seconds the caller is willing to wait, for clients that cannot set it in the body
+     */
+    static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+    
+    /**
+     * How long a stream stays open past its deadline, to deliver the error event
+     */
+    private static final Duration STREAM_TIMEOUT_GRACE = Duration.ofSeconds(5);
+    
     private final ReviewService reviewService;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor streamExecutor;
     
+    /**
+     * @param streamExecutor runs streaming reviews; Boot's application executor, which also
+     *        serves Spring MVC's async requests and runs on virtual threads when enabled
+     */
     @Autowired
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, ObjectMapper objectMapper,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                            AsyncTaskExecutor streamExecutor) {
         this.reviewService = reviewService;
+        this.objectMapper = objectMapper;
+        this.streamExecutor = streamExecutor;
     }
     
     @Operation(
@@ -49,7 +97,13 @@ public class ReviewController {
                     {
                         "review": "This is a well-structured pull request with good code quality...",
                         "postedToGitHub": true,
-                        "message": "Review generated and posted to GitHub PR #123"
+                        "message": "Review generated and posted to GitHub PR #123",
+                        "diffFilter": {
+                            "reviewedFiles": 3,
+                            "droppedFiles": ["package-lock.json"],
+                            "droppedBytes": 184220,
+                            "droppedTokens": 46055
+                        }
                     }
                     """
                 )
@@ -112,45 +166,375 @@ public class ReviewController {
                 )
             )
         )
-        @Valid @RequestBody ReviewRequest request) {
+        @Valid @RequestBody ReviewRequest request,
+        @Parameter(description = "Seconds the caller is willing to wait; the body's timeoutSeconds takes precedence")
+        @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) Integer timeoutSeconds) {
+        applyTimeoutHeader(request, timeoutSeconds);
         logger.info("Received review request for repository: {}, PR: {}, postToGitHub: {}, template: {}", 
             request.getRepository(), request.getPrNumber(), request.isPostToGitHub(), request.getTemplateName());
         
-        String review = reviewService.generateReview(request.getRepository(), request.getPrNumber(), request.getTemplateName());
-        
-        boolean postedToGitHub = false;
-        String message = "Review generated successfully";
-        
-        if (request.isPostToGitHub()) {
-            reviewService.postReviewToGitHub(request.getRepository(), request.getPrNumber(), review);
-            postedToGitHub = true;
-            message = "Review generated and posted to GitHub PR #" + request.getPrNumber();
-        }
-        
-        ReviewResponse response = new ReviewResponse(review, postedToGitHub, message);
+        ReviewResponse response = reviewService.reviewPullRequest(request);
         logger.info("Review request completed successfully for repository: {}, PR: {}", 
             request.getRepository(), request.getPrNumber());
         
         return ResponseEntity.ok(response);
     }
     
+    @Operation(
+        summary = "Stream AI code review",
+        description = "Generates an AI-powered code review and streams it as Server-Sent Events while the model produces it. " +
+            "Each 'token' event carries a fragment of the review, a final 'done' event carries the outcome " +
+            "and an 'error' event is sent if generation fails after the stream has started."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Review stream started",
+        content = @Content(
+            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+            examples = @ExampleObject(
+                name = "Review Stream",
+                value = """
+                event: token
+                data: This is a well-structured
+
+                event: token
+                data:  pull request...
+
+                event: done
+                data: {"postedToGitHub":false,"message":"Review generated successfully","diffFilter":{"reviewedFiles":3,"droppedFiles":["package-lock.json"],"droppedBytes":184220,"droppedTokens":46055}}
+                """
+            )
+        )
+    )
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamReview(
+        @Valid @RequestBody ReviewRequest request,
+        @Parameter(description = "Seconds the caller is willing to wait; the body's timeoutSeconds takes precedence")
+        @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) Integer timeoutSeconds) {
+        applyTimeoutHeader(request, timeoutSeconds);
+        logger.info("Received streaming review request for repository: {}, PR: {}, postToGitHub: {}, template: {}", 
+            request.getRepository(), request.getPrNumber(), request.isPostToGitHub(), request.getTemplateName());
+        
+        // The budget starts when the request arrives, not when the response starts streaming
+        Deadline deadline = reviewService.deadlineFor(request);
+        // The stream stays open for the budget rather than spring.mvc.async.request-timeout, plus a
+        // grace period in which a review that ran out of time still reports it in an error event
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(deadline.remaining().plus(STREAM_TIMEOUT_GRACE).toMillis());
+        emitter.onTimeout(() -> {
+            logger.warn("Streaming review for repository: {}, PR: {} outlived its deadline, closing the stream",
+                request.getRepository(), request.getPrNumber());
+            deadline.cancel();
+            emitter.complete();
+        });
+        // Client gone: stop generating for it
+        emitter.onError(e -> deadline.cancel());
+        
+        streamExecutor.execute(Span.wrap(() -> {
+            // Only keep the full text around when it has to be posted afterwards
+            StringBuilder review = request.isPostToGitHub() ? new StringBuilder() : null;
+            try {
+                DiffFilterReport diffFilter = reviewService.streamReview(request, token -> {
+                    if (review != null) {
+                        review.append(token);
+                    }
+                    try {
+                        writeEvent(emitter, "token", token);
+                    } catch (IOException e) {
+                        // The client has gone or the stream was closed: stop generating for it
+                        deadline.cancel();
+                        throw new UncheckedIOException(e);
+                    }
+                }, deadline);
+                
+                boolean postedToGitHub = false;
+                String message = "Review generated successfully";
+                if (review != null) {
+                    reviewService.postReviewToGitHub(request.getRepository(), request.getPrNumber(), review.toString(),
+                        deadline);
+                    postedToGitHub = true;
+                    message = "Review generated and posted to GitHub PR #" + request.getPrNumber();
+                }
+                writeEvent(emitter, "done", objectMapper.writeValueAsString(new ReviewResponse(null, postedToGitHub, message, diffFilter)));
+                logger.info("Streaming review request completed successfully for repository: {}, PR: {}", 
+                    request.getRepository(), request.getPrNumber());
+            } catch (IOException e) {
+                logger.info("Could not deliver the end of the streaming review for repository: {}, PR: {}: {}",
+                    request.getRepository(), request.getPrNumber(), e.getMessage());
+            } catch (RuntimeException e) {
+                if (deadline.isCancelled()) {
+                    logger.info("Client disconnected or stream timed out for streaming review for repository: {}, PR: {}, " +
+                        "generation stopped", request.getRepository(), request.getPrNumber());
+                    return;
+                }
+                // Headers are already committed, so the failure has to travel inside the stream
+                logger.error("Streaming review failed for repository: {}, PR: {}: {}", 
+                    request.getRepository(), request.getPrNumber(), e.getMessage(), e);
+                writeErrorEvent(emitter, e);
+            } finally {
+                emitter.complete();
+            }
+        }));
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header("Cache-Control", "no-cache")
+                .body(emitter);
+    }
+    
+    @Operation(
+        summary = "Review cache statistics",
+        description = "Returns hit/miss counters of the cache of generated reviews"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Cache statistics",
+        content = @Content(
+            mediaType = "application/json",
+            examples = @ExampleObject(
+                name = "Cache Statistics",
+                value = """
+                {
+                    "hits": 42,
+                    "diskHits": 5,
+                    "misses": 17,
+                    "evictions": 3,
+                    "size": 14,
+                    "persistedEntries": 120,
+                    "persistedBytes": 482113,
+                    "hitRate": 0.711864406779661
+                }
+                """
+            )
+        )
+    )
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStats> cacheStats() {
+        return ResponseEntity.ok(reviewService.getCacheStats());
+    }
+    
+    @Operation(
+        summary = "GitHub response cache statistics",
+        description = "Returns counters of the conditional (ETag / Last-Modified) GitHub response cache; " +
+                      "a hit is a 304 Not Modified that did not count against the GitHub rate limit"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Cache statistics",
+        content = @Content(
+            mediaType = "application/json",
+            examples = @ExampleObject(
+                name = "GitHub Cache Statistics",
+                value = """
+                {
+                    "hits": 36,
+                    "misses": 12,
+                    "evictions": 0,
+                    "entries": 12,
+                    "bytes": 391220,
+                    "hitRate": 0.75
+                }
+                """
+            )
+        )
+    )
+    @GetMapping("/cache/github/stats")
+    public ResponseEntity<ResponseCacheStats> gitHubCacheStats() {
+        return ResponseEntity.ok(reviewService.getGitHubCacheStats());
+    }
+    
+    @Operation(
+        summary = "GitHub rate limit budget",
+        description = "Returns the rate limit budget GitHub last reported per resource, and how many calls " +
+                      "were delayed, answered with a rate limit, or refused because the wait was too long"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Rate limit statistics",
+        content = @Content(
+            mediaType = "application/json",
+            examples = @ExampleObject(
+                name = "Rate Limit Statistics",
+                value = """
+                {
+                    "budgets": [
+                        {
+                            "resource": "core",
+                            "limit": 5000,
+                            "remaining": 312,
+                            "resetAt": "2024-01-15T11:00:00Z"
+                        }
+                    ],
+                    "throttledCalls": 48,
+                    "rateLimitedResponses": 1,
+                    "rejectedCalls": 0
+                }
+                """
+            )
+        )
+    )
+    @GetMapping("/github/rate-limit")
+    public ResponseEntity<RateLimitStats> gitHubRateLimitStats() {
+        return ResponseEntity.ok(reviewService.getGitHubRateLimitStats());
+    }
+    
+    @Operation(
+        summary = "Ollama endpoint statistics",
+        description = "Returns, per model server endpoint, its weight and health (ejected after consecutive " +
+                      "failures), the generations routed to it and failed, and its adaptive concurrency limiter"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Endpoint statistics",
+        content = @Content(
+            mediaType = "application/json",
+            examples = @ExampleObject(
+                name = "Endpoint Statistics",
+                value = """
+                [
+                    {
+                        "url": "http://gpu-1:11434/api/generate",
+                        "weight": 2,
+                        "healthy": true,
+                        "consecutiveFailures": 0,
+                        "requests": 412,
+                        "failures": 3,
+                        "ejections": 0,
+                        "outstanding": 5,
+                        "limiter": {
+                            "name": "ollama http://gpu-1:11434/api/generate",
+                            "limit": 6,
+                            "inFlight": 5,
+                            "queued": 0,
+                            "rejected": 0,
+                            "dropped": 2,
+                            "averageLatencyMillis": 8410
+                        }
+                    }
+                ]
+                """
+            )
+        )
+    )
+    @GetMapping("/ollama/stats")
+    public ResponseEntity<List<OllamaEndpointStats>> ollamaEndpointStats() {
+        return ResponseEntity.ok(reviewService.getOllamaEndpointStats());
+    }
+    
     @Operation(
         summary = "Health check",
-        description = "Check if the review service is running and healthy"
+        description = "Check if the review service is running, and whether the circuit breakers in front of " +
+                      "GitHub and Ollama are failing calls fast (status DEGRADED while one is not closed)"
     )
     @ApiResponse(
         responseCode = "200",
-        description = "Service is healthy",
+        description = "Service is running",
         content = @Content(
-            mediaType = "text/plain",
+            mediaType = "application/json",
             examples = @ExampleObject(
                 name = "Health Response",
-                value = "Review service is running"
+                value = """
+                {
+                    "status": "UP",
+                    "message": "Review service is running",
+                    "circuitBreakers": [
+                        {
+                            "name": "github",
+                            "state": "CLOSED",
+                            "failureRate": 0.0,
+                            "bufferedCalls": 20,
+                            "failedCalls": 0,
+                            "rejectedCalls": 0,
+                            "timesOpened": 0
+                        },
+                        {
+                            "name": "ollama",
+                            "state": "CLOSED",
+                            "failureRate": 0.1,
+                            "bufferedCalls": 20,
+                            "failedCalls": 2,
+                            "rejectedCalls": 0,
+                            "timesOpened": 1
+                        }
+                    ]
+                }
+                """
             )
         )
     )
     @GetMapping("/health")
-    public ResponseEntity<String> health() {
-        return ResponseEntity.ok("Review service is running");
+    public ResponseEntity<HealthResponse> health() {
+        List<CircuitBreakerStats> circuitBreakers = reviewService.getCircuitBreakerStats();
+        boolean degraded = circuitBreakers.stream()
+            .anyMatch(breaker -> breaker.state() != CircuitBreaker.State.CLOSED);
+        return ResponseEntity.ok(new HealthResponse(
+            degraded ? "DEGRADED" : "UP", "Review service is running", circuitBreakers));
+    }
+    
+    /**
+     * Take the timeout from the header when the body does not set one
+     */
+    private static void applyTimeoutHeader(ReviewRequest request, Integer timeoutSeconds) {
+        if (timeoutSeconds == null || request.getTimeoutSeconds() != null) {
+            return;
+        }
+        if (timeoutSeconds <= 0) {
+            throw new ValidationException("Request timeout must be positive", REQUEST_TIMEOUT_HEADER, timeoutSeconds);
+        }
+        if (timeoutSeconds > ReviewRequest.MAX_TIMEOUT_SECONDS) {
+            throw new ValidationException("Request timeout must not exceed " + ReviewRequest.MAX_TIMEOUT_SECONDS + " seconds",
+                REQUEST_TIMEOUT_HEADER, timeoutSeconds);
+        }
+        request.setTimeoutSeconds(timeoutSeconds);
+    }
+    
+    private void writeErrorEvent(ResponseBodyEmitter emitter, RuntimeException e) {
+        HttpStatus status;
+        String error;
+        // Headers are already committed, so Retry-After travels in the event instead
+        Long retryAfterSeconds = null;
+        if (e instanceof ValidationException) {
+            status = HttpStatus.BAD_REQUEST;
+            error = "Validation Error";
+        } else if (e instanceof DeadlineExceededException) {
+            status = HttpStatus.GATEWAY_TIMEOUT;
+            error = "Gateway Timeout";
+        } else if (e instanceof CircuitBreakerOpenException open) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            error = "Service Unavailable";
+            retryAfterSeconds = open.getRetryAfterSeconds();
+        } else if (e instanceof ConcurrencyLimitExceededException limited) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            error = "Service Unavailable";
+            retryAfterSeconds = limited.getRetryAfterSeconds();
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            error = "Review Generation Error";
+        }
+        try {
+            ErrorResponse errorResponse = new ErrorResponse(error, e.getMessage(), status.value(), "/api/review/stream");
+            errorResponse.setRetryAfterSeconds(retryAfterSeconds);
+            writeEvent(emitter, "error", objectMapper.writeValueAsString(errorResponse));
+        } catch (IOException writeFailure) {
+            logger.debug("Could not deliver error event, client has probably disconnected: {}", writeFailure.getMessage());
+        }
+    }
+    
+    /**
+     * Write a single Server-Sent Event; multi-line data is split into several data fields
+     */
+    private static void writeEvent(ResponseBodyEmitter emitter, String event, String data) throws IOException {
+        StringBuilder frame = new StringBuilder(data.length() + 32);
+        frame.append("event: ").append(event).append('\n');
+        for (String line : data.split("\r\n|\r|\n", -1)) {
+            frame.append("data: ").append(line).append('\n');
+        }
+        frame.append('\n');
+        // Sent as bytes, so the frame is written as it is, UTF-8 encoded, and flushed
+        try {
+            emitter.send(frame.toString().getBytes(StandardCharsets.UTF_8), MediaType.TEXT_EVENT_STREAM);
+        } catch (IllegalStateException e) {
+            // The stream was already closed, on timeout or by a failed earlier send
+            throw new IOException("Stream is closed", e);
+        }
     }
 }
@@ -0,0 +1,118 @@
+package ai.review.controller;
+
+import ai.review.dto.ReviewJobResponse;
+import ai.review.dto.ReviewRequest;
+import ai.review.service.ReviewJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/review/jobs")
+@Tag(name = "Review Jobs", description = "API for generating AI-powered code reviews asynchronously")
+public class ReviewJobController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReviewJobController.class);
+    
+    private final ReviewJobService reviewJobService;
+    
+    @Autowired
+    public ReviewJobController(ReviewJobService reviewJobService) {
+        this.reviewJobService = reviewJobService;
+    }
+    
+    @Operation(
+        summary = "Submit review job",
+        description = "Queues an AI code review for a GitHub pull request and returns immediately with a job id that can be polled."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Review job accepted",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ReviewJobResponse.class),
+                examples = @ExampleObject(
+                    name = "Accepted Job",
+                    value = """
+                    {
+                        "jobId": "4f7c0a2e-8b1d-4c55-9a0e-2d5c3f1b6a90",
+                        "status": "QUEUED",
+                        "repository": "owner/repository",
+                        "prNumber": 123,
+                        "createdAt": "2024-01-15T10:30:45.123"
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+        @ApiResponse(responseCode = "503", description = "Job queue is full, retry later")
+    })
+    @PostMapping
+    public ResponseEntity<ReviewJobResponse> submitReviewJob(
+        @Parameter(description = "Review request containing repository, PR number, and posting preferences", required = true)
+        @Valid @RequestBody ReviewRequest request) {
+        logger.info("Received review job request for repository: {}, PR: {}, postToGitHub: {}, template: {}", 
+            request.getRepository(), request.getPrNumber(), request.isPostToGitHub(), request.getTemplateName());
+        
+        ReviewJobResponse response = reviewJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/review/jobs/" + response.getJobId()))
+                .body(response);
+    }
+    
+    @Operation(
+        summary = "Get review job",
+        description = "Returns the status of a review job and, once finished, its result or error."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Job found",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ReviewJobResponse.class),
+                examples = @ExampleObject(
+                    name = "Finished Job",
+                    value = """
+                    {
+                        "jobId": "4f7c0a2e-8b1d-4c55-9a0e-2d5c3f1b6a90",
+                        "status": "SUCCEEDED",
+                        "repository": "owner/repository",
+                        "prNumber": 123,
+                        "createdAt": "2024-01-15T10:30:45.123",
+                        "startedAt": "2024-01-15T10:30:45.456",
+                        "completedAt": "2024-01-15T10:31:20.789",
+                        "result": {
+                            "review": "This is a well-structured pull request...",
+                            "postedToGitHub": false,
+                            "message": "Review generated successfully"
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired job id")
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReviewJobResponse> getReviewJob(
+        @Parameter(description = "Job id returned on submission", required = true)
+        @PathVariable String jobId) {
+        return ResponseEntity.ok(reviewJobService.getJob(jobId));
+    }
+}
@@ -0,0 +1,18 @@
+package ai.review.diff;
+
+import java.util.List;
+
+/**
+ * A self-contained part of a pull request diff: whole files, or a slice of one file's hunks
+ * under the same file header, small enough to be reviewed in one model call.
+ */
+public record DiffChunk(UnifiedDiff diff) {
+    
+    public List<String> files() {
+        return diff.files().stream().map(FileDiff::path).distinct().toList();
+    }
+    
+    public int estimatedTokens() {
+        return DiffChunker.estimateTokens(diff.length());
+    }
+}
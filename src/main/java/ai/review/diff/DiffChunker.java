@@ -0,0 +1,137 @@
+package ai.review.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a diff into chunks that fit a token budget. Files are packed together while they
+ * fit; a file larger than the budget is split between hunks, and a hunk larger than the
+ * budget between lines, repeating the file and hunk headers in every part so that each
+ * chunk still reads as a valid diff.
+ */
+public class DiffChunker {
+    
+    /**
+     * Rough characters-per-token ratio of source code for the models we run
+     */
+    private static final int CHARS_PER_TOKEN = 4;
+    
+    private final int maxTokens;
+    
+    public DiffChunker(int maxTokens) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("Token budget must be positive: " + maxTokens);
+        }
+        this.maxTokens = maxTokens;
+    }
+    
+    public static int estimateTokens(int characters) {
+        return (characters + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+    
+    public boolean fits(UnifiedDiff diff) {
+        return fits(diff.length());
+    }
+    
+    public boolean fits(int characters) {
+        return estimateTokens(characters) <= maxTokens;
+    }
+    
+    public List<DiffChunk> split(UnifiedDiff diff) {
+        List<DiffChunk> chunks = new ArrayList<>();
+        List<FileDiff> current = new ArrayList<>();
+        int currentLength = 0;
+        
+        for (FileDiff file : diff.files()) {
+            int length = file.length();
+            if (fits(currentLength + length)) {
+                current.add(file);
+                currentLength += length;
+                continue;
+            }
+            flush(chunks, current);
+            currentLength = 0;
+            if (fits(length)) {
+                current.add(file);
+                currentLength = length;
+            } else {
+                for (FileDiff part : splitFile(file)) {
+                    chunks.add(new DiffChunk(new UnifiedDiff(List.of(part))));
+                }
+            }
+        }
+        flush(chunks, current);
+        return chunks;
+    }
+    
+    private static void flush(List<DiffChunk> chunks, List<FileDiff> files) {
+        if (!files.isEmpty()) {
+            chunks.add(new DiffChunk(new UnifiedDiff(files)));
+            files.clear();
+        }
+    }
+    
+    /**
+     * Packs the hunks of an oversized file into parts that share the file header
+     */
+    private List<FileDiff> splitFile(FileDiff file) {
+        int headerLength = file.withHunks(List.of()).length();
+        List<FileDiff> parts = new ArrayList<>();
+        List<Hunk> part = new ArrayList<>();
+        int partLength = headerLength;
+        
+        for (Hunk hunk : file.hunks()) {
+            int length = hunk.length();
+            if (!fits(partLength + length) && !part.isEmpty()) {
+                parts.add(file.withHunks(part));
+                part = new ArrayList<>();
+                partLength = headerLength;
+            }
+            if (fits(partLength + length)) {
+                part.add(hunk);
+                partLength += length;
+            } else {
+                List<Hunk> slices = splitHunk(hunk, headerLength);
+                for (Hunk slice : slices.subList(0, slices.size() - 1)) {
+                    parts.add(file.withHunks(List.of(slice)));
+                }
+                Hunk last = slices.get(slices.size() - 1);
+                part.add(last);
+                partLength += last.length();
+            }
+        }
+        if (!part.isEmpty() || parts.isEmpty()) {
+            parts.add(file.withHunks(part));
+        }
+        return parts;
+    }
+    
+    /**
+     * Last resort for a single hunk over the budget: cut it between lines, repeating the
+     * {@code @@} header. Line numbers in the repeated header are no longer exact, which is
+     * acceptable for review purposes.
+     */
+    private List<Hunk> splitHunk(Hunk hunk, int fileHeaderLength) {
+        int prefixLength = fileHeaderLength + hunk.header().length() + 1;
+        List<Hunk> slices = new ArrayList<>();
+        List<DiffLine> slice = new ArrayList<>();
+        int sliceLength = prefixLength;
+        
+        for (DiffLine line : hunk.lines()) {
+            int length = line.length() + 1;
+            if (!fits(sliceLength + length) && !slice.isEmpty()) {
+                slices.add(slice(hunk, slice));
+                slice = new ArrayList<>();
+                sliceLength = prefixLength;
+            }
+            slice.add(line);
+            sliceLength += length;
+        }
+        slices.add(slice(hunk, slice));
+        return slices;
+    }
+    
+    private static Hunk slice(Hunk hunk, List<DiffLine> lines) {
+        return new Hunk(hunk.header(), hunk.oldStart(), hunk.oldLines(), hunk.newStart(), hunk.newLines(), lines);
+    }
+}
@@ -0,0 +1,99 @@
+package ai.review.diff;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drops files from a diff by path before it is turned into a prompt. A file is kept when it
+ * matches one of the include globs (or there are none) and none of the exclude globs.
+ * Binary files are always dropped. A leading {@code **}{@code /} also matches files at the
+ * repository root, so {@code **}{@code /*.lock} covers {@code yarn.lock}.
+ */
+public class DiffFilter {
+    
+    private final List<String> includeGlobs;
+    private final List<String> excludeGlobs;
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+    
+    /**
+     * @throws IllegalArgumentException if a glob is malformed
+     */
+    public DiffFilter(List<String> includeGlobs, List<String> excludeGlobs) {
+        this.includeGlobs = List.copyOf(includeGlobs);
+        this.excludeGlobs = List.copyOf(excludeGlobs);
+        this.includes = compile(this.includeGlobs);
+        this.excludes = compile(this.excludeGlobs);
+    }
+    
+    public boolean accepts(FileDiff file) {
+        if (file.isBinary()) {
+            return false;
+        }
+        Path path = Path.of(file.path());
+        return (includes.isEmpty() || matchesAny(includes, path)) && !matchesAny(excludes, path);
+    }
+    
+    public Result apply(UnifiedDiff diff) {
+        List<FileDiff> kept = new ArrayList<>(diff.files().size());
+        List<String> dropped = new ArrayList<>();
+        long droppedBytes = 0;
+        int droppedCharacters = 0;
+        
+        for (FileDiff file : diff.files()) {
+            if (accepts(file)) {
+                kept.add(file);
+            } else {
+                dropped.add(file.path());
+                droppedBytes += file.utf8Length();
+                droppedCharacters += file.length();
+            }
+        }
+        if (dropped.isEmpty()) {
+            return new Result(diff, List.of(), 0, 0);
+        }
+        return new Result(new UnifiedDiff(kept), dropped, droppedBytes, DiffChunker.estimateTokens(droppedCharacters));
+    }
+    
+    /**
+     * Stable description of the globs, e.g. to tell apart reviews of the same diff that were
+     * filtered differently
+     */
+    public String signature() {
+        return "include=" + String.join(",", includeGlobs) + ";exclude=" + String.join(",", excludeGlobs);
+    }
+    
+    public record Result(UnifiedDiff diff, List<String> droppedFiles, long droppedBytes, int droppedTokens) {
+        
+        public Result {
+            droppedFiles = List.copyOf(droppedFiles);
+        }
+    }
+    
+    private static List<PathMatcher> compile(List<String> globs) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String glob : globs) {
+            String pattern = glob.strip();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+            if (pattern.startsWith("**/")) {
+                matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(3)));
+            }
+        }
+        return matchers;
+    }
+    
+    private static boolean matchesAny(List<PathMatcher> matchers, Path path) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
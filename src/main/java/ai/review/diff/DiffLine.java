@@ -0,0 +1,42 @@
+package ai.review.diff;
+
+/**
+ * One line of a hunk, without its leading marker character. A context line that came without
+ * its space marker (an empty line, as some tools strip the space) is kept as it was, so that
+ * it renders back to the same text.
+ */
+public record DiffLine(Type type, String content, boolean marked) {
+    
+    public DiffLine(Type type, String content) {
+        this(type, content, true);
+    }
+    
+    public enum Type {
+        CONTEXT(' '),
+        ADDED('+'),
+        REMOVED('-'),
+        /** The "\ No newline at end of file" marker */
+        NO_NEWLINE('\\');
+        
+        private final char marker;
+        
+        Type(char marker) {
+            this.marker = marker;
+        }
+        
+        public char marker() {
+            return marker;
+        }
+    }
+    
+    /**
+     * The line as it appears in the unified diff
+     */
+    public String text() {
+        return marked ? type.marker + content : content;
+    }
+    
+    int length() {
+        return marked ? content.length() + 1 : content.length();
+    }
+}
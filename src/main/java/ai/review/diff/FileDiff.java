@@ -0,0 +1,89 @@
+package ai.review.diff;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The changes to one file: the header lines ({@code diff --git}, {@code index}, {@code ---},
+ * {@code +++}, mode and rename lines) followed by its hunks. A path is {@code null} on the
+ * side where the file does not exist, i.e. the old path of an added file.
+ */
+public record FileDiff(String oldPath, String newPath, List<String> header, List<Hunk> hunks) {
+    
+    public FileDiff {
+        header = List.copyOf(header);
+        hunks = List.copyOf(hunks);
+    }
+    
+    /**
+     * Path of the file after the change, or before it for a deleted file
+     */
+    public String path() {
+        return newPath != null ? newPath : oldPath != null ? oldPath : "";
+    }
+    
+    /**
+     * Binary changes carry no reviewable text, only a "Binary files ... differ" line or a
+     * base85 patch
+     */
+    public boolean isBinary() {
+        for (String line : header) {
+            if (line.startsWith("Binary files ") || line.equals("GIT binary patch")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Characters of the file diff in unified diff form, line terminators included
+     */
+    public int length() {
+        int length = 0;
+        for (String line : header) {
+            length += line.length() + 1;
+        }
+        for (Hunk hunk : hunks) {
+            length += hunk.length();
+        }
+        return length;
+    }
+    
+    /**
+     * Bytes of the file diff in unified diff form once encoded as UTF-8, line terminators included
+     */
+    public long utf8Length() {
+        long[] bytes = {0};
+        forEachLine(line -> {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c < 0x80) {
+                    bytes[0] += 1;
+                } else if (c < 0x800) {
+                    bytes[0] += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    bytes[0] += 4;
+                    i++;
+                } else {
+                    bytes[0] += 3;
+                }
+            }
+            bytes[0] += 1;
+        });
+        return bytes[0];
+    }
+    
+    /**
+     * Same file header with only the given hunks, used to split large files
+     */
+    public FileDiff withHunks(List<Hunk> hunks) {
+        return new FileDiff(oldPath, newPath, header, hunks);
+    }
+    
+    void forEachLine(Consumer<String> action) {
+        header.forEach(action);
+        for (Hunk hunk : hunks) {
+            hunk.forEachLine(action);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ai.review.diff;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hunk: its {@code @@ -oldStart,oldLines +newStart,newLines @@} header and the lines below it
+ */
+public record Hunk(String header, int oldStart, int oldLines, int newStart, int newLines, List<DiffLine> lines) {
+    
+    public Hunk {
+        lines = List.copyOf(lines);
+    }
+    
+    /**
+     * Characters of the hunk in unified diff form, line terminators included
+     */
+    public int length() {
+        int length = header.length() + 1;
+        for (DiffLine line : lines) {
+            length += line.length() + 1;
+        }
+        return length;
+    }
+    
+    void forEachLine(Consumer<String> action) {
+        action.accept(header);
+        for (DiffLine line : lines) {
+            action.accept(line.text());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ai.review.diff;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A pull request diff parsed into files, hunks and lines. It renders back to the unified
+ * diff text it was parsed from, but only on demand, piece by piece.
+ */
+public record UnifiedDiff(List<FileDiff> files) {
+    
+    public UnifiedDiff {
+        files = List.copyOf(files);
+    }
+    
+    public boolean isEmpty() {
+        return files.isEmpty();
+    }
+    
+    /**
+     * Characters of the diff in unified diff form, line terminators included
+     */
+    public int length() {
+        int length = 0;
+        for (FileDiff file : files) {
+            length += file.length();
+        }
+        return length;
+    }
+    
+    /**
+     * Bytes of the diff in unified diff form once encoded as UTF-8, line terminators included
+     */
+    public long utf8Length() {
+        long length = 0;
+        for (FileDiff file : files) {
+            length += file.utf8Length();
+        }
+        return length;
+    }
+    
+    /**
+     * Hands every line of the unified diff text, without terminator, to {@code action}
+     */
+    public void forEachLine(Consumer<String> action) {
+        for (FileDiff file : files) {
+            file.forEachLine(action);
+        }
+    }
+    
+    public StringBuilder appendTo(StringBuilder target) {
+        forEachLine(line -> target.append(line).append('\n'));
+        return target;
+    }
+    
+    /**
+     * The unified diff text. Prefer {@link #appendTo(StringBuilder)} when the diff ends up
+     * inside a larger string anyway.
+     */
+    public String render() {
+        return appendTo(new StringBuilder(length())).toString();
+    }
+}
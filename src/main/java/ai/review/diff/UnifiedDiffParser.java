@@ -0,0 +1,234 @@
+package ai.review.diff;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Line-by-line parser of unified diffs as served by GitHub ({@code git diff} format). Input
+ * is read incrementally, so a diff coming from a network stream is never held as one string;
+ * each file can also be handed to a consumer as soon as it is complete.
+ */
+public final class UnifiedDiffParser {
+    
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -(\\d+)(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@");
+    
+    private UnifiedDiffParser() {
+    }
+    
+    public static UnifiedDiff parse(String unifiedDiff) {
+        try {
+            return parse(new StringReader(unifiedDiff));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public static UnifiedDiff parse(InputStream utf8Diff) throws IOException {
+        return parse(new InputStreamReader(utf8Diff, StandardCharsets.UTF_8));
+    }
+    
+    public static UnifiedDiff parse(Reader reader) throws IOException {
+        List<FileDiff> files = new ArrayList<>();
+        parse(reader, files::add);
+        return new UnifiedDiff(files);
+    }
+    
+    /**
+     * Streams the diff, passing each file to {@code onFile} once its last line has been read.
+     * Lines end at {@code \n} only: a {@code \r} (of a CRLF file, or a bare one inside a
+     * line) is file content and stays part of the line.
+     */
+    public static void parse(Reader reader, Consumer<FileDiff> onFile) throws IOException {
+        LineReader lines = new LineReader(reader);
+        FileBuilder file = null;
+        
+        String line;
+        while ((line = lines.readLine()) != null) {
+            boolean inHunk = file != null && file.hunk != null && !file.hunk.isComplete();
+            
+            if (line.startsWith("diff --git ") || (!inHunk && line.startsWith("--- ") && file != null && file.hasHunks())) {
+                // A new file; plain (non-git) diffs have no "diff --git" line and start at "---"
+                if (file != null) {
+                    onFile.accept(file.build());
+                }
+                file = new FileBuilder();
+            } else if (file == null) {
+                file = new FileBuilder();
+            }
+            file.add(line, inHunk);
+        }
+        if (file != null) {
+            onFile.accept(file.build());
+        }
+    }
+    
+    /**
+     * {@link java.io.BufferedReader#readLine()}, except that only {@code \n} ends a line
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder pending = new StringBuilder();
+        private int position;
+        private int limit;
+        
+        LineReader(Reader reader) {
+            this.reader = reader;
+        }
+        
+        /**
+         * The next line without its {@code \n}, or {@code null} at the end of the input
+         */
+        String readLine() throws IOException {
+            pending.setLength(0);
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return pending.length() > 0 ? pending.toString() : null;
+                    }
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                if (position < limit) {
+                    String line = pending.length() == 0
+                            ? new String(buffer, start, position - start)
+                            : pending.append(buffer, start, position - start).toString();
+                    position++;
+                    return line;
+                }
+                pending.append(buffer, start, position - start);
+            }
+        }
+    }
+    
+    private static final class FileBuilder {
+        private String oldPath;
+        private String newPath;
+        private final List<String> header = new ArrayList<>();
+        private final List<Hunk> hunks = new ArrayList<>();
+        private HunkBuilder hunk;
+        
+        boolean hasHunks() {
+            return hunk != null || !hunks.isEmpty();
+        }
+        
+        void add(String line, boolean inHunk) {
+            if (!inHunk && line.startsWith("@@")) {
+                closeHunk();
+                hunk = new HunkBuilder(line);
+            } else if (hunk != null) {
+                hunk.add(line);
+            } else {
+                addHeader(line);
+            }
+        }
+        
+        private void addHeader(String line) {
+            header.add(line);
+            if (line.startsWith("diff --git ")) {
+                int newSide = line.lastIndexOf(" b/");
+                if (newSide > 0) {
+                    oldPath = stripPrefix(line.substring("diff --git ".length(), newSide));
+                    newPath = line.substring(newSide + 3);
+                }
+            } else if (line.startsWith("--- ")) {
+                oldPath = pathOf(line.substring(4));
+            } else if (line.startsWith("+++ ")) {
+                newPath = pathOf(line.substring(4));
+            }
+        }
+        
+        FileDiff build() {
+            closeHunk();
+            return new FileDiff(oldPath, newPath, header, hunks);
+        }
+        
+        private void closeHunk() {
+            if (hunk != null) {
+                hunks.add(hunk.build());
+                hunk = null;
+            }
+        }
+        
+        private static String pathOf(String path) {
+            return "/dev/null".equals(path) ? null : stripPrefix(path);
+        }
+        
+        private static String stripPrefix(String path) {
+            return path.startsWith("a/") || path.startsWith("b/") ? path.substring(2) : path;
+        }
+    }
+    
+    private static final class HunkBuilder {
+        private final String header;
+        private final int oldStart;
+        private final int oldLines;
+        private final int newStart;
+        private final int newLines;
+        private final List<DiffLine> lines = new ArrayList<>();
+        private int oldRemaining;
+        private int newRemaining;
+        
+        HunkBuilder(String header) {
+            this.header = header;
+            Matcher matcher = HUNK_HEADER.matcher(header);
+            if (matcher.find()) {
+                oldStart = Integer.parseInt(matcher.group(1));
+                oldLines = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 1;
+                newStart = Integer.parseInt(matcher.group(3));
+                newLines = matcher.group(4) != null ? Integer.parseInt(matcher.group(4)) : 1;
+            } else {
+                oldStart = oldLines = newStart = newLines = 0;
+            }
+            oldRemaining = oldLines;
+            newRemaining = newLines;
+        }
+        
+        boolean isComplete() {
+            return oldRemaining <= 0 && newRemaining <= 0;
+        }
+        
+        void add(String line) {
+            DiffLine.Type type = line.isEmpty() ? DiffLine.Type.CONTEXT : switch (line.charAt(0)) {
+                case '+' -> DiffLine.Type.ADDED;
+                case '-' -> DiffLine.Type.REMOVED;
+                case '\\' -> DiffLine.Type.NO_NEWLINE;
+                default -> DiffLine.Type.CONTEXT;
+            };
+            // Some tools strip the single space of empty context lines; anything else
+            // unexpected is kept as context so no content is lost
+            boolean marked = type != DiffLine.Type.CONTEXT || (!line.isEmpty() && line.charAt(0) == ' ');
+            lines.add(new DiffLine(type, marked ? line.substring(1) : line, marked));
+            
+            switch (type) {
+                case CONTEXT -> {
+                    oldRemaining--;
+                    newRemaining--;
+                }
+                case ADDED -> newRemaining--;
+                case REMOVED -> oldRemaining--;
+                case NO_NEWLINE -> {
+                }
+            }
+        }
+        
+        Hunk build() {
+            return new Hunk(header, oldStart, oldLines, newStart, newLines, lines);
+        }
+    }
+}
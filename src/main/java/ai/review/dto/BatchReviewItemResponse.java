@@ -0,0 +1,77 @@
+package ai.review.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one batch item, streamed as soon as the item finishes")
+public class BatchReviewItemResponse {
+    
+    @Schema(description = "Position of the item in the batch request", example = "0")
+    private int index;
+    
+    @Schema(description = "GitHub repository that was reviewed", example = "microsoft/vscode")
+    private String repository;
+    
+    @Schema(description = "Pull request number that was reviewed", example = "123")
+    private Integer prNumber;
+    
+    @Schema(description = "Time spent on this item", example = "8423")
+    private long durationMillis;
+    
+    @Schema(description = "Review result, present if the item succeeded")
+    private ReviewResponse result;
+    
+    @Schema(description = "Error message, present if the item failed", example = "Failed to generate review")
+    private String error;
+    
+    public BatchReviewItemResponse() {}
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public String getRepository() {
+        return repository;
+    }
+    
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+    
+    public Integer getPrNumber() {
+        return prNumber;
+    }
+    
+    public void setPrNumber(Integer prNumber) {
+        this.prNumber = prNumber;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+    
+    public ReviewResponse getResult() {
+        return result;
+    }
+    
+    public void setResult(ReviewResponse result) {
+        this.result = result;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
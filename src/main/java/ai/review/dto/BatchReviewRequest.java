@@ -0,0 +1,35 @@
+package ai.review.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Request object for reviewing several pull requests in one call")
+public class BatchReviewRequest {
+    
+    public static final int MAX_ITEMS = 100;
+    
+    @Schema(description = "Pull requests to review, each with its own options", required = true)
+    @NotEmpty(message = "Batch must contain at least one item")
+    @Size(max = MAX_ITEMS, message = "Batch must not contain more than " + MAX_ITEMS + " items")
+    @Valid
+    private List<@NotNull(message = "Batch item is required") ReviewRequest> items;
+    
+    public BatchReviewRequest() {}
+    
+    public BatchReviewRequest(List<ReviewRequest> items) {
+        this.items = items;
+    }
+    
+    public List<ReviewRequest> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ReviewRequest> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,62 @@
+package ai.review.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "What the path filters removed from the diff before it was sent to the model")
+public class DiffFilterReport {
+    
+    @Schema(description = "Number of files that were reviewed", example = "12")
+    private int reviewedFiles;
+    
+    @Schema(description = "Paths of the files left out of the prompt", example = "[\"package-lock.json\"]")
+    private List<String> droppedFiles;
+    
+    @Schema(description = "UTF-8 size of the dropped part of the diff", example = "184220")
+    private long droppedBytes;
+    
+    @Schema(description = "Estimated prompt tokens saved by dropping those files", example = "46055")
+    private long droppedTokens;
+    
+    public DiffFilterReport() {}
+    
+    public DiffFilterReport(int reviewedFiles, List<String> droppedFiles, long droppedBytes, long droppedTokens) {
+        this.reviewedFiles = reviewedFiles;
+        this.droppedFiles = droppedFiles;
+        this.droppedBytes = droppedBytes;
+        this.droppedTokens = droppedTokens;
+    }
+    
+    public int getReviewedFiles() {
+        return reviewedFiles;
+    }
+    
+    public void setReviewedFiles(int reviewedFiles) {
+        this.reviewedFiles = reviewedFiles;
+    }
+    
+    public List<String> getDroppedFiles() {
+        return droppedFiles;
+    }
+    
+    public void setDroppedFiles(List<String> droppedFiles) {
+        this.droppedFiles = droppedFiles;
+    }
+    
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+    
+    public void setDroppedBytes(long droppedBytes) {
+        this.droppedBytes = droppedBytes;
+    }
+    
+    public long getDroppedTokens() {
+        return droppedTokens;
+    }
+    
+    public void setDroppedTokens(long droppedTokens) {
+        this.droppedTokens = droppedTokens;
+    }
+}
@@ -33,6 +33,9 @@ public class ErrorResponse {
     @Schema(description = "List of field-specific validation errors")
     private List<FieldError> fieldErrors;
     
+    @Schema(description = "Seconds to wait before retrying, where the Retry-After header cannot be sent", example = "5")
+    private Long retryAfterSeconds;
+    
     public ErrorResponse() {
         this.timestamp = LocalDateTime.now();
     }
@@ -141,4 +144,12 @@ public class ErrorResponse {
     public void setFieldErrors(List<FieldError> fieldErrors) {
         this.fieldErrors = fieldErrors;
     }
+    
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    public void setRetryAfterSeconds(Long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
 }
@@ -0,0 +1,51 @@
+package ai.review.dto;
+
+import ai.review.http.CircuitBreakerStats;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Health of the review service and of the backends it calls")
+public class HealthResponse {
+    
+    @Schema(description = "UP, or DEGRADED while a backend's circuit breaker is not closed", example = "UP")
+    private String status;
+    
+    @Schema(description = "Human readable status", example = "Review service is running")
+    private String message;
+    
+    @Schema(description = "State of the circuit breaker in front of each backend")
+    private List<CircuitBreakerStats> circuitBreakers;
+    
+    public HealthResponse() {}
+    
+    public HealthResponse(String status, String message, List<CircuitBreakerStats> circuitBreakers) {
+        this.status = status;
+        this.message = message;
+        this.circuitBreakers = circuitBreakers;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public List<CircuitBreakerStats> getCircuitBreakers() {
+        return circuitBreakers;
+    }
+    
+    public void setCircuitBreakers(List<CircuitBreakerStats> circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+    }
+}
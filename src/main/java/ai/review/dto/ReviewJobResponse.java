@@ -0,0 +1,116 @@
+package ai.review.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "State of an asynchronous review job")
+public class ReviewJobResponse {
+    
+    @Schema(description = "Identifier used to poll the job", example = "4f7c0a2e-8b1d-4c55-9a0e-2d5c3f1b6a90")
+    private String jobId;
+    
+    @Schema(description = "Current job status", example = "RUNNING")
+    private ReviewJobStatus status;
+    
+    @Schema(description = "GitHub repository being reviewed", example = "microsoft/vscode")
+    private String repository;
+    
+    @Schema(description = "Pull request number being reviewed", example = "123")
+    private Integer prNumber;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    @Schema(description = "When the job was accepted", example = "2024-01-15T10:30:45.123")
+    private LocalDateTime createdAt;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    @Schema(description = "When a worker picked the job up", example = "2024-01-15T10:30:45.456")
+    private LocalDateTime startedAt;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    @Schema(description = "When the job finished", example = "2024-01-15T10:31:20.789")
+    private LocalDateTime completedAt;
+    
+    @Schema(description = "Review result, present once the job has succeeded")
+    private ReviewResponse result;
+    
+    @Schema(description = "Error message, present if the job has failed", example = "Failed to generate review")
+    private String error;
+    
+    public ReviewJobResponse() {}
+    
+    public String getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+    
+    public ReviewJobStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ReviewJobStatus status) {
+        this.status = status;
+    }
+    
+    public String getRepository() {
+        return repository;
+    }
+    
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+    
+    public Integer getPrNumber() {
+        return prNumber;
+    }
+    
+    public void setPrNumber(Integer prNumber) {
+        this.prNumber = prNumber;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public ReviewResponse getResult() {
+        return result;
+    }
+    
+    public void setResult(ReviewResponse result) {
+        this.result = result;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
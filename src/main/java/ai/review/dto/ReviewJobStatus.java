@@ -0,0 +1,19 @@
+package ai.review.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Lifecycle state of an asynchronous review job")
+public enum ReviewJobStatus {
+    
+    @Schema(description = "Accepted and waiting for a free worker")
+    QUEUED,
+    
+    @Schema(description = "Currently being generated")
+    RUNNING,
+    
+    @Schema(description = "Finished successfully, the result is available")
+    SUCCEEDED,
+    
+    @Schema(description = "Finished with an error")
+    FAILED
+}
@@ -4,13 +4,21 @@ import ai.review.validation.ValidPrNumber;
 import ai.review.validation.ValidRepository;
 import ai.review.validation.ValidTemplateName;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
+import java.util.List;
+
 @Schema(description = "Request object for generating AI code reviews")
 public class ReviewRequest {
     
+    /**
+     * Upper bound of any timeout; app.review.max-timeout-seconds may set a lower one
+     */
+    public static final int MAX_TIMEOUT_SECONDS = 3600;
+    
     @Schema(
         description = "GitHub repository in format 'owner/repository'",
         example = "microsoft/vscode",
@@ -46,6 +54,38 @@ public class ReviewRequest {
     @ValidTemplateName
     private String templateName = "prompt-template.txt";
     
+    @Schema(
+        description = "Path globs of files to review; replaces the configured default (all files) when set",
+        example = "[\"src/main/**\"]"
+    )
+    private List<String> includePaths;
+    
+    @Schema(
+        description = "Path globs of files to leave out of the review; replaces the configured default " +
+                      "(lockfiles, generated, vendored and minified files) when set",
+        example = "[\"**/*.lock\", \"**/generated/**\"]"
+    )
+    private List<String> excludePaths;
+    
+    @Schema(
+        description = "Seconds the caller is willing to wait for the review; GitHub and model calls stop once it " +
+                      "is spent. Overrides the X-Request-Timeout header, defaults to the configured timeout, and " +
+                      "may not exceed the configured maximum (600 by default)",
+        example = "60",
+        minimum = "1",
+        maximum = "3600"
+    )
+    @Positive(message = "Timeout must be positive")
+    @Max(value = MAX_TIMEOUT_SECONDS, message = "Timeout must not exceed " + MAX_TIMEOUT_SECONDS + " seconds")
+    private Integer timeoutSeconds;
+    
+    @Schema(
+        description = "Whether to return the model timings and token counts Ollama reported with the review",
+        example = "false",
+        defaultValue = "false"
+    )
+    private boolean includeGenerationStats = false;
+    
     public ReviewRequest() {}
     
     public ReviewRequest(String repository, Integer prNumber, boolean postToGitHub) {
@@ -93,4 +133,36 @@ public class ReviewRequest {
     public void setTemplateName(String templateName) {
         this.templateName = templateName;
     }
+    
+    public List<String> getIncludePaths() {
+        return includePaths;
+    }
+    
+    public void setIncludePaths(List<String> includePaths) {
+        this.includePaths = includePaths;
+    }
+    
+    public List<String> getExcludePaths() {
+        return excludePaths;
+    }
+    
+    public void setExcludePaths(List<String> excludePaths) {
+        this.excludePaths = excludePaths;
+    }
+    
+    public Integer getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+    
+    public void setTimeoutSeconds(Integer timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+    
+    public boolean isIncludeGenerationStats() {
+        return includeGenerationStats;
+    }
+    
+    public void setIncludeGenerationStats(boolean includeGenerationStats) {
+        this.includeGenerationStats = includeGenerationStats;
+    }
 }
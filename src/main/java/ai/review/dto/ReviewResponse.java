@@ -1,5 +1,6 @@
 package ai.review.dto;
 
+import ai.review.ollama.GenerationStats;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Response object containing the generated AI code review")
@@ -23,6 +24,17 @@ public class ReviewResponse {
     )
     private String message;
     
+    @Schema(
+        description = "Files left out of the prompt by the path filters, with the size they would have added"
+    )
+    private DiffFilterReport diffFilter;
+    
+    @Schema(
+        description = "Model timings and token counts, when requested with includeGenerationStats. " +
+                      "Absent for a review served from the cache"
+    )
+    private GenerationStats generationStats;
+    
     public ReviewResponse() {}
     
     public ReviewResponse(String review, boolean postedToGitHub, String message) {
@@ -31,6 +43,11 @@ public class ReviewResponse {
         this.message = message;
     }
     
+    public ReviewResponse(String review, boolean postedToGitHub, String message, DiffFilterReport diffFilter) {
+        this(review, postedToGitHub, message);
+        this.diffFilter = diffFilter;
+    }
+    
     public String getReview() {
         return review;
     }
@@ -54,4 +71,20 @@ public class ReviewResponse {
     public void setMessage(String message) {
         this.message = message;
     }
+    
+    public DiffFilterReport getDiffFilter() {
+        return diffFilter;
+    }
+    
+    public void setDiffFilter(DiffFilterReport diffFilter) {
+        this.diffFilter = diffFilter;
+    }
+    
+    public GenerationStats getGenerationStats() {
+        return generationStats;
+    }
+    
+    public void setGenerationStats(GenerationStats generationStats) {
+        this.generationStats = generationStats;
+    }
 }
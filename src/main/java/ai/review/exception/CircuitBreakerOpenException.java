@@ -0,0 +1,26 @@
+package ai.review.exception;
+
+/**
+ * Exception thrown when a backend call is not even attempted because the backend's circuit
+ * breaker is open after too many recent failures. Callers are expected to retry once the
+ * breaker lets calls through again.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+    
+    private final String backend;
+    private final long retryAfterSeconds;
+    
+    public CircuitBreakerOpenException(String message, String backend, long retryAfterSeconds) {
+        super(message);
+        this.backend = backend;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public String getBackend() {
+        return backend;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,32 @@
+package ai.review.exception;
+
+/**
+ * Exception thrown when a backend call is refused by the adaptive concurrency limiter
+ * because the backend is already at its limit and the wait queue is full or the wait timed
+ * out. Callers are expected to retry later.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    
+    // A limiter slot frees up as soon as a call in flight ends
+    private static final long RETRY_AFTER_SECONDS = 5;
+    
+    private final int limit;
+    
+    public ConcurrencyLimitExceededException(String message, int limit) {
+        super(message);
+        this.limit = limit;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return RETRY_AFTER_SECONDS;
+    }
+    
+    @Override
+    public String getMessage() {
+        return String.format("%s (Concurrency limit: %d)", super.getMessage(), limit);
+    }
+}
@@ -0,0 +1,20 @@
+package ai.review.exception;
+
+/**
+ * Exception thrown when a request runs out of its time budget, or is cancelled because the
+ * caller went away, before or while calling a backend. Nothing is retried after it: the
+ * caller is no longer waiting for the answer.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    
+    private final long budgetMillis;
+    
+    public DeadlineExceededException(String message, long budgetMillis) {
+        super(message);
+        this.budgetMillis = budgetMillis;
+    }
+    
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -92,6 +93,110 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
     
+    /**
+     * Handle review job rejections (job queue full)
+     */
+    @ExceptionHandler(ReviewJobRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleReviewJobRejectedException(
+            ReviewJobRejectedException ex, 
+            HttpServletRequest request) {
+        
+        logger.warn("Review job rejected: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "Service Unavailable",
+            ex.getMessage(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+    
+    /**
+     * Handle calls refused by the backend concurrency limiter (model server saturated)
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceededException(
+            ConcurrencyLimitExceededException ex, 
+            HttpServletRequest request) {
+        
+        logger.warn("Concurrency limit exceeded: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "Service Unavailable",
+            ex.getMessage(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+    
+    /**
+     * Handle calls failed fast by an open circuit breaker (backend down)
+     */
+    @ExceptionHandler(CircuitBreakerOpenException.class)
+    public ResponseEntity<ErrorResponse> handleCircuitBreakerOpenException(
+            CircuitBreakerOpenException ex, 
+            HttpServletRequest request) {
+        
+        logger.warn("Circuit breaker open: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "Service Unavailable",
+            ex.getMessage(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+    
+    /**
+     * Handle requests that ran out of their time budget before the review was done
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(
+            DeadlineExceededException ex, 
+            HttpServletRequest request) {
+        
+        logger.warn("Deadline exceeded: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "Gateway Timeout",
+            ex.getMessage(),
+            HttpStatus.GATEWAY_TIMEOUT.value(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+    
+    /**
+     * Handle unknown review job ids
+     */
+    @ExceptionHandler(ReviewJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReviewJobNotFoundException(
+            ReviewJobNotFoundException ex, 
+            HttpServletRequest request) {
+        
+        logger.warn("Review job not found: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "Not Found",
+            ex.getMessage(),
+            HttpStatus.NOT_FOUND.value(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+    
     /**
      * Handle validation exceptions
      */
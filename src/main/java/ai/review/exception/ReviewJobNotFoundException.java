@@ -0,0 +1,26 @@
+package ai.review.exception;
+
+/**
+ * Exception thrown when a review job id is unknown or its result has already expired.
+ */
+public class ReviewJobNotFoundException extends RuntimeException {
+    
+    private final String jobId;
+    
+    public ReviewJobNotFoundException(String jobId) {
+        super("Review job not found");
+        this.jobId = jobId;
+    }
+    
+    public String getJobId() {
+        return jobId;
+    }
+    
+    @Override
+    public String getMessage() {
+        if (jobId != null) {
+            return String.format("%s (Job: %s)", super.getMessage(), jobId);
+        }
+        return super.getMessage();
+    }
+}
@@ -0,0 +1,32 @@
+package ai.review.exception;
+
+/**
+ * Exception thrown when a review job cannot be accepted because the job queue is full.
+ * Callers are expected to retry later.
+ */
+public class ReviewJobRejectedException extends RuntimeException {
+    
+    private final int queueCapacity;
+    
+    public ReviewJobRejectedException(String message, int queueCapacity) {
+        super(message);
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public ReviewJobRejectedException(String message, int queueCapacity, Throwable cause) {
+        super(message, cause);
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    @Override
+    public String getMessage() {
+        if (queueCapacity > 0) {
+            return String.format("%s (Queue capacity: %d)", super.getMessage(), queueCapacity);
+        }
+        return super.getMessage();
+    }
+}
@@ -0,0 +1,83 @@
+package ai.review.github;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU store of decoded GitHub responses together with their validators (ETag and
+ * Last-Modified), used to turn repeated GETs into conditional requests. Memory is bounded
+ * by the approximate size of the cached bodies.
+ */
+class ConditionalResponseCache {
+    
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    ConditionalResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+    
+    boolean isEnabled() {
+        return maxBytes > 0;
+    }
+    
+    Entry get(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+    
+    void put(String key, String etag, String lastModified, Object body, long weight) {
+        if (!isEnabled() || (etag == null && lastModified == null)) {
+            return;
+        }
+        Entry entry = new Entry(etag, lastModified, body, weight);
+        if (entry.weight() > maxBytes) {
+            return;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.weight();
+            }
+            bytes += entry.weight();
+            
+            Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+            while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+                bytes -= leastRecentlyUsed.next().weight();
+                leastRecentlyUsed.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+    
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+    
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+    
+    ResponseCacheStats stats() {
+        synchronized (entries) {
+            return new ResponseCacheStats(hits.get(), misses.get(), evictions.get(), entries.size(), bytes);
+        }
+    }
+    
+    /**
+     * @param body   the decoded response (a parsed diff, a JSON tree), shared read-only
+     * @param weight approximate heap size of the body in bytes
+     */
+    record Entry(String etag, String lastModified, Object body, long weight) {
+    }
+}
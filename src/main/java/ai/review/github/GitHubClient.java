@@ -1,20 +1,39 @@
 package ai.review.github;
 
 import ai.review.config.GitHubProperties;
+import ai.review.config.HttpProperties;
+import ai.review.diff.UnifiedDiff;
+import ai.review.diff.UnifiedDiffParser;
 import ai.review.exception.GitHubApiException;
+import ai.review.http.CircuitBreaker;
+import ai.review.http.CircuitBreakerStats;
+import ai.review.http.ContentEncodings;
+import ai.review.http.Deadline;
+import ai.review.http.HttpClientFactory;
+import ai.review.http.RetryPolicy;
+import ai.review.tracing.HttpTracing;
+import ai.review.tracing.Span;
+import ai.review.tracing.SpanKind;
+import ai.review.tracing.Tracer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.function.Supplier;
 
 @Component
 public class GitHubClient {
@@ -23,78 +42,103 @@ public class GitHubClient {
     private final HttpClient http;
     private final ObjectMapper mapper;
     private final GitHubProperties properties;
-
+    private final ConditionalResponseCache responseCache;
+    private final RateLimitTracker rateLimits;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final Tracer tracer;
+    
     public GitHubClient(GitHubProperties properties) {
+        this(properties, HttpClientFactory.create(new HttpProperties(), null), Tracer.noop());
+    }
+    
+    /**
+     * @param http   shared outbound client, see {@link HttpClientFactory}
+     * @param tracer traces every call and passes the trace on to GitHub in a traceparent header
+     */
+    public GitHubClient(GitHubProperties properties, HttpClient http, Tracer tracer) {
         this.properties = properties;
-        this.http = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(properties.getConnectTimeoutSeconds()))
-                .build();
+        this.http = http;
         this.mapper = new ObjectMapper();
+        this.responseCache = new ConditionalResponseCache(
+                properties.getResponseCacheMaxMegabytes() * 1024L * 1024L);
+        this.rateLimits = new RateLimitTracker(properties.getRateLimitReservePercent(), Clock.systemUTC());
+        this.retryPolicy = RetryPolicy.of("GitHub", properties.getRetry());
+        this.circuitBreaker = CircuitBreaker.of("github", properties.getCircuitBreaker());
+        this.tracer = tracer;
     }
-
+    
     public JsonNode getPullRequest(String repo, int prNumber) {
+        return getPullRequest(repo, prNumber, Deadline.none());
+    }
+    
+    /**
+     * Fetch the pull request, within what is left of {@code deadline}
+     */
+    public JsonNode getPullRequest(String repo, int prNumber, Deadline deadline) {
         logger.debug("Fetching pull request {} for repository {}", prNumber, repo);
         
         String url = properties.getBaseUrl() + "/repos/" + repo + "/pulls/" + prNumber;
-        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(url))
-                .GET()
-                .timeout(Duration.ofSeconds(properties.getRequestTimeoutSeconds()))
-                .header("Accept", "application/vnd.github+json");
-        if (properties.getToken() != null && !properties.getToken().isBlank()) {
-            b.header("Authorization", "Bearer " + properties.getToken());
-        }
-        
-        try {
-            HttpResponse<String> resp = http.send(b.build(), HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() >= 300) {
-                String errorMessage = extractErrorMessage(resp.body());
+        return traced("github.get_pull_request", repo, prNumber, () -> retryPolicy.execute(() -> guarded(() -> {
+            try {
+                return conditionalGet(url, "application/vnd.github+json",
+                        "Failed to fetch pull request " + prNumber + " from repository " + repo,
+                        mapper::readTree, deadline);
+            } catch (IOException | InterruptedException e) {
                 throw new GitHubApiException(
-                    "Failed to fetch pull request " + prNumber + " from repository " + repo,
-                    resp.statusCode(),
-                    errorMessage
+                    "Network error while fetching pull request " + prNumber + " from repository " + repo,
+                    e
                 );
             }
-            return mapper.readTree(resp.body());
-        } catch (IOException | InterruptedException e) {
-            throw new GitHubApiException(
-                "Network error while fetching pull request " + prNumber + " from repository " + repo,
-                e
-            );
-        }
+        }), this::isTransientRead, deadline));
     }
-
-    public String getPullRequestDiff(String repo, int prNumber) {
+    
+    public UnifiedDiff getPullRequestDiff(String repo, int prNumber) {
+        return getPullRequestDiff(repo, prNumber, Deadline.none());
+    }
+    
+    /**
+     * Fetch the pull request diff, parsed into files and hunks while it is being received,
+     * within what is left of {@code deadline}
+     */
+    public UnifiedDiff getPullRequestDiff(String repo, int prNumber, Deadline deadline) {
         logger.debug("Fetching pull request diff {} for repository {}", prNumber, repo);
         
         String url = properties.getBaseUrl() + "/repos/" + repo + "/pulls/" + prNumber;
-        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(url))
-                .GET()
-                .timeout(Duration.ofSeconds(properties.getRequestTimeoutSeconds()))
-                .header("Accept", "application/vnd.github.v3.diff");
-        if (properties.getToken() != null && !properties.getToken().isBlank()) {
-            b.header("Authorization", "Bearer " + properties.getToken());
-        }
-        
-        try {
-            HttpResponse<String> resp = http.send(b.build(), HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() >= 300) {
-                String errorMessage = extractErrorMessage(resp.body());
+        return traced("github.get_pull_request_diff", repo, prNumber, () -> retryPolicy.execute(() -> guarded(() -> {
+            try {
+                return conditionalGet(url, "application/vnd.github.v3.diff",
+                        "Failed to fetch pull request diff " + prNumber + " from repository " + repo,
+                        UnifiedDiffParser::parse, deadline);
+            } catch (IOException | InterruptedException e) {
                 throw new GitHubApiException(
-                    "Failed to fetch pull request diff " + prNumber + " from repository " + repo,
-                    resp.statusCode(),
-                    errorMessage
+                    "Network error while fetching pull request diff " + prNumber + " from repository " + repo,
+                    e
                 );
             }
-            return resp.body();
-        } catch (IOException | InterruptedException e) {
-            throw new GitHubApiException(
-                "Network error while fetching pull request diff " + prNumber + " from repository " + repo,
-                e
-            );
-        }
+        }), this::isTransientRead, deadline));
     }
-
+    
+    public ResponseCacheStats getResponseCacheStats() {
+        return responseCache.stats();
+    }
+    
+    public RateLimitStats getRateLimitStats() {
+        return rateLimits.stats();
+    }
+    
+    public CircuitBreakerStats getCircuitBreakerStats() {
+        return circuitBreaker.stats();
+    }
+    
     public void postIssueComment(String repo, int prNumber, String body) {
+        postIssueComment(repo, prNumber, body, Deadline.none());
+    }
+    
+    /**
+     * Post a comment on the pull request, within what is left of {@code deadline}
+     */
+    public void postIssueComment(String repo, int prNumber, String body, Deadline deadline) {
         logger.debug("Posting comment to pull request {} in repository {}", prNumber, repo);
         
         if (properties.getToken() == null || properties.getToken().isBlank()) {
@@ -102,29 +146,237 @@ public class GitHubClient {
         }
         
         String url = properties.getBaseUrl() + "/repos/" + repo + "/issues/" + prNumber + "/comments";
-        try {
-            String payload = mapper.createObjectNode().put("body", body).toString();
-            HttpRequest req = HttpRequest.newBuilder(URI.create(url))
-                    .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
-                    .timeout(Duration.ofSeconds(properties.getRequestTimeoutSeconds()))
-                    .header("Accept", "application/vnd.github+json")
-                    .header("Authorization", "Bearer " + properties.getToken())
-                    .header("Content-Type", "application/json")
-                    .build();
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() >= 300) {
-                String errorMessage = extractErrorMessage(resp.body());
+        traced("github.post_issue_comment", repo, prNumber, () -> retryPolicy.execute(() -> guarded(() -> {
+            try {
+                String payload = mapper.createObjectNode().put("body", body).toString();
+                HttpRequest req = HttpRequest.newBuilder(URI.create(url))
+                        .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
+                        .timeout(deadline.cap(Duration.ofSeconds(properties.getRequestTimeoutSeconds()),
+                                "posting a comment to GitHub"))
+                        .header("Accept", "application/vnd.github+json")
+                        .header("Accept-Encoding", ContentEncodings.ACCEPT_ENCODING)
+                        .header("Authorization", "Bearer " + properties.getToken())
+                        .header("Content-Type", "application/json")
+                        .build();
+                String failureMessage = "Failed to post comment to pull request " + prNumber + " in repository " + repo;
+                HttpResponse<InputStream> resp = send(req, failureMessage, deadline);
+                String responseBody = readBody(resp, deadline, "posting a comment to GitHub");
+                if (resp.statusCode() >= 300) {
+                    String errorMessage = extractErrorMessage(responseBody);
+                    throw new GitHubApiException(failureMessage, resp.statusCode(), errorMessage);
+                }
+            } catch (IOException | InterruptedException e) {
                 throw new GitHubApiException(
-                    "Failed to post comment to pull request " + prNumber + " in repository " + repo,
-                    resp.statusCode(),
-                    errorMessage
+                    "Network error while posting comment to pull request " + prNumber + " in repository " + repo,
+                    e
                 );
             }
-        } catch (IOException | InterruptedException e) {
-            throw new GitHubApiException(
-                "Network error while posting comment to pull request " + prNumber + " in repository " + repo,
-                e
-            );
+            return null;
+        }), this::isTransientWrite, deadline));
+    }
+    
+    /**
+     * GET with revalidation: a previously seen response is sent back with its validators,
+     * and a 304 Not Modified is answered from the local cache. The same URL is fetched with
+     * different Accept headers (JSON vs. diff), so both form the cache key. The body is
+     * transferred compressed, inflated and decoded straight from the response stream, and
+     * only the decoded form is kept.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T conditionalGet(String url, String accept, String failureMessage, BodyReader<T> reader,
+                                 Deadline deadline) throws IOException, InterruptedException {
+        String cacheKey = accept + " " + url;
+        ConditionalResponseCache.Entry cached = responseCache.get(cacheKey);
+        
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(url))
+                .GET()
+                .timeout(deadline.cap(Duration.ofSeconds(properties.getRequestTimeoutSeconds()), "fetching " + url))
+                .header("Accept", accept)
+                .header("Accept-Encoding", ContentEncodings.ACCEPT_ENCODING);
+        if (properties.getToken() != null && !properties.getToken().isBlank()) {
+            b.header("Authorization", "Bearer " + properties.getToken());
+        }
+        if (cached != null) {
+            if (cached.etag() != null) {
+                b.header("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                b.header("If-Modified-Since", cached.lastModified());
+            }
+        }
+        
+        HttpResponse<InputStream> resp = send(b.build(), failureMessage, deadline);
+        return deadline.readBody(resp.body(), "fetching " + url, () -> {
+            try (CountingInputStream body = new CountingInputStream(ContentEncodings.decode(resp))) {
+                if (resp.statusCode() == 304 && cached != null) {
+                    logger.debug("Not modified, serving cached response for {}", url);
+                    responseCache.recordHit();
+                    return (T) cached.body();
+                }
+                if (resp.statusCode() >= 300) {
+                    String errorMessage = extractErrorMessage(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                    throw new GitHubApiException(failureMessage, resp.statusCode(), errorMessage);
+                }
+                
+                T decoded = reader.read(body);
+                responseCache.recordMiss();
+                responseCache.put(cacheKey,
+                        resp.headers().firstValue("ETag").orElse(null),
+                        resp.headers().firstValue("Last-Modified").orElse(null),
+                        decoded,
+                        // Decoded text is held as UTF-16 strings, roughly twice the wire size
+                        2 * body.getCount());
+                return decoded;
+            }
+        });
+    }
+    
+    /**
+     * Send within the rate limit: wait for budget first, and when GitHub still answers with a
+     * rate limit, wait out its Retry-After (or reset) and try again, up to the configured
+     * retries. A rate limit that would take longer than the maximum wait fails with 429 at
+     * once, so a review degrades to a delay but never hangs on an hour-long reset. The
+     * request was refused without being processed, so retrying it is safe even for a POST.
+     * No wait is longer than what is left of the deadline, and the exchange is aborted when
+     * the deadline is cancelled.
+     */
+    private HttpResponse<InputStream> send(HttpRequest request, String failureMessage, Deadline deadline)
+            throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            Duration maxWait = deadline.cap(Duration.ofSeconds(properties.getRateLimitMaxWaitSeconds()),
+                    "calling GitHub");
+            Duration delay = rateLimits.reserve(RateLimitTracker.DEFAULT_RESOURCE, maxWait)
+                    .orElseThrow(() -> new GitHubApiException(failureMessage, 429,
+                            "Rate limit budget exhausted beyond the maximum wait of " + maxWait.toSeconds() + " s"));
+            if (!delay.isZero()) {
+                logger.debug("Waiting {} ms for GitHub rate limit budget", delay.toMillis());
+                Thread.sleep(delay.toMillis());
+            }
+            
+            HttpResponse<InputStream> resp = HttpTracing.send(tracer, "github", request, traced -> deadline.await(
+                    http.sendAsync(traced, HttpResponse.BodyHandlers.ofInputStream()), "calling GitHub"));
+            rateLimits.update(resp.headers());
+            if (resp.statusCode() != 403 && resp.statusCode() != 429) {
+                return resp;
+            }
+            
+            String errorMessage = extractErrorMessage(readBody(resp, deadline, "calling GitHub"));
+            if (!RateLimitTracker.isRateLimited(resp.statusCode(), resp.headers(), errorMessage)) {
+                throw new GitHubApiException(failureMessage, resp.statusCode(), errorMessage);
+            }
+            Duration backoff = rateLimits.backoff(resp.headers(), attempt);
+            if (attempt >= properties.getRateLimitMaxRetries() || backoff.compareTo(maxWait) > 0) {
+                throw new GitHubApiException(failureMessage, 429, errorMessage);
+            }
+            logger.info("GitHub rate limited {} (attempt {}), retrying in {} ms",
+                    request.uri(), attempt + 1, backoff.toMillis());
+        }
+    }
+    
+    /**
+     * Read a whole, possibly compressed, body as text, within what is left of {@code deadline}
+     */
+    private static String readBody(HttpResponse<InputStream> resp, Deadline deadline, String operation)
+            throws IOException {
+        return deadline.readBody(resp.body(), operation, () -> {
+            try (InputStream in = ContentEncodings.decode(resp)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        });
+    }
+    
+    /**
+     * Run a call, retries included, in a span of its own
+     */
+    private <T> T traced(String operation, String repo, int prNumber, Supplier<T> call) {
+        return tracer.inSpan(operation, SpanKind.INTERNAL, () -> {
+            Span.current()
+                .setAttribute("github.repository", repo)
+                .setAttribute("github.pr_number", prNumber);
+            return call.get();
+        });
+    }
+    
+    /**
+     * Run one attempt of a call through the circuit breaker
+     */
+    private <T> T guarded(Supplier<T> call) {
+        return circuitBreaker.execute(call, GitHubClient::isServerFailure);
+    }
+    
+    /**
+     * Failures that say GitHub is down or unreachable: a 5xx, or no answer at all. Rate
+     * limits and other 4xx are answers and keep the breaker closed.
+     */
+    private static boolean isServerFailure(RuntimeException e) {
+        if (!(e instanceof GitHubApiException apiException)) {
+            return false;
+        }
+        int status = apiException.getStatusCode();
+        return status >= 500 || (status == 0 && apiException.getCause() instanceof IOException);
+    }
+    
+    /**
+     * A GET can be repeated after any network error or a retryable status. Rate limits are
+     * waited out by {@link #send} already and are not retried again here.
+     */
+    private boolean isTransientRead(RuntimeException e) {
+        if (!(e instanceof GitHubApiException apiException)) {
+            return false;
+        }
+        if (apiException.getStatusCode() > 0) {
+            return retryPolicy.isRetryableStatus(apiException.getStatusCode());
+        }
+        return apiException.getCause() instanceof IOException;
+    }
+    
+    /**
+     * A POST is not idempotent: a comment whose request reached GitHub may have been posted
+     * even if the answer was lost or a 5xx, so it is only repeated when the connection was
+     * never established
+     */
+    private boolean isTransientWrite(RuntimeException e) {
+        return e instanceof GitHubApiException apiException
+                && apiException.getStatusCode() == 0
+                && (apiException.getCause() instanceof ConnectException
+                        || apiException.getCause() instanceof HttpConnectTimeoutException);
+    }
+    
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+    
+    /**
+     * Counts the bytes read through it, to size cache entries without buffering the body
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        long getCount() {
+            return count;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
         }
     }
     
@@ -0,0 +1,21 @@
+package ai.review.github;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of the GitHub rate limit budget as last reported by GitHub
+ *
+ * @param throttledCalls       calls delayed to pace the remaining budget or wait out a limit
+ * @param rateLimitedResponses 403/429 rate limit answers received
+ * @param rejectedCalls        calls failed with 429 because the wait would have been too long
+ */
+public record RateLimitStats(List<Budget> budgets, long throttledCalls, long rateLimitedResponses,
+                             long rejectedCalls) {
+    
+    /**
+     * @param resource GitHub's rate limit bucket, e.g. {@code core} for the REST API
+     */
+    public record Budget(String resource, int limit, int remaining, Instant resetAt) {
+    }
+}
@@ -0,0 +1,186 @@
+package ai.review.github;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tracks the GitHub rate limit budget of the configured token (or of the anonymous client)
+ * from the {@code X-RateLimit-*} headers of every response, one budget per resource
+ * ({@code core}, {@code search}, ...). Callers ask for a delay before each call:
+ * <ul>
+ *   <li>above the reserve, calls go straight through;</li>
+ *   <li>within the reserve, calls are spaced evenly over the time left until the reset, so
+ *       a burst stretches out instead of exhausting the budget;</li>
+ *   <li>with no budget left, or after a secondary rate limit, calls wait for the reset or
+ *       the Retry-After, plus jitter so waiting callers do not all retry at the same instant.</li>
+ * </ul>
+ */
+final class RateLimitTracker {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitTracker.class);
+    
+    static final String DEFAULT_RESOURCE = "core";
+    
+    // Backoff for a secondary rate limit that names no Retry-After or reset, doubled per attempt
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    // Jitter added on top of a wait, as a share of it; Retry-After is a lower bound
+    private static final double JITTER_RATIO = 0.2;
+    
+    private final double reserveRatio;
+    private final Clock clock;
+    
+    // Guarded by this
+    private final Map<String, Budget> budgets = new LinkedHashMap<>();
+    private Instant blockedUntil = Instant.MIN;
+    private long throttledCalls;
+    private long rateLimitedResponses;
+    private long rejectedCalls;
+    
+    RateLimitTracker(int reservePercent, Clock clock) {
+        this.reserveRatio = reservePercent / 100.0;
+        this.clock = clock;
+    }
+    
+    /**
+     * Claim one call against the budget of {@code resource} and return how long the caller
+     * should wait before making it, or nothing (and claim nothing) if that is over {@code maxWait}
+     */
+    synchronized Optional<Duration> reserve(String resource, Duration maxWait) {
+        Instant now = clock.instant();
+        Instant slot = now;
+        Instant nextSlot = null;
+        
+        Budget budget = budgets.get(resource);
+        boolean tracked = budget != null && budget.resetAt.isAfter(now);
+        if (tracked) {
+            if (budget.remaining <= 0) {
+                slot = budget.resetAt;
+            } else if (budget.remaining <= Math.ceil(budget.limit * reserveRatio)) {
+                Duration interval = Duration.between(now, budget.resetAt).dividedBy(budget.remaining);
+                slot = max(now, budget.nextSlot);
+                nextSlot = slot.plus(interval);
+            }
+        }
+        slot = max(slot, blockedUntil);
+        
+        Duration delay = Duration.between(now, slot);
+        if (delay.compareTo(maxWait) > 0) {
+            rejectedCalls++;
+            return Optional.empty();
+        }
+        if (tracked && budget.remaining > 0) {
+            // Count the call now, so concurrent callers see the budget it will use
+            budget.remaining--;
+            if (nextSlot != null) {
+                budget.nextSlot = nextSlot;
+            }
+        }
+        if (!delay.isZero()) {
+            throttledCalls++;
+        }
+        return Optional.of(delay);
+    }
+    
+    /**
+     * Record the budget reported by a response
+     */
+    synchronized void update(HttpHeaders headers) {
+        OptionalLong limit = headers.firstValueAsLong("X-RateLimit-Limit");
+        OptionalLong remaining = headers.firstValueAsLong("X-RateLimit-Remaining");
+        OptionalLong reset = headers.firstValueAsLong("X-RateLimit-Reset");
+        if (limit.isEmpty() || remaining.isEmpty() || reset.isEmpty()) {
+            return;
+        }
+        String resource = headers.firstValue("X-RateLimit-Resource").orElse(DEFAULT_RESOURCE);
+        Budget budget = budgets.computeIfAbsent(resource, r -> new Budget());
+        Instant resetAt = Instant.ofEpochSecond(reset.getAsLong());
+        if (!resetAt.equals(budget.resetAt)) {
+            budget.nextSlot = Instant.MIN;
+        }
+        budget.limit = (int) limit.getAsLong();
+        budget.remaining = (int) remaining.getAsLong();
+        budget.resetAt = resetAt;
+    }
+    
+    /**
+     * A 429, or a 403 that GitHub sends for an exhausted primary or a secondary rate limit
+     * (as opposed to one for missing permissions)
+     */
+    static boolean isRateLimited(int statusCode, HttpHeaders headers, String errorMessage) {
+        if (statusCode == 429) {
+            return true;
+        }
+        if (statusCode != 403) {
+            return false;
+        }
+        return retryAfterSeconds(headers).isPresent()
+                || headers.firstValueAsLong("X-RateLimit-Remaining").orElse(-1) == 0
+                || (errorMessage != null && errorMessage.toLowerCase().contains("rate limit"));
+    }
+    
+    /**
+     * How long to wait before retrying a rate limited call: the Retry-After, else until the
+     * reset of an exhausted budget, else exponential backoff, each with jitter on top. All
+     * further calls are held back until then too.
+     */
+    synchronized Duration backoff(HttpHeaders headers, int attempt) {
+        rateLimitedResponses++;
+        Instant now = clock.instant();
+        OptionalLong retryAfter = retryAfterSeconds(headers);
+        OptionalLong reset = headers.firstValueAsLong("X-RateLimit-Reset");
+        Duration wait = null;
+        if (retryAfter.isPresent()) {
+            wait = Duration.ofSeconds(retryAfter.getAsLong());
+        } else if (headers.firstValueAsLong("X-RateLimit-Remaining").orElse(-1) == 0 && reset.isPresent()) {
+            wait = Duration.between(now, Instant.ofEpochSecond(reset.getAsLong()));
+        }
+        if (wait == null || wait.isNegative()) {
+            wait = INITIAL_BACKOFF.multipliedBy(1L << Math.min(attempt, 10));
+        }
+        long jitterMillis = ThreadLocalRandom.current().nextLong((long) (wait.toMillis() * JITTER_RATIO) + 1);
+        Duration delay = wait.plusMillis(jitterMillis);
+        
+        blockedUntil = max(blockedUntil, now.plus(delay));
+        logger.warn("GitHub rate limit hit, holding calls back for {} ms", delay.toMillis());
+        return delay;
+    }
+    
+    synchronized RateLimitStats stats() {
+        List<RateLimitStats.Budget> snapshot = budgets.entrySet().stream()
+                .map(e -> new RateLimitStats.Budget(e.getKey(), e.getValue().limit, e.getValue().remaining, e.getValue().resetAt))
+                .toList();
+        return new RateLimitStats(snapshot, throttledCalls, rateLimitedResponses, rejectedCalls);
+    }
+    
+    /**
+     * Retry-After in seconds, the form GitHub sends; an HTTP date is ignored
+     */
+    private static OptionalLong retryAfterSeconds(HttpHeaders headers) {
+        return headers.firstValue("Retry-After")
+                .map(String::trim)
+                .filter(value -> !value.isEmpty() && value.chars().allMatch(Character::isDigit))
+                .map(value -> OptionalLong.of(Long.parseLong(value)))
+                .orElse(OptionalLong.empty());
+    }
+    
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+    
+    private static final class Budget {
+        private int limit;
+        private int remaining;
+        private Instant resetAt = Instant.MIN;
+        private Instant nextSlot = Instant.MIN;
+    }
+}
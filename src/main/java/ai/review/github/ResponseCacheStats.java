@@ -0,0 +1,16 @@
+package ai.review.github;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Snapshot of the GitHub conditional response cache. A hit is a 304 Not Modified answered
+ * from the cache, which GitHub does not count against the rate limit.
+ */
+public record ResponseCacheStats(long hits, long misses, long evictions, int entries, long bytes) {
+    
+    @JsonProperty("hitRate")
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
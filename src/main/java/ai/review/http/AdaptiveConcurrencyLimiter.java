@@ -0,0 +1,212 @@
+package ai.review.http;
+
+import ai.review.exception.ConcurrencyLimitExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caps the calls in flight to one backend at a limit that adapts to how the backend copes
+ * (AIMD): every call that completes in normal time while the limit is in use raises the limit
+ * by {@code 1 / limit}, about +1 per round of calls, and every overload signal (a call
+ * the caller classifies as dropped, or one much slower than the running average latency)
+ * cuts it by {@link #BACKOFF_RATIO}. Calls over the limit wait in a bounded queue for a
+ * bounded time; beyond that they are rejected straight away instead of timing out later.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+    
+    static final double BACKOFF_RATIO = 0.9;
+    
+    // Weight of a new sample in the running average latency, and samples needed before
+    // latency is used as an overload signal at all
+    private static final double LATENCY_SMOOTHING = 0.05;
+    private static final int LATENCY_WARMUP_SAMPLES = 10;
+    
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final double latencyTolerance;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double averageLatencyNanos;
+    private long latencySamples;
+    private long rejected;
+    private long dropped;
+    
+    /**
+     * @param latencyTolerance how many times the running average latency a call may take
+     *                         before it counts as a sign of overload
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      int maxQueued, Duration maxWait, double latencyTolerance) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max, got "
+                    + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.latencyTolerance = latencyTolerance;
+    }
+    
+    /**
+     * Run {@code call} once a slot is free.
+     *
+     * @param isDropped classifies a failure of the call as a sign of overload (rate limited,
+     *                  unavailable, timed out); other failures leave the limit alone
+     * @throws ConcurrencyLimitExceededException if the wait queue is full or no slot frees
+     *         up within the maximum wait
+     */
+    public <T> T execute(Supplier<T> call, Predicate<RuntimeException> isDropped) {
+        return execute(call, isDropped, Duration.ofNanos(maxWaitNanos));
+    }
+    
+    /**
+     * As {@link #execute(Supplier, Predicate)}, waiting for a slot no longer than
+     * {@code maxWait} when that is shorter than the configured maximum wait
+     */
+    public <T> T execute(Supplier<T> call, Predicate<RuntimeException> isDropped, Duration maxWait) {
+        acquire(Math.min(maxWaitNanos, maxWait.toNanos()));
+        long start = System.nanoTime();
+        boolean handled = false;
+        try {
+            T result = call.get();
+            handled = true;
+            onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            handled = true;
+            if (isDropped.test(e)) {
+                onDropped();
+            } else {
+                release();
+            }
+            throw e;
+        } finally {
+            if (!handled) {
+                // An Error says nothing about the backend's load, but the slot must still be freed
+                release();
+            }
+        }
+    }
+    
+    public LimiterStats stats() {
+        lock.lock();
+        try {
+            return new LimiterStats(name, (int) limit, inFlight, queued, rejected, dropped,
+                    TimeUnit.NANOSECONDS.toMillis((long) averageLatencyNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void acquire(long waitNanos) {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit && queued == 0) {
+                inFlight++;
+                return;
+            }
+            if (queued >= maxQueued) {
+                throw reject("wait queue is full");
+            }
+            queued++;
+            try {
+                long remaining = waitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        throw reject("no slot freed up in " + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms");
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject("interrupted while waiting");
+            } finally {
+                queued--;
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private ConcurrencyLimitExceededException reject(String reason) {
+        rejected++;
+        logger.warn("Rejected call to {}: {} (limit {}, in flight {}, queued {})", name, reason, (int) limit, inFlight, queued);
+        return new ConcurrencyLimitExceededException(
+                "Too many concurrent requests to " + name + ", " + reason, (int) limit);
+    }
+    
+    private void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean slow = latencySamples >= LATENCY_WARMUP_SAMPLES
+                    && latencyNanos > averageLatencyNanos * latencyTolerance;
+            averageLatencyNanos = latencySamples == 0
+                    ? latencyNanos
+                    : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+            latencySamples++;
+            
+            if (slow) {
+                decrease("slow call of " + TimeUnit.NANOSECONDS.toMillis(latencyNanos) + " ms");
+            } else if (inFlight * 2 >= limit) {
+                // Only grow while the limit is actually being used, not after an idle spell
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void onDropped() {
+        lock.lock();
+        try {
+            dropped++;
+            decrease("dropped call");
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void release() {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void decrease(String reason) {
+        int before = (int) limit;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        if ((int) limit != before) {
+            logger.info("Lowered concurrency limit of {} from {} to {} after {}", name, before, (int) limit, reason);
+        }
+    }
+    
+    private void releaseLocked() {
+        inFlight--;
+        permitReleased.signalAll();
+    }
+}
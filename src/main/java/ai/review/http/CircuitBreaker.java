@@ -0,0 +1,204 @@
+package ai.review.http;
+
+import ai.review.config.CircuitBreakerProperties;
+import ai.review.exception.CircuitBreakerOpenException;
+import ai.review.exception.ConcurrencyLimitExceededException;
+import ai.review.exception.DeadlineExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Fails calls to a backend fast while it is unhealthy, instead of letting every caller wait
+ * for its own timeout. Closed, it records the outcome of the most recent calls in a sliding
+ * window and opens once their failure rate reaches the threshold. Open, it rejects calls with
+ * {@link CircuitBreakerOpenException} for the open duration, then turns half-open and lets a
+ * few trial calls through: if all succeed it closes again, if one fails it reopens.
+ * <p>
+ * A call refused by the {@link AdaptiveConcurrencyLimiter} never reached the backend, and one
+ * given up at its {@link Deadline} says nothing about it either; neither is recorded.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+    
+    // Guarded by this; outcomes of the most recent calls while closed, true for a failure
+    private final boolean[] window;
+    private int windowIndex;
+    private int bufferedCalls;
+    private int failedCalls;
+    
+    private State state = State.CLOSED;
+    private Instant openUntil = Instant.MIN;
+    private int trialsInFlight;
+    private int trialsSucceeded;
+    private long rejectedCalls;
+    private long timesOpened;
+    
+    /**
+     * @param failureRatePercent failed share of the window, in percent, at which to open
+     */
+    public CircuitBreaker(String name, int failureRatePercent, int slidingWindowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls, Clock clock) {
+        if (slidingWindowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Window size, minimum calls and half-open calls must be positive");
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRatePercent / 100.0;
+        this.window = new boolean[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+    
+    public static CircuitBreaker of(String name, CircuitBreakerProperties properties) {
+        return new CircuitBreaker(
+                name,
+                properties.getFailureRateThreshold(),
+                properties.getSlidingWindowSize(),
+                properties.getMinimumCalls(),
+                Duration.ofSeconds(properties.getOpenSeconds()),
+                properties.getHalfOpenCalls(),
+                Clock.systemUTC());
+    }
+    
+    /**
+     * Run {@code call} if the breaker lets it through, and record its outcome.
+     *
+     * @param isFailure classifies a failure of the call as a sign the backend is unhealthy
+     *                  (unreachable, timed out, 5xx); other failures count as the backend
+     *                  having answered
+     * @throws CircuitBreakerOpenException if the breaker is open, or half-open with all
+     *         trial calls already under way
+     */
+    public <T> T execute(Supplier<T> call, Predicate<RuntimeException> isFailure) {
+        boolean trial = acquirePermission();
+        try {
+            T result = call.get();
+            onOutcome(trial, false);
+            return result;
+        } catch (ConcurrencyLimitExceededException | DeadlineExceededException e) {
+            onIgnored(trial);
+            throw e;
+        } catch (RuntimeException e) {
+            onOutcome(trial, isFailure.test(e));
+            throw e;
+        }
+    }
+    
+    public synchronized State getState() {
+        if (state == State.OPEN && !clock.instant().isBefore(openUntil)) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+    
+    public synchronized CircuitBreakerStats stats() {
+        double failureRate = bufferedCalls == 0 ? 0.0 : (double) failedCalls / bufferedCalls;
+        return new CircuitBreakerStats(name, getState(), failureRate, bufferedCalls, failedCalls,
+                rejectedCalls, timesOpened);
+    }
+    
+    /**
+     * @return whether the call is a half-open trial
+     */
+    private synchronized boolean acquirePermission() {
+        Instant now = clock.instant();
+        if (state == State.OPEN && !now.isBefore(openUntil)) {
+            state = State.HALF_OPEN;
+            trialsInFlight = 0;
+            trialsSucceeded = 0;
+            logger.info("Circuit breaker {} half-open, letting {} trial calls through", name, halfOpenCalls);
+        }
+        switch (state) {
+            case CLOSED:
+                return false;
+            case HALF_OPEN:
+                if (trialsInFlight + trialsSucceeded < halfOpenCalls) {
+                    trialsInFlight++;
+                    return true;
+                }
+                throw reject(1);
+            default:
+                throw reject(Math.max(1, Duration.between(now, openUntil).toSeconds()));
+        }
+    }
+    
+    private CircuitBreakerOpenException reject(long retryAfterSeconds) {
+        rejectedCalls++;
+        return new CircuitBreakerOpenException(
+                "Circuit breaker for " + name + " is " + state.name().toLowerCase().replace('_', '-')
+                        + " after repeated failures, not calling it",
+                name, retryAfterSeconds);
+    }
+    
+    private synchronized void onOutcome(boolean trial, boolean failed) {
+        if (trial) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            trialsInFlight--;
+            if (failed) {
+                open("a failed trial call");
+            } else if (++trialsSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            // Started before the breaker opened
+            return;
+        }
+        if (bufferedCalls == window.length && window[windowIndex]) {
+            failedCalls--;
+        }
+        window[windowIndex] = failed;
+        windowIndex = (windowIndex + 1) % window.length;
+        bufferedCalls = Math.min(bufferedCalls + 1, window.length);
+        if (failed) {
+            failedCalls++;
+        }
+        if (bufferedCalls >= minimumCalls && (double) failedCalls / bufferedCalls >= failureRateThreshold) {
+            open(failedCalls + " of the last " + bufferedCalls + " calls failing");
+        }
+    }
+    
+    private synchronized void onIgnored(boolean trial) {
+        if (trial && state == State.HALF_OPEN) {
+            trialsInFlight--;
+        }
+    }
+    
+    private void open(String reason) {
+        state = State.OPEN;
+        openUntil = clock.instant().plus(openDuration);
+        timesOpened++;
+        logger.warn("Circuit breaker {} opened for {} s after {}", name, openDuration.toSeconds(), reason);
+    }
+    
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        bufferedCalls = 0;
+        failedCalls = 0;
+        logger.info("Circuit breaker {} closed after {} successful trial calls", name, halfOpenCalls);
+    }
+}
@@ -0,0 +1,13 @@
+package ai.review.http;
+
+/**
+ * Snapshot of a {@link CircuitBreaker}
+ *
+ * @param failureRate   failed share of the calls in the sliding window, 0.0 to 1.0
+ * @param bufferedCalls calls in the sliding window since the breaker last closed
+ * @param rejectedCalls calls failed fast without reaching the backend
+ * @param timesOpened   how often the breaker has opened
+ */
+public record CircuitBreakerStats(String name, CircuitBreaker.State state, double failureRate,
+                                  int bufferedCalls, int failedCalls, long rejectedCalls, long timesOpened) {
+}
@@ -0,0 +1,125 @@
+package ai.review.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compressed transfer for {@link java.net.http.HttpClient}, which neither asks for nor decodes
+ * compressed bodies on its own: requests advertise {@link #ACCEPT_ENCODING} and the response
+ * stream is inflated while it is read, without buffering the whole body. Compressed request
+ * bodies sent to the review API are decoded the same way.
+ */
+public final class ContentEncodings {
+    
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+    
+    private ContentEncodings() {
+    }
+    
+    /**
+     * The decoded body of a response received with {@code BodyHandlers.ofInputStream()}.
+     * Closing it reads whatever is left of the response, so the connection can be reused.
+     */
+    public static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        // 204 and 304 never have a body, whatever Content-Encoding they repeat
+        String encoding = response.statusCode() == 204 || response.statusCode() == 304
+                ? null
+                : response.headers().firstValue("Content-Encoding").orElse(null);
+        return decode(response.body(), encoding);
+    }
+    
+    /**
+     * Whether {@link #decode(InputStream, String)} can read a body with this Content-Encoding;
+     * {@code null} and "identity" mean the body is not encoded
+     */
+    public static boolean isSupported(String contentEncoding) {
+        return switch (normalize(contentEncoding)) {
+            case "", "identity", "gzip", "x-gzip", "deflate" -> true;
+            default -> false;
+        };
+    }
+    
+    public static boolean isIdentity(String contentEncoding) {
+        String encoding = normalize(contentEncoding);
+        return encoding.isEmpty() || encoding.equals("identity");
+    }
+    
+    public static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        InputStream raw = new DrainingInputStream(body);
+        switch (normalize(contentEncoding)) {
+            case "", "identity":
+                return raw;
+            case "gzip", "x-gzip":
+                return new GZIPInputStream(raw, 8192);
+            case "deflate":
+                return inflate(raw);
+            default:
+                raw.close();
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+    
+    private static String normalize(String contentEncoding) {
+        return contentEncoding == null ? "" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * "deflate" is meant to be zlib-wrapped, but some servers send a raw deflate stream; the
+     * two are told apart by the zlib header (compression method 8, header checksum % 31 == 0).
+     */
+    private static InputStream inflate(InputStream raw) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(raw, 2);
+        int cmf = in.read();
+        int flg = cmf < 0 ? -1 : in.read();
+        if (flg >= 0) {
+            in.unread(flg);
+        }
+        if (cmf >= 0) {
+            in.unread(cmf);
+        }
+        boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new InflaterInputStream(in, new Inflater(!zlib), 8192) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inf.end();
+                }
+            }
+        };
+    }
+    
+    /**
+     * The HttpClient tears the connection down when its body stream is closed before the end,
+     * and decoders (and Jackson) stop reading at the end of their own data
+     */
+    private static final class DrainingInputStream extends FilterInputStream {
+        private boolean closed;
+        
+        DrainingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                in.transferTo(OutputStream.nullOutputStream());
+            } finally {
+                super.close();
+            }
+        }
+    }
+}
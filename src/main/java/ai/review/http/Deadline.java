@@ -0,0 +1,218 @@
+package ai.review.http;
+
+import ai.review.exception.DeadlineExceededException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time budget of one review request, shared by every backend call made for it. Each call
+ * waits at most the smaller of its own configured timeout and what is left of the budget, so
+ * a review stops when its caller gives up instead of running on into the next hop.
+ * A response counts against the budget until its body has been read: {@link #await} covers
+ * the exchange up to the headers, {@link #readBody} the body after them. Cancelling the
+ * deadline, once the caller has disconnected, aborts the exchanges and body reads in
+ * progress and fails every later call.
+ */
+public final class Deadline {
+    
+    // Closes the bodies still being read when their budget runs out
+    private static final ScheduledExecutorService EXPIRY = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "deadline-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final long startNanos = System.nanoTime();
+    private final long budgetNanos;
+    private final Set<CompletableFuture<?>> waiting = ConcurrentHashMap.newKeySet();
+    private final Set<Runnable> reading = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+    
+    private Deadline(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+    
+    public static Deadline after(Duration budget) {
+        return new Deadline(budget.toNanos());
+    }
+    
+    /**
+     * A deadline that never expires but can still be cancelled
+     */
+    public static Deadline none() {
+        return new Deadline(Long.MAX_VALUE);
+    }
+    
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+    
+    public boolean isExpired() {
+        return cancelled || remainingNanos() <= 0;
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Fail with {@link DeadlineExceededException} if nothing more should be done for the request
+     *
+     * @param operation what was about to happen, for the message
+     */
+    public void check(String operation) {
+        if (isExpired()) {
+            throw exceeded(operation);
+        }
+    }
+    
+    /**
+     * The timeout for a call: {@code timeout}, or less if less of the budget is left
+     *
+     * @throws DeadlineExceededException if the budget is spent or the deadline cancelled
+     */
+    public Duration cap(Duration timeout, String operation) {
+        check(operation);
+        Duration remaining = remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+    
+    /**
+     * Wait for an asynchronous call, such as {@code HttpClient.sendAsync}, within the budget.
+     * The call is cancelled when the budget runs out or the deadline is cancelled first, which
+     * aborts the HTTP exchange instead of leaving it running for nobody.
+     *
+     * @throws IOException the failure of the call, when it was an I/O error
+     * @throws DeadlineExceededException if the budget ran out or the deadline was cancelled
+     */
+    public <T> T await(CompletableFuture<T> call, String operation) throws IOException, InterruptedException {
+        waiting.add(call);
+        try {
+            if (isExpired()) {
+                call.cancel(true);
+                throw exceeded(operation);
+            }
+            return call.get(remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            call.cancel(true);
+            throw exceeded(operation);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CancellationException) {
+                // The JDK client fails its own future this way when cancel() aborts it
+                throw exceeded(operation);
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        } finally {
+            waiting.remove(call);
+        }
+    }
+    
+    /**
+     * Read a response body within the budget. {@code sendAsync} completes once the headers
+     * have arrived, so a server that stalls after them would block the read for as long as it
+     * likes; instead {@code body} is closed when the budget runs out or the deadline is
+     * cancelled, which ends the read.
+     *
+     * @param body the stream the read blocks on, such as {@code HttpResponse.body()}
+     * @throws IOException the failure of the read, when it was not caused by the deadline
+     * @throws DeadlineExceededException if the budget ran out or the deadline was cancelled
+     */
+    public <T> T readBody(AutoCloseable body, String operation, BodyRead<T> read) throws IOException {
+        AtomicBoolean aborted = new AtomicBoolean();
+        Runnable abort = () -> {
+            if (aborted.compareAndSet(false, true)) {
+                closeQuietly(body);
+            }
+        };
+        reading.add(abort);
+        ScheduledFuture<?> expiry = budgetNanos == Long.MAX_VALUE
+                ? null
+                : EXPIRY.schedule(abort, Math.max(0, remainingNanos()), TimeUnit.NANOSECONDS);
+        try {
+            if (isExpired()) {
+                abort.run();
+                throw exceeded(operation);
+            }
+            T result = read.read();
+            // A closed stream may just look exhausted; what was read up to then is incomplete
+            if (aborted.get()) {
+                throw exceeded(operation);
+            }
+            return result;
+        } catch (IOException | UncheckedIOException e) {
+            if (aborted.get()) {
+                throw exceeded(operation);
+            }
+            throw e;
+        } finally {
+            reading.remove(abort);
+            if (expiry != null) {
+                expiry.cancel(false);
+            }
+        }
+    }
+    
+    /**
+     * Give up on the request: abort the calls waiting in {@link #await} and the body reads in
+     * {@link #readBody}, and fail later ones
+     */
+    public void cancel() {
+        cancelled = true;
+        waiting.forEach(call -> call.cancel(true));
+        reading.forEach(Runnable::run);
+    }
+    
+    /**
+     * Reads a response body, blocking until it is complete
+     */
+    @FunctionalInterface
+    public interface BodyRead<T> {
+        T read() throws IOException;
+    }
+    
+    private static void closeQuietly(AutoCloseable body) {
+        try {
+            body.close();
+        } catch (Exception e) {
+            // The read fails either way, which is all that closing is for
+        }
+    }
+    
+    private long remainingNanos() {
+        if (budgetNanos == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return budgetNanos - (System.nanoTime() - startNanos);
+    }
+    
+    private DeadlineExceededException exceeded(String operation) {
+        long budgetMillis = budgetNanos == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(budgetNanos);
+        String reason = cancelled
+                ? "Request was cancelled by the caller"
+                : "Request deadline of " + budgetMillis + " ms exceeded";
+        return new DeadlineExceededException(reason + " before " + operation + " could complete", budgetMillis);
+    }
+}
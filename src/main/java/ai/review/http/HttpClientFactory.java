@@ -0,0 +1,56 @@
+package ai.review.http;
+
+import ai.review.config.HttpProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Builds the outbound HttpClient shared by the GitHub and Ollama clients, so both reuse one
+ * connection pool and one selector thread instead of opening their own.
+ */
+public final class HttpClientFactory {
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientFactory.class);
+    
+    static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    
+    private HttpClientFactory() {
+    }
+    
+    /**
+     * @param executor executor for the client's internal tasks (e.g. virtual threads),
+     *                 or {@code null} to keep the JDK default
+     */
+    public static HttpClient create(HttpProperties properties, Executor executor) {
+        tunePool(properties);
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(properties.getVersion())
+                .connectTimeout(Duration.ofSeconds(properties.getConnectTimeoutSeconds()));
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        return builder.build();
+    }
+    
+    /**
+     * The JDK reads its pool settings only from system properties, once, when the first
+     * client opens a connection; values passed with -D on the command line win.
+     */
+    static void tunePool(HttpProperties properties) {
+        setDefault(KEEP_ALIVE_PROPERTY, properties.getKeepAliveSeconds());
+        setDefault(POOL_SIZE_PROPERTY, properties.getMaxIdleConnections());
+    }
+    
+    private static void setDefault(String name, int value) {
+        String current = System.getProperty(name);
+        if (current == null) {
+            System.setProperty(name, String.valueOf(value));
+        } else if (!current.equals(String.valueOf(value))) {
+            logger.info("Keeping {}={} set on the command line over configured {}", name, current, value);
+        }
+    }
+}
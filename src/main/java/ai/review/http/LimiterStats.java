@@ -0,0 +1,13 @@
+package ai.review.http;
+
+/**
+ * Snapshot of an {@link AdaptiveConcurrencyLimiter}
+ *
+ * @param limit              calls currently allowed in flight at once
+ * @param rejected           calls refused because the wait queue was full or the wait too long
+ * @param dropped            calls that failed with an overload signal and lowered the limit
+ * @param averageLatencyMillis running average latency of successful calls
+ */
+public record LimiterStats(String name, int limit, int inFlight, int queued,
+                           long rejected, long dropped, long averageLatencyMillis) {
+}
@@ -0,0 +1,202 @@
+package ai.review.http;
+
+import ai.review.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Accepts request bodies sent with {@code Content-Encoding: gzip} or {@code deflate}: the body
+ * is inflated up to a size limit and handed on as a plain request, so controllers and message
+ * converters never see the encoding. Runs before the DispatcherServlet, so its errors are
+ * written here in the {@link ErrorResponse} format instead of by the exception handler.
+ */
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestDecompressionFilter.class);
+    
+    private final long maxInflatedBytes;
+    private final ObjectMapper mapper;
+    
+    public RequestDecompressionFilter(long maxInflatedBytes, ObjectMapper mapper) {
+        this.maxInflatedBytes = maxInflatedBytes;
+        this.mapper = mapper;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (ContentEncodings.isIdentity(encoding)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!ContentEncodings.isSupported(encoding)) {
+            reject(request, response, HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported Media Type",
+                    "Unsupported Content-Encoding: " + encoding);
+            return;
+        }
+        
+        byte[] body;
+        try (InputStream in = ContentEncodings.decode(request.getInputStream(), encoding)) {
+            body = readAtMost(in, maxInflatedBytes);
+        } catch (IOException e) {
+            logger.warn("Failed to decode {} request body: {}", encoding, e.getMessage());
+            reject(request, response, HttpStatus.BAD_REQUEST, "Invalid Request Body",
+                    "Request body is not valid " + encoding + " data");
+            return;
+        }
+        if (body == null) {
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "Payload Too Large",
+                    "Request body exceeds " + maxInflatedBytes + " bytes once decompressed");
+            return;
+        }
+        
+        chain.doFilter(new DecodedRequest(request, body), response);
+    }
+    
+    /**
+     * @return the whole stream, or {@code null} as soon as it grows past the limit
+     */
+    private static byte[] readAtMost(InputStream in, long limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            if (out.size() + (long) n > limit) {
+                return null;
+            }
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        HttpStatus status, String error, String message) throws IOException {
+        logger.warn("Rejected compressed request body: {}", message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(error, message, status.value(), request.getRequestURI()));
+    }
+    
+    /**
+     * The request as if it had been sent uncompressed
+     */
+    private static final class DecodedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        
+        DecodedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                /**
+                 * The whole body is already in memory, so it is available at once and, once the
+                 * listener has read it, all read
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+        
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return null;
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return String.valueOf(body.length);
+            }
+            return super.getHeader(name);
+        }
+        
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Collections.enumeration(List.of(String.valueOf(body.length)));
+            }
+            return super.getHeaders(name);
+        }
+        
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(HttpHeaders.CONTENT_ENCODING::equalsIgnoreCase);
+            return Collections.enumeration(names);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ai.review.http;
+
+import ai.review.config.RetryProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Retries a backend call after a transient failure, with exponential backoff and full jitter
+ * (a random wait up to a cap that doubles per retry) so failed callers do not come back in
+ * lockstep. Which failures are transient, and whether the call is safe to repeat at all, is
+ * decided by the caller; the policy stops at the maximum attempts, or once the next retry
+ * would start after the overall deadline.
+ */
+public class RetryPolicy {
+    private static final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+    
+    private final String name;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Set<Integer> retryableStatuses;
+    private final long deadlineNanos;
+    
+    public RetryPolicy(String name, int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+                       Set<Integer> retryableStatuses, Duration deadline) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required, got " + maxAttempts);
+        }
+        this.name = name;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.retryableStatuses = Set.copyOf(retryableStatuses);
+        this.deadlineNanos = deadline.toNanos();
+    }
+    
+    public static RetryPolicy of(String name, RetryProperties properties) {
+        return new RetryPolicy(
+                name,
+                properties.getMaxAttempts(),
+                Duration.ofMillis(properties.getInitialBackoffMillis()),
+                Duration.ofMillis(properties.getMaxBackoffMillis()),
+                properties.getRetryableStatuses(),
+                Duration.ofSeconds(properties.getDeadlineSeconds()));
+    }
+    
+    public boolean isRetryableStatus(int statusCode) {
+        return retryableStatuses.contains(statusCode);
+    }
+    
+    /**
+     * Run {@code call}, repeating it while it fails with an exception {@code isRetryable}
+     * accepts. The last failure is rethrown when the attempts or the deadline run out.
+     */
+    public <T> T execute(Supplier<T> call, Predicate<RuntimeException> isRetryable) {
+        return execute(call, isRetryable, Deadline.none());
+    }
+    
+    /**
+     * As {@link #execute(Supplier, Predicate)}, also giving up once the backoff would outlast
+     * what is left of the request's {@code deadline}
+     */
+    public <T> T execute(Supplier<T> call, Predicate<RuntimeException> isRetryable, Deadline deadline) {
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isRetryable.test(e)) {
+                    throw e;
+                }
+                long backoffMillis = backoffMillis(attempt);
+                long elapsedNanos = System.nanoTime() - start;
+                if (elapsedNanos + TimeUnit.MILLISECONDS.toNanos(backoffMillis) > deadlineNanos) {
+                    logger.warn("Giving up on {} after {} attempts, retry deadline of {} s reached: {}",
+                            name, attempt, TimeUnit.NANOSECONDS.toSeconds(deadlineNanos), e.getMessage());
+                    throw e;
+                }
+                if (deadline.isExpired() || backoffMillis >= deadline.remaining().toMillis()) {
+                    logger.warn("Giving up on {} after {} attempts, request deadline reached: {}",
+                            name, attempt, e.getMessage());
+                    throw e;
+                }
+                logger.warn("Attempt {} of {} to {} failed, retrying in {} ms: {}",
+                        attempt, maxAttempts, name, backoffMillis, e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Wait before retry number {@code retry} (1-based): uniform in [0, min(max, initial * 2^(retry - 1))]
+     */
+    long backoffMillis(int retry) {
+        long cap = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(retry - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+}
@@ -0,0 +1,56 @@
+package ai.review.metrics;
+
+import ai.review.cache.CacheStats;
+import ai.review.github.ResponseCacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes the counters the review cache and the GitHub response cache already keep.
+ * They are read from the stats snapshots on every scrape, so the caches stay free of any
+ * metrics code.
+ */
+public class CacheMetrics implements MeterBinder {
+    public static final String REQUESTS = "review.cache.requests";
+    public static final String SIZE = "review.cache.size";
+    
+    private final Supplier<CacheStats> reviewCache;
+    private final Supplier<ResponseCacheStats> gitHubCache;
+    
+    public CacheMetrics(Supplier<CacheStats> reviewCache, Supplier<ResponseCacheStats> gitHubCache) {
+        this.reviewCache = reviewCache;
+        this.gitHubCache = gitHubCache;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lookups(registry, "review", "hit", reviewCache, stats -> stats.hits() - stats.diskHits());
+        lookups(registry, "review", "disk_hit", reviewCache, CacheStats::diskHits);
+        lookups(registry, "review", "miss", reviewCache, CacheStats::misses);
+        lookups(registry, "github", "hit", gitHubCache, ResponseCacheStats::hits);
+        lookups(registry, "github", "miss", gitHubCache, ResponseCacheStats::misses);
+        
+        Gauge.builder(SIZE, reviewCache, stats -> stats.get().size())
+                .description("Entries held in memory")
+                .tag("cache", "review")
+                .register(registry);
+        Gauge.builder(SIZE, gitHubCache, stats -> stats.get().entries())
+                .description("Entries held in memory")
+                .tag("cache", "github")
+                .register(registry);
+    }
+    
+    private static <S> void lookups(MeterRegistry registry, String cache, String result, Supplier<S> stats,
+                                    ToLongFunction<S> count) {
+        FunctionCounter.builder(REQUESTS, stats, supplier -> count.applyAsLong(supplier.get()))
+                .description("Cache lookups, by result")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+}
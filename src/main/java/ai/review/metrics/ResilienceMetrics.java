@@ -0,0 +1,177 @@
+package ai.review.metrics;
+
+import ai.review.github.RateLimitStats;
+import ai.review.http.CircuitBreaker;
+import ai.review.http.CircuitBreakerStats;
+import ai.review.http.LimiterStats;
+import ai.review.ollama.OllamaEndpointStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes the state the backend protections already keep: the GitHub rate limit budget,
+ * the circuit breakers, and the Ollama endpoints with their concurrency limiters. Like
+ * {@link CacheMetrics}, everything is read from the stats snapshots on every scrape.
+ * <p>
+ * Breakers and endpoints are fixed by the configuration, so their meters are registered for
+ * those present at binding. A value that is not known yet, such as the rate limit budget
+ * before GitHub first answered, reads as NaN. The lookups are held strongly, as nothing
+ * else references them.
+ */
+public class ResilienceMetrics implements MeterBinder {
+    public static final String RATE_LIMIT_LIMIT = "review.github.ratelimit.limit";
+    public static final String RATE_LIMIT_REMAINING = "review.github.ratelimit.remaining";
+    public static final String RATE_LIMIT_CALLS = "review.github.ratelimit.calls";
+    public static final String BREAKER_STATE = "review.circuitbreaker.state";
+    public static final String BREAKER_FAILURE_RATE = "review.circuitbreaker.failure.rate";
+    public static final String BREAKER_BUFFERED_CALLS = "review.circuitbreaker.buffered.calls";
+    public static final String BREAKER_REJECTED_CALLS = "review.circuitbreaker.rejected.calls";
+    public static final String BREAKER_OPENED = "review.circuitbreaker.opened";
+    public static final String ENDPOINT_HEALTHY = "review.ollama.endpoint.healthy";
+    public static final String ENDPOINT_OUTSTANDING = "review.ollama.endpoint.outstanding";
+    public static final String ENDPOINT_REQUESTS = "review.ollama.endpoint.requests";
+    public static final String ENDPOINT_FAILURES = "review.ollama.endpoint.failures";
+    public static final String ENDPOINT_EJECTIONS = "review.ollama.endpoint.ejections";
+    public static final String LIMITER_LIMIT = "review.limiter.limit";
+    public static final String LIMITER_IN_FLIGHT = "review.limiter.in.flight";
+    public static final String LIMITER_QUEUED = "review.limiter.queued";
+    public static final String LIMITER_REJECTED = "review.limiter.rejected";
+    public static final String LIMITER_DROPPED = "review.limiter.dropped";
+    public static final String LIMITER_LATENCY = "review.limiter.latency";
+    
+    // The rate limit bucket of the REST API, the only one the GitHub client calls
+    private static final String REST_RESOURCE = "core";
+    
+    private final Supplier<RateLimitStats> rateLimits;
+    private final Supplier<List<CircuitBreakerStats>> circuitBreakers;
+    private final Supplier<List<OllamaEndpointStats>> endpoints;
+    
+    public ResilienceMetrics(Supplier<RateLimitStats> rateLimits, Supplier<List<CircuitBreakerStats>> circuitBreakers,
+                             Supplier<List<OllamaEndpointStats>> endpoints) {
+        this.rateLimits = rateLimits;
+        this.circuitBreakers = circuitBreakers;
+        this.endpoints = endpoints;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindRateLimits(registry);
+        for (CircuitBreakerStats breaker : circuitBreakers.get()) {
+            bindCircuitBreaker(registry, breaker.name());
+        }
+        for (OllamaEndpointStats endpoint : endpoints.get()) {
+            bindEndpoint(registry, endpoint.url());
+        }
+    }
+    
+    private void bindRateLimits(MeterRegistry registry) {
+        Tags tags = Tags.of("resource", REST_RESOURCE);
+        Supplier<RateLimitStats.Budget> budget = () -> find(rateLimits.get().budgets(), RateLimitStats.Budget::resource,
+            REST_RESOURCE);
+        gauge(registry, RATE_LIMIT_LIMIT, "Calls GitHub allows per rate limit window", tags, budget,
+            RateLimitStats.Budget::limit);
+        gauge(registry, RATE_LIMIT_REMAINING, "Calls left in the current rate limit window, as GitHub last reported",
+            tags, budget, RateLimitStats.Budget::remaining);
+        
+        String description = "GitHub calls delayed, answered with a rate limit, or refused because the wait was too long";
+        counter(registry, RATE_LIMIT_CALLS, description, Tags.of("outcome", "throttled"), rateLimits,
+            RateLimitStats::throttledCalls);
+        counter(registry, RATE_LIMIT_CALLS, description, Tags.of("outcome", "rate_limited"), rateLimits,
+            RateLimitStats::rateLimitedResponses);
+        counter(registry, RATE_LIMIT_CALLS, description, Tags.of("outcome", "rejected"), rateLimits,
+            RateLimitStats::rejectedCalls);
+    }
+    
+    private void bindCircuitBreaker(MeterRegistry registry, String name) {
+        Tags tags = Tags.of("backend", name);
+        Supplier<CircuitBreakerStats> breaker = () -> find(circuitBreakers.get(), CircuitBreakerStats::name, name);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            gauge(registry, BREAKER_STATE, "1 for the state the breaker is in, 0 for the others",
+                tags.and("state", state.name().toLowerCase()), breaker, stats -> stats.state() == state ? 1 : 0);
+        }
+        gauge(registry, BREAKER_FAILURE_RATE, "Failed share of the calls in the sliding window", tags, breaker,
+            CircuitBreakerStats::failureRate);
+        gauge(registry, BREAKER_BUFFERED_CALLS, "Calls in the sliding window since the breaker last closed", tags,
+            breaker, CircuitBreakerStats::bufferedCalls);
+        counter(registry, BREAKER_REJECTED_CALLS, "Calls failed fast without reaching the backend", tags, breaker,
+            CircuitBreakerStats::rejectedCalls);
+        counter(registry, BREAKER_OPENED, "Times the breaker opened", tags, breaker, CircuitBreakerStats::timesOpened);
+    }
+    
+    private void bindEndpoint(MeterRegistry registry, String url) {
+        Tags tags = Tags.of("endpoint", url);
+        Supplier<OllamaEndpointStats> endpoint = () -> find(endpoints.get(), OllamaEndpointStats::url, url);
+        gauge(registry, ENDPOINT_HEALTHY, "1 while the endpoint is in rotation, 0 while it is ejected", tags, endpoint,
+            stats -> stats.healthy() ? 1 : 0);
+        gauge(registry, ENDPOINT_OUTSTANDING, "Generations in flight or waiting for the endpoint's limiter", tags,
+            endpoint, OllamaEndpointStats::outstanding);
+        counter(registry, ENDPOINT_REQUESTS, "Generations routed to the endpoint", tags, endpoint,
+            OllamaEndpointStats::requests);
+        counter(registry, ENDPOINT_FAILURES, "Generations that failed with a network error or a 5xx", tags, endpoint,
+            OllamaEndpointStats::failures);
+        counter(registry, ENDPOINT_EJECTIONS, "Times the endpoint was taken out of rotation", tags, endpoint,
+            OllamaEndpointStats::ejections);
+        
+        Supplier<LimiterStats> limiter = () -> {
+            OllamaEndpointStats stats = endpoint.get();
+            return stats != null ? stats.limiter() : null;
+        };
+        gauge(registry, LIMITER_LIMIT, "Calls currently allowed in flight at once", tags, limiter, LimiterStats::limit);
+        gauge(registry, LIMITER_IN_FLIGHT, "Calls in flight", tags, limiter, LimiterStats::inFlight);
+        gauge(registry, LIMITER_QUEUED, "Calls waiting for a slot", tags, limiter, LimiterStats::queued);
+        counter(registry, LIMITER_REJECTED, "Calls refused because the wait queue was full or the wait too long", tags,
+            limiter, LimiterStats::rejected);
+        counter(registry, LIMITER_DROPPED, "Calls that failed with an overload signal and lowered the limit", tags,
+            limiter, LimiterStats::dropped);
+        Gauge.builder(LIMITER_LATENCY, limiter, stats -> value(stats, LimiterStats::averageLatencyMillis))
+                .description("Running average latency of successful calls")
+                .baseUnit("milliseconds")
+                .tags(tags)
+                .strongReference(true)
+                .register(registry);
+    }
+    
+    private static <S> void gauge(MeterRegistry registry, String name, String description, Tags tags, Supplier<S> stats,
+                                  ToDoubleFunction<S> value) {
+        Gauge.builder(name, stats, supplier -> value(supplier, value))
+                .description(description)
+                .tags(tags)
+                .strongReference(true)
+                .register(registry);
+    }
+    
+    private static <S> void counter(MeterRegistry registry, String name, String description, Tags tags,
+                                    Supplier<S> stats, ToLongFunction<S> count) {
+        FunctionCounter.builder(name, stats, supplier -> {
+                    S current = supplier.get();
+                    return current != null ? count.applyAsLong(current) : 0;
+                })
+                .description(description)
+                .tags(tags)
+                .strongReference(true)
+                .register(registry);
+    }
+    
+    private static <S> double value(Supplier<S> stats, ToDoubleFunction<S> value) {
+        S current = stats.get();
+        return current != null ? value.applyAsDouble(current) : Double.NaN;
+    }
+    
+    private static <S> S find(List<S> all, Function<S, String> key, String value) {
+        for (S stats : all) {
+            if (key.apply(stats).equals(value)) {
+                return stats;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,179 @@
+package ai.review.metrics;
+
+import ai.review.ollama.GenerationStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the review pipeline: how long each stage takes, how large diffs, prompts and
+ * reviews are, and which exceptions failed a review. Durations and sizes are published
+ * with histogram buckets, so percentiles can be aggregated across instances in Prometheus.
+ */
+public class ReviewMetrics {
+    public static final String STAGE_DURATION = "review.stage.duration";
+    public static final String DIFF_SIZE = "review.diff.size";
+    public static final String PROMPT_SIZE = "review.prompt.size";
+    public static final String RESPONSE_SIZE = "review.response.size";
+    public static final String ERRORS = "review.errors";
+    public static final String MODEL_LOAD_DURATION = "review.model.load.duration";
+    public static final String MODEL_PROMPT_EVAL_DURATION = "review.model.prompt.eval.duration";
+    public static final String MODEL_EVAL_DURATION = "review.model.eval.duration";
+    public static final String MODEL_TOKENS = "review.model.tokens";
+    public static final String MODEL_THROUGHPUT = "review.model.throughput";
+    
+    /**
+     * Steps of a review whose duration is recorded, each under its own {@code stage} tag
+     */
+    public enum Stage {
+        PULL_REQUEST_FETCH("pull_request_fetch"),
+        DIFF_FETCH("diff_fetch"),
+        PROMPT_BUILD("prompt_build"),
+        GENERATION("generation"),
+        CHUNK_GENERATION("chunk_generation"),
+        COMMENT_POST("comment_post");
+        
+        private final String tag;
+        
+        Stage(String tag) {
+            this.tag = tag;
+        }
+        
+        public String tag() {
+            return tag;
+        }
+    }
+    
+    private final MeterRegistry registry;
+    private final DistributionSummary diffSize;
+    private final DistributionSummary promptSize;
+    private final DistributionSummary responseSize;
+    
+    public ReviewMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.diffSize = DistributionSummary.builder(DIFF_SIZE)
+                .description("Size of pull request diffs after path filtering")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.promptSize = DistributionSummary.builder(PROMPT_SIZE)
+                .description("Size of prompts sent to the model")
+                .baseUnit("characters")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.responseSize = DistributionSummary.builder(RESPONSE_SIZE)
+                .description("Size of generated reviews")
+                .baseUnit("characters")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+    
+    /**
+     * Metrics that go nowhere, for services built without a registry
+     */
+    public static ReviewMetrics disabled() {
+        return new ReviewMetrics(new CompositeMeterRegistry());
+    }
+    
+    /**
+     * Runs {@code call} and records its duration under the stage, tagged with whether it
+     * completed or threw
+     */
+    public <T> T time(Stage stage, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(stageTimer(stage, outcome));
+        }
+    }
+    
+    public void time(Stage stage, Runnable call) {
+        time(stage, () -> {
+            call.run();
+            return null;
+        });
+    }
+    
+    public void recordDiffSize(long bytes) {
+        diffSize.record(bytes);
+    }
+    
+    public void recordPromptSize(int characters) {
+        promptSize.record(characters);
+    }
+    
+    public void recordResponseSize(int characters) {
+        responseSize.record(characters);
+    }
+    
+    /**
+     * Records what Ollama reported about one generation, per model: model load time (large
+     * on a cold start), prompt evaluation and generation time, tokens on either side, and
+     * the generation throughput in tokens per second
+     */
+    public void recordGeneration(String model, GenerationStats stats) {
+        modelTimer(MODEL_LOAD_DURATION, "Time the model server spent loading the model", model)
+                .record(stats.loadDuration(), TimeUnit.NANOSECONDS);
+        modelTimer(MODEL_PROMPT_EVAL_DURATION, "Time the model spent evaluating the prompt", model)
+                .record(stats.promptEvalDuration(), TimeUnit.NANOSECONDS);
+        modelTimer(MODEL_EVAL_DURATION, "Time the model spent generating", model)
+                .record(stats.evalDuration(), TimeUnit.NANOSECONDS);
+        modelTokens("prompt", model).increment(stats.promptEvalCount());
+        modelTokens("completion", model).increment(stats.evalCount());
+        if (stats.evalDuration() > 0) {
+            DistributionSummary.builder(MODEL_THROUGHPUT)
+                    .description("Tokens generated per second")
+                    .baseUnit("tokens.per.second")
+                    .tag("model", model)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(stats.tokensPerSecond());
+        }
+    }
+    
+    /**
+     * Counts a failed review under the type of the exception that failed it
+     */
+    public void recordError(Exception e) {
+        Counter.builder(ERRORS)
+                .description("Reviews failed, by exception type")
+                .tag("exception", e.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+    
+    private Timer modelTimer(String name, String description, String model) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("model", model)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+    
+    private Counter modelTokens(String type, String model) {
+        return Counter.builder(MODEL_TOKENS)
+                .description("Tokens processed by the model")
+                .baseUnit("tokens")
+                .tag("model", model)
+                .tag("type", type)
+                .register(registry);
+    }
+    
+    private Timer stageTimer(Stage stage, String outcome) {
+        return Timer.builder(STAGE_DURATION)
+                .description("Duration of a review pipeline stage")
+                .tag("stage", stage.tag())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,9 @@
+package ai.review.ollama;
+
+/**
+ * Text generated by the model together with what Ollama reported about generating it
+ *
+ * @param stats {@code null} when the server reported no timings
+ */
+public record Generation(String text, GenerationStats stats) {
+}
@@ -0,0 +1,73 @@
+package ai.review.ollama;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Timings and token counts Ollama reports with the final answer of a generation. Durations
+ * are in nanoseconds, as Ollama reports them. A review made of several generations (chunks
+ * and their merge) reports their sum, with {@code generations} counting them.
+ */
+@Schema(description = "Model timings and token counts reported by Ollama, summed over all generations of the review")
+public record GenerationStats(
+        @Schema(description = "Model calls the review took", example = "1") int generations,
+        @Schema(description = "Wall time of the generations in nanoseconds", example = "5043500667") long totalDuration,
+        @Schema(description = "Time spent loading the model in nanoseconds; large on a cold start", example = "5025959") long loadDuration,
+        @Schema(description = "Prompt tokens evaluated", example = "1250") long promptEvalCount,
+        @Schema(description = "Time spent evaluating the prompt in nanoseconds", example = "325953000") long promptEvalDuration,
+        @Schema(description = "Tokens generated", example = "290") long evalCount,
+        @Schema(description = "Time spent generating in nanoseconds", example = "4709213000") long evalDuration) {
+    
+    /**
+     * The stats of a final Ollama answer, or {@code null} when the server reported none
+     * (older or Ollama-compatible servers)
+     */
+    public static GenerationStats from(JsonNode node) {
+        if (!node.has("eval_count") && !node.has("total_duration")) {
+            return null;
+        }
+        return new GenerationStats(1,
+            node.path("total_duration").asLong(0),
+            node.path("load_duration").asLong(0),
+            node.path("prompt_eval_count").asLong(0),
+            node.path("prompt_eval_duration").asLong(0),
+            node.path("eval_count").asLong(0),
+            node.path("eval_duration").asLong(0));
+    }
+    
+    /**
+     * Sum of both, where either may be {@code null} for a generation that reported nothing
+     */
+    public static GenerationStats sum(GenerationStats a, GenerationStats b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return new GenerationStats(a.generations + b.generations,
+            a.totalDuration + b.totalDuration,
+            a.loadDuration + b.loadDuration,
+            a.promptEvalCount + b.promptEvalCount,
+            a.promptEvalDuration + b.promptEvalDuration,
+            a.evalCount + b.evalCount,
+            a.evalDuration + b.evalDuration);
+    }
+    
+    @JsonProperty("tokensPerSecond")
+    @Schema(description = "Generation throughput", example = "61.6")
+    public double tokensPerSecond() {
+        return perSecond(evalCount, evalDuration);
+    }
+    
+    @JsonProperty("promptTokensPerSecond")
+    @Schema(description = "Prompt evaluation throughput", example = "3834.9")
+    public double promptTokensPerSecond() {
+        return perSecond(promptEvalCount, promptEvalDuration);
+    }
+    
+    private static double perSecond(long tokens, long nanos) {
+        return nanos == 0 ? 0.0 : tokens * 1_000_000_000.0 / nanos;
+    }
+}
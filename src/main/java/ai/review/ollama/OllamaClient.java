@@ -1,7 +1,20 @@
 package ai.review.ollama;
 
+import ai.review.config.HttpProperties;
 import ai.review.config.OllamaProperties;
+import ai.review.exception.CircuitBreakerOpenException;
+import ai.review.exception.ConcurrencyLimitExceededException;
+import ai.review.exception.DeadlineExceededException;
 import ai.review.exception.OllamaApiException;
+import ai.review.http.CircuitBreaker;
+import ai.review.http.CircuitBreakerStats;
+import ai.review.http.Deadline;
+import ai.review.http.HttpClientFactory;
+import ai.review.http.RetryPolicy;
+import ai.review.tracing.HttpTracing;
+import ai.review.tracing.Span;
+import ai.review.tracing.SpanKind;
+import ai.review.tracing.Tracer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -9,12 +22,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.net.URI;
+import java.io.UncheckedIOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class OllamaClient {
@@ -23,33 +45,92 @@ public class OllamaClient {
     private final HttpClient http;
     private final ObjectMapper mapper;
     private final OllamaProperties properties;
-
+    private final OllamaLoadBalancer balancer;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final Tracer tracer;
+    
     public OllamaClient(OllamaProperties properties) {
+        this(properties, HttpClientFactory.create(new HttpProperties(), null), Tracer.noop());
+    }
+    
+    /**
+     * @param http   shared outbound client, see {@link HttpClientFactory}
+     * @param tracer traces every generation and passes the trace on to the model server in a
+     *               traceparent header
+     */
+    public OllamaClient(OllamaProperties properties, HttpClient http, Tracer tracer) {
         this.properties = properties;
-        this.http = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(properties.getConnectTimeoutSeconds()))
-                .build();
+        this.http = http;
         this.mapper = new ObjectMapper();
+        this.balancer = OllamaLoadBalancer.fromProperties(properties, Clock.systemUTC());
+        this.retryPolicy = RetryPolicy.of("Ollama", properties.getRetry());
+        this.circuitBreaker = CircuitBreaker.of("ollama", properties.getCircuitBreaker());
+        this.tracer = tracer;
     }
-
+    
+    public String getModel() {
+        return properties.getModel();
+    }
+    
+    public List<OllamaEndpointStats> getEndpointStats() {
+        return balancer.stats();
+    }
+    
+    public CircuitBreakerStats getCircuitBreakerStats() {
+        return circuitBreaker.stats();
+    }
+    
+    /**
+     * Generate a response on the endpoint picked by the load balancer, waiting for a slot of
+     * that endpoint's adaptive concurrency limiter first. A generation has no side effects,
+     * so a transient failure is retried, each time on the endpoint picked anew.
+     *
+     * @throws ConcurrencyLimitExceededException if the model server is saturated and the
+     *         wait queue is full or no slot frees up in time
+     * @throws CircuitBreakerOpenException if generations have been failing and the model
+     *         servers are given time to recover
+     */
     public String generate(String prompt) {
-        logger.debug("Generating response using model: {}", properties.getModel());
+        return generate(prompt, Deadline.none());
+    }
+    
+    /**
+     * Generate a response within what is left of {@code deadline}: the limiter wait, each
+     * attempt's timeout and the backoff between retries all stop there, and cancelling the
+     * deadline aborts the generation in flight.
+     *
+     * @throws DeadlineExceededException if the deadline passes or is cancelled first
+     */
+    public String generate(String prompt, Deadline deadline) {
+        return generateWithStats(prompt, deadline).text();
+    }
+    
+    /**
+     * Generate a response like {@link #generate(String, Deadline)}, keeping the timings and
+     * token counts Ollama reports along with it
+     */
+    public Generation generateWithStats(String prompt, Deadline deadline) {
+        return traced("ollama.generate", prompt, () -> {
+            Generation generation = retryPolicy.execute(() -> circuitBreaker.execute(() -> {
+                // A spent budget would otherwise surface as a zero wait for a slot, i.e. overload
+                deadline.check("generating a review");
+                OllamaEndpoint endpoint = balancer.choose();
+                return endpoint.execute(() -> doGenerate(endpoint, prompt, deadline), OllamaClient::isOverload,
+                        deadline.remaining());
+            }, OllamaEndpoint::isFailure), this::isTransient, deadline);
+            recordStats(generation.stats());
+            return generation;
+        });
+    }
+    
+    private Generation doGenerate(OllamaEndpoint endpoint, String prompt, Deadline deadline) {
+        logger.debug("Generating response using model: {} on {}", properties.getModel(), endpoint.uri());
         
         try {
-            // The endpoint looks like: POST /api/generate { model, prompt, stream:false }
-            String payload = mapper.createObjectNode()
-                    .put("model", properties.getModel())
-                    .put("prompt", prompt)
-                    .put("stream", false)
-                    .toString();
-            HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(properties.getApiUrl()))
-                    .timeout(Duration.ofSeconds(properties.getRequestTimeoutSeconds()))
-                    .header("Content-Type", "application/json");
-            if (properties.getApiToken() != null && !properties.getApiToken().isBlank()) {
-                b.header("Authorization", "Bearer " + properties.getApiToken());
-            }
-            HttpRequest req = b.POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8)).build();
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+            HttpRequest req = buildGenerateRequest(endpoint, prompt, false, deadline);
+            HttpResponse<String> resp = HttpTracing.send(tracer, "ollama", req, traced -> deadline.await(
+                    http.sendAsync(traced, HttpResponse.BodyHandlers.ofString()), "generating a review"));
             if (resp.statusCode() >= 300) {
                 String errorMessage = extractErrorMessage(resp.body());
                 throw new OllamaApiException(
@@ -59,15 +140,7 @@ public class OllamaClient {
                     new Exception(errorMessage)
                 );
             }
-            JsonNode node = mapper.readTree(resp.body());
-            // Common response field name: "response" or "text" depending on server
-            if (node.hasNonNull("response")) {
-                return node.get("response").asText();
-            }
-            if (node.hasNonNull("text")) {
-                return node.get("text").asText();
-            }
-            return resp.body();
+            return parseGeneration(resp.body());
         } catch (IOException | InterruptedException e) {
             throw new OllamaApiException(
                 "Network error while generating response using model " + properties.getModel(),
@@ -78,6 +151,191 @@ public class OllamaClient {
         }
     }
     
+    /**
+     * Generate a response in streaming mode. Ollama answers with one JSON object per line
+     * (NDJSON); every non-empty "response" fragment is handed to {@code onToken} as soon as
+     * its line arrives, so nothing is buffered beyond the current line. The endpoint's limiter
+     * slot is held until the stream ends. A transient failure is retried only as long as no
+     * token has been handed out, since the caller cannot take tokens back.
+     *
+     * @return what Ollama reported with its final line, or {@code null} if it reported nothing
+     */
+    public GenerationStats generateStream(String prompt, Consumer<String> onToken) {
+        return generateStream(prompt, onToken, Deadline.none());
+    }
+    
+    /**
+     * Stream a response within what is left of {@code deadline}. The deadline is checked as
+     * each line arrives, a model server that stops sending lines is cut off when it runs out
+     * or is cancelled, and a failure after it was cancelled (typically {@code onToken}
+     * failing to write to a client that has gone) is reported as
+     * {@link DeadlineExceededException} rather than as a model server failure.
+     */
+    public GenerationStats generateStream(String prompt, Consumer<String> onToken, Deadline deadline) {
+        AtomicBoolean streamed = new AtomicBoolean();
+        Consumer<String> tracked = token -> {
+            streamed.set(true);
+            onToken.accept(token);
+        };
+        return traced("ollama.generate_stream", prompt, () -> {
+            GenerationStats stats = retryPolicy.execute(() -> circuitBreaker.execute(() -> {
+                deadline.check("streaming a review");
+                OllamaEndpoint endpoint = balancer.choose();
+                return endpoint.execute(() -> doGenerateStream(endpoint, prompt, tracked, deadline),
+                        OllamaClient::isOverload, deadline.remaining());
+            }, OllamaEndpoint::isFailure), e -> !streamed.get() && isTransient(e), deadline);
+            recordStats(stats);
+            return stats;
+        });
+    }
+    
+    private GenerationStats doGenerateStream(OllamaEndpoint endpoint, String prompt, Consumer<String> onToken, Deadline deadline) {
+        logger.debug("Streaming response using model: {} on {}", properties.getModel(), endpoint.uri());
+        
+        try {
+            HttpRequest req = buildGenerateRequest(endpoint, prompt, true, deadline);
+            HttpResponse<Stream<String>> resp = HttpTracing.send(tracer, "ollama", req, traced -> deadline.await(
+                    http.sendAsync(traced, HttpResponse.BodyHandlers.ofLines()), "streaming a review"));
+            return deadline.readBody(resp.body(), "streaming a review", () -> {
+                try (Stream<String> lines = resp.body()) {
+                    if (resp.statusCode() >= 300) {
+                        String errorMessage = extractErrorMessage(lines.collect(Collectors.joining("\n")));
+                        throw new OllamaApiException(
+                            "Failed to stream response using model " + properties.getModel(),
+                            resp.statusCode(),
+                            properties.getModel(),
+                            new Exception(errorMessage)
+                        );
+                    }
+                    Iterator<String> iterator = lines.iterator();
+                    while (iterator.hasNext()) {
+                        String line = iterator.next();
+                        deadline.check("streaming a review");
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        JsonNode chunk = mapper.readTree(line);
+                        if (chunk.hasNonNull("error")) {
+                            throw new OllamaApiException(
+                                "Model reported an error while streaming: " + chunk.get("error").asText(),
+                                0,
+                                properties.getModel()
+                            );
+                        }
+                        String token = chunk.path("response").asText("");
+                        if (!token.isEmpty()) {
+                            onToken.accept(token);
+                        }
+                        if (chunk.path("done").asBoolean(false)) {
+                            return GenerationStats.from(chunk);
+                        }
+                    }
+                    return null;
+                }
+            });
+        } catch (IOException | UncheckedIOException | InterruptedException e) {
+            // The caller is gone: the broken pipe is on our side, not the model server's
+            deadline.check("streaming a review");
+            throw new OllamaApiException(
+                "Network error while streaming response using model " + properties.getModel(),
+                0,
+                properties.getModel(),
+                e
+            );
+        }
+    }
+    
+    /**
+     * Run a generation, retries included, in a span of its own
+     */
+    private <T> T traced(String operation, String prompt, Supplier<T> call) {
+        return tracer.inSpan(operation, SpanKind.INTERNAL, () -> {
+            Span.current()
+                .setAttribute("ollama.model", properties.getModel())
+                .setAttribute("ollama.prompt_length", prompt.length());
+            return call.get();
+        });
+    }
+    
+    private static void recordStats(GenerationStats stats) {
+        if (stats != null) {
+            Span.current()
+                .setAttribute("ollama.load_duration_ns", stats.loadDuration())
+                .setAttribute("ollama.prompt_eval_count", stats.promptEvalCount())
+                .setAttribute("ollama.prompt_eval_duration_ns", stats.promptEvalDuration())
+                .setAttribute("ollama.eval_count", stats.evalCount())
+                .setAttribute("ollama.eval_duration_ns", stats.evalDuration());
+        }
+    }
+    
+    /**
+     * Failures worth another attempt: a retryable status, or a network error or timeout.
+     * A refusal by the concurrency limiter has already waited its turn, and one by the
+     * circuit breaker means the servers are down; both are final.
+     */
+    private boolean isTransient(RuntimeException e) {
+        if (!(e instanceof OllamaApiException apiException)) {
+            return false;
+        }
+        if (apiException.getStatusCode() > 0) {
+            return retryPolicy.isRetryableStatus(apiException.getStatusCode());
+        }
+        return apiException.getCause() instanceof IOException
+                || apiException.getCause() instanceof UncheckedIOException;
+    }
+    
+    /**
+     * Failures that mean the model server is saturated: rate limited, unavailable, gateway
+     * timeout, or no answer within the request timeout
+     */
+    private static boolean isOverload(RuntimeException e) {
+        if (!(e instanceof OllamaApiException apiException)) {
+            return false;
+        }
+        return switch (apiException.getStatusCode()) {
+            case 429, 503, 504 -> true;
+            case 0 -> apiException.getCause() instanceof HttpTimeoutException;
+            default -> false;
+        };
+    }
+    
+    /**
+     * Build the POST /api/generate request: { model, prompt, stream }
+     */
+    private HttpRequest buildGenerateRequest(OllamaEndpoint endpoint, String prompt, boolean stream, Deadline deadline) {
+        String payload = generatePayload(prompt, stream);
+        HttpRequest.Builder b = HttpRequest.newBuilder(endpoint.uri())
+                .timeout(deadline.cap(Duration.ofSeconds(properties.getRequestTimeoutSeconds()), "calling Ollama"))
+                .header("Content-Type", "application/json");
+        if (endpoint.apiToken() != null && !endpoint.apiToken().isBlank()) {
+            b.header("Authorization", "Bearer " + endpoint.apiToken());
+        }
+        return b.POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8)).build();
+    }
+    
+    String generatePayload(String prompt, boolean stream) {
+        return mapper.createObjectNode()
+                .put("model", properties.getModel())
+                .put("prompt", prompt)
+                .put("stream", stream)
+                .toString();
+    }
+    
+    /**
+     * The text and stats of a non-streamed answer
+     */
+    Generation parseGeneration(String body) throws IOException {
+        JsonNode node = mapper.readTree(body);
+        // Common response field name: "response" or "text" depending on server
+        if (node.hasNonNull("response")) {
+            return new Generation(node.get("response").asText(), GenerationStats.from(node));
+        }
+        if (node.hasNonNull("text")) {
+            return new Generation(node.get("text").asText(), GenerationStats.from(node));
+        }
+        return new Generation(body, null);
+    }
+    
     /**
      * Extract error message from Ollama API response
      */
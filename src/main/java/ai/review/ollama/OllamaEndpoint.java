@@ -0,0 +1,155 @@
+package ai.review.ollama;
+
+import ai.review.exception.ConcurrencyLimitExceededException;
+import ai.review.exception.DeadlineExceededException;
+import ai.review.exception.OllamaApiException;
+import ai.review.http.AdaptiveConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * One model server behind {@link OllamaLoadBalancer}: its own adaptive concurrency limiter,
+ * the generations outstanding on it (in flight or waiting for the limiter), and passive
+ * health. After {@code failureThreshold} consecutive failures the endpoint is ejected for
+ * the ejection time; the first call after that is a trial, and a failed trial ejects it again.
+ */
+final class OllamaEndpoint {
+    private static final Logger logger = LoggerFactory.getLogger(OllamaEndpoint.class);
+    
+    private final URI uri;
+    private final String apiToken;
+    private final int weight;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int failureThreshold;
+    private final Duration ejectionTime;
+    private final Clock clock;
+    
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong ejections = new AtomicLong();
+    
+    // Guarded by this
+    private int consecutiveFailures;
+    private Instant ejectedUntil = Instant.MIN;
+    
+    OllamaEndpoint(URI uri, String apiToken, int weight, AdaptiveConcurrencyLimiter limiter,
+                   int failureThreshold, Duration ejectionTime, Clock clock) {
+        this.uri = uri;
+        this.apiToken = apiToken;
+        this.weight = weight;
+        this.limiter = limiter;
+        this.failureThreshold = failureThreshold;
+        this.ejectionTime = ejectionTime;
+        this.clock = clock;
+    }
+    
+    URI uri() {
+        return uri;
+    }
+    
+    String apiToken() {
+        return apiToken;
+    }
+    
+    int weight() {
+        return weight;
+    }
+    
+    int outstanding() {
+        return outstanding.get();
+    }
+    
+    long requests() {
+        return requests.get();
+    }
+    
+    long averageLatencyMillis() {
+        return limiter.stats().averageLatencyMillis();
+    }
+    
+    synchronized boolean isHealthy() {
+        return !clock.instant().isBefore(ejectedUntil);
+    }
+    
+    synchronized Instant ejectedUntil() {
+        return ejectedUntil;
+    }
+    
+    <T> T execute(Supplier<T> call, Predicate<RuntimeException> isOverload) {
+        return execute(call, isOverload, Duration.ofNanos(Long.MAX_VALUE));
+    }
+    
+    /**
+     * Run {@code call} through this endpoint's limiter, waiting for a slot at most
+     * {@code maxWait}, and record the outcome for its health. A limiter rejection, or a call
+     * given up at the request's deadline, says nothing about the server's health and is not
+     * counted.
+     */
+    <T> T execute(Supplier<T> call, Predicate<RuntimeException> isOverload, Duration maxWait) {
+        outstanding.incrementAndGet();
+        requests.incrementAndGet();
+        try {
+            T result = limiter.execute(call, isOverload, maxWait);
+            onSuccess();
+            return result;
+        } catch (ConcurrencyLimitExceededException | DeadlineExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (isFailure(e)) {
+                onFailure();
+            } else {
+                // The server answered, e.g. 4xx for an unknown model: it is up
+                onSuccess();
+            }
+            throw e;
+        } finally {
+            outstanding.decrementAndGet();
+        }
+    }
+    
+    OllamaEndpointStats stats() {
+        synchronized (this) {
+            return new OllamaEndpointStats(uri.toString(), weight, isHealthy(), consecutiveFailures,
+                    requests.get(), failures.get(), ejections.get(), outstanding.get(), limiter.stats());
+        }
+    }
+    
+    /**
+     * Failures that say the server is down or broken: no answer at all, a broken stream, or a 5xx
+     */
+    static boolean isFailure(RuntimeException e) {
+        if (!(e instanceof OllamaApiException apiException)) {
+            return false;
+        }
+        int status = apiException.getStatusCode();
+        return status >= 500 || (status == 0
+                && (apiException.getCause() instanceof IOException || apiException.getCause() instanceof UncheckedIOException));
+    }
+    
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+    }
+    
+    private synchronized void onFailure() {
+        failures.incrementAndGet();
+        consecutiveFailures++;
+        if (consecutiveFailures >= failureThreshold && isHealthy()) {
+            ejectedUntil = clock.instant().plus(ejectionTime);
+            ejections.incrementAndGet();
+            logger.warn("Ejected Ollama endpoint {} for {} s after {} consecutive failures",
+                    uri, ejectionTime.toSeconds(), consecutiveFailures);
+        }
+    }
+}
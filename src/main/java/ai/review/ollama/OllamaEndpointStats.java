@@ -0,0 +1,18 @@
+package ai.review.ollama;
+
+import ai.review.http.LimiterStats;
+
+/**
+ * Snapshot of one Ollama endpoint
+ *
+ * @param healthy             false while the endpoint is ejected after consecutive failures
+ * @param consecutiveFailures failures since the last call the server answered
+ * @param requests            generations routed to the endpoint
+ * @param failures            generations that failed with a network error or a 5xx
+ * @param ejections           times the endpoint was taken out of rotation
+ * @param outstanding         generations in flight or waiting for the endpoint's limiter
+ */
+public record OllamaEndpointStats(String url, int weight, boolean healthy, int consecutiveFailures,
+                                  long requests, long failures, long ejections, int outstanding,
+                                  LimiterStats limiter) {
+}
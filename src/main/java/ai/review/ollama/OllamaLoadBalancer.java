@@ -0,0 +1,96 @@
+package ai.review.ollama;
+
+import ai.review.config.OllamaProperties;
+import ai.review.config.OllamaProperties.Routing;
+import ai.review.http.AdaptiveConcurrencyLimiter;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Picks the endpoint for each generation among those not ejected, by weighted outstanding
+ * generations or weighted latency (see {@link Routing}). Ties go to the endpoint that has
+ * served the fewest generations for its weight, so sequential calls are spread by weight too.
+ * When every endpoint is ejected the one whose ejection ends first is tried anyway, rather
+ * than failing all generations until one comes back.
+ */
+final class OllamaLoadBalancer {
+    
+    private final List<OllamaEndpoint> endpoints;
+    private final Comparator<OllamaEndpoint> order;
+    
+    OllamaLoadBalancer(List<OllamaEndpoint> endpoints, Routing routing) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one Ollama endpoint is required");
+        }
+        this.endpoints = List.copyOf(endpoints);
+        Comparator<OllamaEndpoint> byLoad = switch (routing) {
+            case LEAST_OUTSTANDING -> Comparator.comparingDouble(
+                    e -> (double) e.outstanding() / e.weight());
+            case LATENCY -> Comparator.comparingDouble(
+                    e -> (double) e.averageLatencyMillis() * (e.outstanding() + 1) / e.weight());
+        };
+        this.order = byLoad.thenComparingDouble(e -> (double) e.requests() / e.weight());
+    }
+    
+    /**
+     * Endpoints from {@code app.ollama.endpoints}, or {@code app.ollama.api-url} alone when
+     * none are listed, each with its own concurrency limiter
+     */
+    static OllamaLoadBalancer fromProperties(OllamaProperties properties, Clock clock) {
+        List<OllamaProperties.Endpoint> configured = properties.getEndpoints();
+        if (configured == null || configured.isEmpty()) {
+            OllamaProperties.Endpoint single = new OllamaProperties.Endpoint(properties.getApiUrl(), 1);
+            configured = List.of(single);
+        }
+        List<OllamaEndpoint> endpoints = new ArrayList<>();
+        for (OllamaProperties.Endpoint endpoint : configured) {
+            String token = endpoint.getApiToken() != null && !endpoint.getApiToken().isBlank()
+                    ? endpoint.getApiToken()
+                    : properties.getApiToken();
+            endpoints.add(new OllamaEndpoint(
+                    URI.create(endpoint.getUrl()),
+                    token,
+                    endpoint.getWeight(),
+                    newLimiter(configured.size() == 1 ? "ollama" : "ollama " + endpoint.getUrl(), properties),
+                    properties.getEjectionFailureThreshold(),
+                    Duration.ofSeconds(properties.getEjectionSeconds()),
+                    clock));
+        }
+        return new OllamaLoadBalancer(endpoints, properties.getRouting());
+    }
+    
+    OllamaEndpoint choose() {
+        OllamaEndpoint best = null;
+        for (OllamaEndpoint endpoint : endpoints) {
+            if (endpoint.isHealthy() && (best == null || order.compare(endpoint, best) < 0)) {
+                best = endpoint;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return endpoints.stream()
+                .min(Comparator.comparing(OllamaEndpoint::ejectedUntil))
+                .orElseThrow();
+    }
+    
+    List<OllamaEndpointStats> stats() {
+        return endpoints.stream().map(OllamaEndpoint::stats).toList();
+    }
+    
+    private static AdaptiveConcurrencyLimiter newLimiter(String name, OllamaProperties properties) {
+        return new AdaptiveConcurrencyLimiter(
+                name,
+                properties.getLimiterInitialLimit(),
+                properties.getLimiterMinLimit(),
+                properties.getLimiterMaxLimit(),
+                properties.getLimiterQueueCapacity(),
+                Duration.ofSeconds(properties.getLimiterMaxWaitSeconds()),
+                properties.getLimiterLatencyTolerance());
+    }
+}
@@ -0,0 +1,136 @@
+package ai.review.service;
+
+import ai.review.config.BatchProperties;
+import ai.review.dto.BatchReviewItemResponse;
+import ai.review.dto.ReviewRequest;
+import ai.review.http.Deadline;
+import ai.review.tracing.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Reviews many pull requests per call on a worker pool whose size caps how many batch
+ * items are in flight at once, so a batch takes about as long as its slowest items rather
+ * than the sum of all of them. Results are handed out as each item finishes.
+ */
+public class BatchReviewService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchReviewService.class);
+    
+    private final ReviewService reviewService;
+    private final BatchProperties properties;
+    private final ThreadPoolExecutor executor;
+    
+    public BatchReviewService(ReviewService reviewService, BatchProperties properties) {
+        this.reviewService = reviewService;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(
+                properties.getParallelism(),
+                properties.getParallelism(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamedThreadFactory("review-batch-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+    
+    /**
+     * Start reviewing every item; {@code onResult} is called from the worker threads, once per
+     * item in completion order, and must be thread-safe. A failure or exception in one item is
+     * reported in its result and does not affect the others. Each item runs within its own
+     * deadline. If {@code onResult} throws (the client is gone) or the returned future is
+     * cancelled, items not started yet are skipped and the deadlines of running ones are
+     * cancelled, which aborts their calls to GitHub and the model.
+     *
+     * @return a future completed once every item has been delivered or skipped
+     */
+    public CompletableFuture<Void> reviewAll(List<ReviewRequest> requests, Consumer<BatchReviewItemResponse> onResult) {
+        logger.info("Starting batch review of {} pull requests", requests.size());
+        
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Set<Deadline> running = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?>[] items = new CompletableFuture<?>[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            ReviewRequest request = requests.get(i);
+            items[i] = CompletableFuture.runAsync(Span.wrap(() -> {
+                if (abandoned.get()) {
+                    return;
+                }
+                Deadline deadline = reviewService.deadlineFor(request);
+                running.add(deadline);
+                if (abandoned.get()) {
+                    // Abandoned while this item was starting, after the running ones were cancelled
+                    running.remove(deadline);
+                    return;
+                }
+                BatchReviewItemResponse result;
+                try {
+                    result = review(index, request, deadline);
+                } finally {
+                    running.remove(deadline);
+                }
+                if (abandoned.get()) {
+                    return;
+                }
+                try {
+                    onResult.accept(result);
+                } catch (RuntimeException e) {
+                    abandon(abandoned, running);
+                    throw e;
+                }
+            }), executor);
+        }
+        
+        CompletableFuture<Void> batch = CompletableFuture.allOf(items);
+        batch.whenComplete((ignored, e) -> {
+            if (batch.isCancelled()) {
+                abandon(abandoned, running);
+            }
+        });
+        return batch;
+    }
+    
+    /**
+     * How long a batch response may stay open
+     */
+    public Duration getTimeout() {
+        return Duration.ofMinutes(properties.getTimeoutMinutes());
+    }
+    
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private static void abandon(AtomicBoolean abandoned, Set<Deadline> running) {
+        abandoned.set(true);
+        running.forEach(Deadline::cancel);
+    }
+    
+    private BatchReviewItemResponse review(int index, ReviewRequest request, Deadline deadline) {
+        BatchReviewItemResponse item = new BatchReviewItemResponse();
+        item.setIndex(index);
+        item.setRepository(request.getRepository());
+        item.setPrNumber(request.getPrNumber());
+        
+        long start = System.nanoTime();
+        try {
+            item.setResult(reviewService.reviewPullRequest(request, deadline));
+        } catch (RuntimeException e) {
+            logger.error("Batch item {} failed for repository: {}, PR: {}: {}",
+                index, request.getRepository(), request.getPrNumber(), e.getMessage(), e);
+            item.setError(e.getMessage());
+        }
+        item.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return item;
+    }
+}
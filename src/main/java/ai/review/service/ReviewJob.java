@@ -0,0 +1,87 @@
+package ai.review.service;
+
+import ai.review.dto.ReviewJobResponse;
+import ai.review.dto.ReviewJobStatus;
+import ai.review.dto.ReviewRequest;
+import ai.review.dto.ReviewResponse;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Mutable state of a single asynchronous review job. Written by the worker thread,
+ * read by pollers, hence the volatile fields.
+ */
+class ReviewJob {
+    
+    private final String id;
+    private final ReviewRequest request;
+    private final Instant createdAt = Instant.now();
+    
+    private volatile ReviewJobStatus status = ReviewJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile ReviewResponse result;
+    private volatile String error;
+    
+    ReviewJob(String id, ReviewRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+    
+    String getId() {
+        return id;
+    }
+    
+    ReviewRequest getRequest() {
+        return request;
+    }
+    
+    Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    Instant getCompletedAt() {
+        return completedAt;
+    }
+    
+    boolean isFinished() {
+        return status == ReviewJobStatus.SUCCEEDED || status == ReviewJobStatus.FAILED;
+    }
+    
+    void markRunning() {
+        startedAt = Instant.now();
+        status = ReviewJobStatus.RUNNING;
+    }
+    
+    void markSucceeded(ReviewResponse result) {
+        this.result = result;
+        completedAt = Instant.now();
+        status = ReviewJobStatus.SUCCEEDED;
+    }
+    
+    void markFailed(String error) {
+        this.error = error;
+        completedAt = Instant.now();
+        status = ReviewJobStatus.FAILED;
+    }
+    
+    ReviewJobResponse toResponse() {
+        ReviewJobResponse response = new ReviewJobResponse();
+        response.setJobId(id);
+        response.setStatus(status);
+        response.setRepository(request.getRepository());
+        response.setPrNumber(request.getPrNumber());
+        response.setCreatedAt(toLocal(createdAt));
+        response.setStartedAt(toLocal(startedAt));
+        response.setCompletedAt(toLocal(completedAt));
+        response.setResult(result);
+        response.setError(error);
+        return response;
+    }
+    
+    private static LocalDateTime toLocal(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
@@ -0,0 +1,126 @@
+package ai.review.service;
+
+import ai.review.config.JobProperties;
+import ai.review.dto.ReviewJobResponse;
+import ai.review.dto.ReviewRequest;
+import ai.review.exception.ReviewJobNotFoundException;
+import ai.review.exception.ReviewJobRejectedException;
+import ai.review.tracing.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs reviews in the background on a dedicated, bounded worker pool so that servlet
+ * threads are never held for the duration of a model call. Jobs that cannot be queued
+ * are rejected immediately instead of piling up.
+ */
+public class ReviewJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ReviewJobService.class);
+    
+    private final ReviewService reviewService;
+    private final JobProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ReviewJob> jobs = new ConcurrentHashMap<>();
+    
+    public ReviewJobService(ReviewService reviewService, JobProperties properties) {
+        this.reviewService = reviewService;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(
+                properties.getWorkerThreads(),
+                properties.getWorkerThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new NamedThreadFactory("review-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    public ReviewJobResponse submit(ReviewRequest request) {
+        evictExpiredJobs();
+        
+        ReviewJob job = new ReviewJob(UUID.randomUUID().toString(), request);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(Span.wrap(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.warn("Rejected review job for repository: {}, PR: {}, queue is full", 
+                request.getRepository(), request.getPrNumber());
+            throw new ReviewJobRejectedException("Review job queue is full, try again later", 
+                properties.getQueueCapacity(), e);
+        }
+        
+        logger.info("Queued review job {} for repository: {}, PR: {}", 
+            job.getId(), request.getRepository(), request.getPrNumber());
+        return job.toResponse();
+    }
+    
+    public ReviewJobResponse getJob(String jobId) {
+        ReviewJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ReviewJobNotFoundException(jobId);
+        }
+        return job.toResponse();
+    }
+    
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    public int getActiveJobs() {
+        return executor.getActiveCount();
+    }
+    
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void run(ReviewJob job) {
+        job.markRunning();
+        try {
+            job.markSucceeded(reviewService.reviewPullRequest(job.getRequest()));
+            logger.info("Review job {} completed", job.getId());
+        } catch (RuntimeException e) {
+            logger.error("Review job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.markFailed(e.getMessage());
+        }
+    }
+    
+    /**
+     * Drop finished jobs past their retention period, then the oldest finished ones
+     * if the store is still above its size limit
+     */
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(properties.getRetentionMinutes()));
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+        
+        int excess = jobs.size() - properties.getMaxRetainedJobs();
+        if (excess > 0) {
+            jobs.values().stream()
+                    .filter(ReviewJob::isFinished)
+                    .sorted(Comparator.comparing(ReviewJob::getCompletedAt))
+                    .limit(excess)
+                    .map(ReviewJob::getId)
+                    .toList()
+                    .forEach(jobs::remove);
+        }
+    }
+}
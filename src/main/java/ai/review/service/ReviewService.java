@@ -1,28 +1,110 @@
 package ai.review.service;
 
+import ai.review.cache.CacheStats;
+import ai.review.cache.ReviewCache;
+import ai.review.cache.ReviewCacheKey;
+import ai.review.config.ReviewProperties;
+import ai.review.diff.DiffChunk;
+import ai.review.diff.DiffChunker;
+import ai.review.diff.DiffFilter;
+import ai.review.diff.UnifiedDiff;
+import ai.review.dto.DiffFilterReport;
+import ai.review.dto.ReviewRequest;
+import ai.review.dto.ReviewResponse;
+import ai.review.exception.CircuitBreakerOpenException;
+import ai.review.exception.ConcurrencyLimitExceededException;
+import ai.review.exception.DeadlineExceededException;
 import ai.review.exception.ReviewGenerationException;
 import ai.review.exception.ValidationException;
 import ai.review.github.GitHubClient;
+import ai.review.github.RateLimitStats;
+import ai.review.github.ResponseCacheStats;
+import ai.review.http.CircuitBreakerStats;
+import ai.review.http.Deadline;
+import ai.review.metrics.ReviewMetrics;
+import ai.review.metrics.ReviewMetrics.Stage;
+import ai.review.ollama.Generation;
+import ai.review.ollama.GenerationStats;
 import ai.review.ollama.OllamaClient;
+import ai.review.ollama.OllamaEndpointStats;
+import ai.review.template.PromptTemplate;
+import ai.review.template.TemplateRegistry;
+import ai.review.tracing.Span;
+import ai.review.tracing.SpanKind;
+import ai.review.tracing.Tracer;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class ReviewService {
     private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
     
+    private static final String DIFF_PLACEHOLDER = "DIFF_CONTENT";
+    private static final String CHUNK_REVIEWS_PLACEHOLDER = "CHUNK_REVIEWS";
+    
     private final GitHubClient gitHubClient;
     private final OllamaClient ollamaClient;
+    private final ReviewCache reviewCache;
+    private final ConcurrentMap<String, CompletableFuture<ReviewResult>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    private final DiffChunker chunker;
+    private final ThreadPoolExecutor chunkExecutor;
+    private final ReviewProperties properties;
+    private final DiffFilter defaultFilter;
+    private final TemplateRegistry templateRegistry;
+    private final ReviewMetrics metrics;
+    private final Tracer tracer;
 
     public ReviewService(GitHubClient gitHubClient, OllamaClient ollamaClient) {
+        this(gitHubClient, ollamaClient, ReviewCache.disabled(), new ReviewProperties(), new TemplateRegistry(),
+                ReviewMetrics.disabled(), Tracer.noop());
+    }
+
+    /**
+     * @param tracer traces every stage of a review under the span of the request
+     */
+    public ReviewService(GitHubClient gitHubClient, OllamaClient ollamaClient, ReviewCache reviewCache,
+                         ReviewProperties properties, TemplateRegistry templateRegistry, ReviewMetrics metrics,
+                         Tracer tracer) {
         this.gitHubClient = gitHubClient;
         this.ollamaClient = ollamaClient;
+        this.reviewCache = reviewCache;
+        this.properties = properties;
+        this.templateRegistry = templateRegistry;
+        this.metrics = metrics;
+        this.tracer = tracer;
+        this.defaultFilter = new DiffFilter(properties.getIncludePaths(), properties.getExcludePaths());
+        this.chunker = new DiffChunker(properties.getChunkTokenBudget());
+        this.chunkExecutor = new ThreadPoolExecutor(
+                properties.getChunkParallelism(),
+                properties.getChunkParallelism(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamedThreadFactory("review-chunk-"));
+        this.chunkExecutor.allowCoreThreadTimeOut(true);
     }
 
     public String generateReview(String repo, int prNumber) {
@@ -30,6 +112,31 @@ public class ReviewService {
     }
     
     public String generateReview(String repo, int prNumber, String templateName) {
+        return generateReview(repo, prNumber, templateName, defaultFilter, defaultDeadline()).review();
+    }
+    
+    /**
+     * Time budget of a request: its own timeout where given, the configured default otherwise.
+     * The budget starts running now.
+     *
+     * @throws ValidationException if the request asks for more than the configured maximum
+     */
+    public Deadline deadlineFor(ReviewRequest request) {
+        Integer timeoutSeconds = request.getTimeoutSeconds() != null
+            ? request.getTimeoutSeconds()
+            : properties.getDefaultTimeoutSeconds();
+        if (request.getTimeoutSeconds() != null && timeoutSeconds > properties.getMaxTimeoutSeconds()) {
+            throw new ValidationException(
+                "Timeout must not exceed " + properties.getMaxTimeoutSeconds() + " seconds",
+                "timeoutSeconds",
+                timeoutSeconds
+            );
+        }
+        return Deadline.after(Duration.ofSeconds(timeoutSeconds));
+    }
+    
+    private ReviewResult generateReview(String repo, int prNumber, String templateName, DiffFilter filter,
+                                        Deadline deadline) {
         logger.info("Generating review for repository: {}, PR: {}, template: {}", repo, prNumber, templateName);
         
         // Validate input parameters
@@ -37,19 +144,153 @@ public class ReviewService {
         validatePrNumber(prNumber);
         
         try {
-            String diff = gitHubClient.getPullRequestDiff(repo, prNumber);
-            if (!StringUtils.hasText(diff)) {
-                throw new ReviewGenerationException(
-                    "No diff content found for pull request",
-                    repo,
-                    prNumber
-                );
+            // Concurrent requests for the same revision share a single generation
+            String flightKey = inFlightKey(repo, prNumber, templateName, filter, deadline);
+            while (true) {
+                CompletableFuture<ReviewResult> generation = new CompletableFuture<>();
+                CompletableFuture<ReviewResult> existing = inFlight.putIfAbsent(flightKey, generation);
+                if (existing == null) {
+                    try {
+                        ReviewResult review = generateUncoalesced(repo, prNumber, templateName, filter, deadline);
+                        generation.complete(review);
+                        return review;
+                    } catch (RuntimeException e) {
+                        generation.completeExceptionally(e);
+                        throw e;
+                    } finally {
+                        inFlight.remove(flightKey, generation);
+                    }
+                }
+                
+                coalescedRequests.incrementAndGet();
+                logger.info("Joining in-flight review for repository: {}, PR: {}, template: {}", repo, prNumber, templateName);
+                try {
+                    return await(existing, deadline);
+                } catch (DeadlineExceededException | CancellationException e) {
+                    if (deadline.isExpired()) {
+                        throw e;
+                    }
+                    // The joined request ran out of its own budget or was cancelled by its
+                    // caller; this one still has time, so it generates (or joins) afresh
+                    inFlight.remove(flightKey, existing);
+                    logger.info("Joined review for repository: {}, PR: {} ended with its caller's deadline, retrying under this request's",
+                        repo, prNumber);
+                }
             }
             
-            String prompt = buildPrompt(diff, templateName);
-            String review = ollamaClient.generate(prompt);
+        } catch (Exception e) {
+            metrics.recordError(e);
+            if (e instanceof ReviewGenerationException || isFinal(e)) {
+                throw e;
+            }
+            throw new ReviewGenerationException(
+                "Failed to generate review: " + e.getMessage(),
+                repo,
+                prNumber,
+                e
+            );
+        }
+    }
+    
+    /**
+     * Generate a review for the request and post it to the pull request when asked to
+     */
+    public ReviewResponse reviewPullRequest(ReviewRequest request) {
+        return reviewPullRequest(request, deadlineFor(request));
+    }
+    
+    /**
+     * Review the pull request within {@code deadline}, which every call to GitHub and the
+     * model shares: each gets only what is left of it
+     *
+     * @throws DeadlineExceededException if the deadline passes or is cancelled first
+     */
+    public ReviewResponse reviewPullRequest(ReviewRequest request, Deadline deadline) {
+        ReviewResult result = generateReview(request.getRepository(), request.getPrNumber(), request.getTemplateName(),
+            filterFor(request), deadline);
+        String review = result.review();
+        
+        boolean postedToGitHub = false;
+        String message = "Review generated successfully";
+        
+        if (request.isPostToGitHub()) {
+            postReviewToGitHub(request.getRepository(), request.getPrNumber(), review, deadline);
+            postedToGitHub = true;
+            message = "Review generated and posted to GitHub PR #" + request.getPrNumber();
+        }
+        
+        ReviewResponse response = new ReviewResponse(review, postedToGitHub, message, result.diffFilter());
+        if (request.isIncludeGenerationStats()) {
+            response.setGenerationStats(result.generationStats());
+        }
+        return response;
+    }
+    
+    /**
+     * Generate a review and hand each generated fragment to {@code onToken} as it arrives from
+     * the model, instead of returning the complete text at the end.
+     */
+    public void streamReview(String repo, int prNumber, String templateName, Consumer<String> onToken) {
+        streamReview(repo, prNumber, templateName, defaultFilter, onToken, defaultDeadline());
+    }
+    
+    /**
+     * Stream the review for the request, applying its path filters
+     *
+     * @return what the path filters left out of the review
+     */
+    public DiffFilterReport streamReview(ReviewRequest request, Consumer<String> onToken) {
+        return streamReview(request, onToken, deadlineFor(request));
+    }
+    
+    /**
+     * Stream the review for the request within {@code deadline}. Cancel the deadline when the
+     * client goes away to abort the generation.
+     *
+     * @return what the path filters left out of the review
+     */
+    public DiffFilterReport streamReview(ReviewRequest request, Consumer<String> onToken, Deadline deadline) {
+        return streamReview(request.getRepository(), request.getPrNumber(), request.getTemplateName(),
+            filterFor(request), onToken, deadline);
+    }
+    
+    private DiffFilterReport streamReview(String repo, int prNumber, String templateName, DiffFilter filter,
+                                          Consumer<String> onToken, Deadline deadline) {
+        logger.info("Streaming review for repository: {}, PR: {}, template: {}", repo, prNumber, templateName);
+        
+        // Validate input parameters
+        validateRepository(repo);
+        validatePrNumber(prNumber);
+        
+        try {
+            ReviewInput input = prepareInput(repo, prNumber, templateName, filter, deadline);
+            Optional<String> cached = reviewCache.get(input.cacheKey());
+            if (cached.isPresent()) {
+                logger.info("Serving cached review for repository: {}, PR: {}, template: {}", repo, prNumber, templateName);
+                onToken.accept(cached.get());
+                return input.diffFilter();
+            }
             
-            if (!StringUtils.hasText(review)) {
+            // The complete text is only needed when it is going to be cached
+            StringBuilder review = reviewCache.isEnabled() ? new StringBuilder() : null;
+            AtomicBoolean receivedTokens = new AtomicBoolean(false);
+            AtomicLong responseLength = new AtomicLong();
+            String prompt = buildReviewPrompt(input, repo, prNumber, deadline, new AtomicReference<>());
+            metrics.recordPromptSize(prompt.length());
+            GenerationStats stats = stage(Stage.GENERATION, () -> ollamaClient.generateStream(prompt, token -> {
+                receivedTokens.set(true);
+                responseLength.addAndGet(token.length());
+                if (review != null) {
+                    review.append(token);
+                }
+                onToken.accept(token);
+            }, deadline));
+            metrics.recordResponseSize((int) responseLength.get());
+            if (stats != null) {
+                metrics.recordGeneration(ollamaClient.getModel(), stats);
+            }
+            
+            if (!receivedTokens.get()) {
                 throw new ReviewGenerationException(
                     "AI service returned empty review",
                     repo,
@@ -57,15 +298,19 @@ public class ReviewService {
                 );
             }
             
-            logger.info("Successfully generated review for repository: {}, PR: {}, template: {}", repo, prNumber, templateName);
-            return review;
+            if (review != null) {
+                reviewCache.put(input.cacheKey(), review.toString());
+            }
+            logger.info("Successfully streamed review for repository: {}, PR: {}, template: {}", repo, prNumber, templateName);
+            return input.diffFilter();
             
         } catch (Exception e) {
-            if (e instanceof ReviewGenerationException) {
+            metrics.recordError(e);
+            if (e instanceof ReviewGenerationException || isFinal(e)) {
                 throw e;
             }
             throw new ReviewGenerationException(
-                "Failed to generate review: " + e.getMessage(),
+                "Failed to stream review: " + e.getMessage(),
                 repo,
                 prNumber,
                 e
@@ -73,7 +318,31 @@ public class ReviewService {
         }
     }
     
+    public CacheStats getCacheStats() {
+        return reviewCache.stats();
+    }
+    
+    public ResponseCacheStats getGitHubCacheStats() {
+        return gitHubClient.getResponseCacheStats();
+    }
+    
+    public RateLimitStats getGitHubRateLimitStats() {
+        return gitHubClient.getRateLimitStats();
+    }
+    
+    public List<OllamaEndpointStats> getOllamaEndpointStats() {
+        return ollamaClient.getEndpointStats();
+    }
+    
+    public List<CircuitBreakerStats> getCircuitBreakerStats() {
+        return List.of(gitHubClient.getCircuitBreakerStats(), ollamaClient.getCircuitBreakerStats());
+    }
+    
     public void postReviewToGitHub(String repo, int prNumber, String review) {
+        postReviewToGitHub(repo, prNumber, review, defaultDeadline());
+    }
+    
+    public void postReviewToGitHub(String repo, int prNumber, String review, Deadline deadline) {
         logger.info("Posting review to GitHub for repository: {}, PR: {}", repo, prNumber);
         
         // Validate input parameters
@@ -85,9 +354,13 @@ public class ReviewService {
         }
         
         try {
-            gitHubClient.postIssueComment(repo, prNumber, review);
+            stage(Stage.COMMENT_POST, () -> gitHubClient.postIssueComment(repo, prNumber, review, deadline));
             logger.info("Successfully posted review to GitHub for repository: {}, PR: {}", repo, prNumber);
         } catch (Exception e) {
+            metrics.recordError(e);
+            if (isFinal(e)) {
+                throw e;
+            }
             throw new ReviewGenerationException(
                 "Failed to post review to GitHub: " + e.getMessage(),
                 repo,
@@ -97,6 +370,128 @@ public class ReviewService {
         }
     }
     
+    /**
+     * Number of requests that were answered by joining another request's generation
+     */
+    public long getCoalescedRequests() {
+        return coalescedRequests.get();
+    }
+    
+    public void shutdown() {
+        chunkExecutor.shutdownNow();
+    }
+    
+    private ReviewResult generateUncoalesced(String repo, int prNumber, String templateName, DiffFilter filter,
+                                             Deadline deadline) {
+        ReviewInput input = prepareInput(repo, prNumber, templateName, filter, deadline);
+        Optional<String> cached = reviewCache.get(input.cacheKey());
+        if (cached.isPresent()) {
+            logger.info("Serving cached review for repository: {}, PR: {}, template: {}", repo, prNumber, templateName);
+            return new ReviewResult(cached.get(), input.diffFilter(), null);
+        }
+        
+        AtomicReference<GenerationStats> usage = new AtomicReference<>();
+        String review = generate(Stage.GENERATION, buildReviewPrompt(input, repo, prNumber, deadline, usage), deadline,
+            usage);
+        if (review != null) {
+            metrics.recordResponseSize(review.length());
+        }
+        
+        if (!StringUtils.hasText(review)) {
+            throw new ReviewGenerationException(
+                "AI service returned empty review",
+                repo,
+                prNumber
+            );
+        }
+        
+        reviewCache.put(input.cacheKey(), review);
+        logger.info("Successfully generated review for repository: {}, PR: {}, template: {}", repo, prNumber, templateName);
+        return new ReviewResult(review, input.diffFilter(), usage.get());
+    }
+    
+    /**
+     * Key identifying one revision of a pull request reviewed with one template and path
+     * filter. The head commit is part of it so that a push during generation starts a fresh
+     * review.
+     */
+    private String inFlightKey(String repo, int prNumber, String templateName, DiffFilter filter, Deadline deadline) {
+        JsonNode pullRequest = stage(Stage.PULL_REQUEST_FETCH,
+            () -> gitHubClient.getPullRequest(repo, prNumber, deadline));
+        String headSha = pullRequest != null ? pullRequest.path("head").path("sha").asText("") : "";
+        return repo + "#" + prNumber + "@" + headSha + ":" + templateName + ":" + filter.signature();
+    }
+    
+    /**
+     * Path filter of a request: its own globs where given, the configured defaults otherwise
+     */
+    private DiffFilter filterFor(ReviewRequest request) {
+        if (request.getIncludePaths() == null && request.getExcludePaths() == null) {
+            return defaultFilter;
+        }
+        List<String> includes = request.getIncludePaths() != null ? request.getIncludePaths() : properties.getIncludePaths();
+        List<String> excludes = request.getExcludePaths() != null ? request.getExcludePaths() : properties.getExcludePaths();
+        try {
+            return new DiffFilter(includes, excludes);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(
+                "Invalid path glob: " + e.getMessage(),
+                request.getIncludePaths() != null ? "includePaths" : "excludePaths",
+                request.getIncludePaths() != null ? request.getIncludePaths() : request.getExcludePaths()
+            );
+        }
+    }
+    
+    /**
+     * Wait for another request's generation, but no longer than this request's own deadline.
+     * The generation itself is left running for the request that started it. A failure of
+     * the generation is passed on as it is, including the deadline of the request that
+     * started it running out.
+     */
+    private static <T> T await(CompletableFuture<T> future, Deadline deadline) {
+        while (true) {
+            deadline.check("the in-flight review being joined completed");
+            try {
+                return future.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // The deadline is checked again above
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new CompletionException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }
+    }
+    
+    /**
+     * Failures that already tell the caller what to do (retry later, stop waiting) and are
+     * passed on as they are rather than wrapped into a generation failure
+     */
+    private static boolean isFinal(Exception e) {
+        return e instanceof DeadlineExceededException
+                || e instanceof ConcurrencyLimitExceededException
+                || e instanceof CircuitBreakerOpenException;
+    }
+    
+    private Deadline defaultDeadline() {
+        return Deadline.after(Duration.ofSeconds(properties.getDefaultTimeoutSeconds()));
+    }
+    
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
     /**
      * Validate repository format (should be owner/repo)
      */
@@ -127,20 +522,190 @@ public class ReviewService {
         }
     }
 
-    private String loadPromptTemplate(String templateName) {
-        try {
-            ClassPathResource resource = new ClassPathResource(templateName);
-            return resource.getContentAsString(StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            logger.error("Failed to load prompt template: {}", templateName, e);
-            throw new ReviewGenerationException("Failed to load prompt template: " + e.getMessage(), e);
+    /**
+     * Fetch the pull request diff, drop the files excluded by the path filter, load the
+     * template, and derive the cache key from what is left
+     */
+    private ReviewInput prepareInput(String repo, int prNumber, String templateName, DiffFilter filter,
+                                     Deadline deadline) {
+        UnifiedDiff diff = stage(Stage.DIFF_FETCH, () -> gitHubClient.getPullRequestDiff(repo, prNumber, deadline));
+        if (diff == null || diff.isEmpty()) {
+            throw new ReviewGenerationException(
+                "No diff content found for pull request",
+                repo,
+                prNumber
+            );
         }
+        
+        DiffFilter.Result filtered = filter.apply(diff);
+        if (!filtered.droppedFiles().isEmpty()) {
+            logger.info("Path filters dropped {} of {} files ({} bytes, ~{} tokens) for repository: {}, PR: {}",
+                filtered.droppedFiles().size(), diff.files().size(), filtered.droppedBytes(), filtered.droppedTokens(),
+                repo, prNumber);
+        }
+        if (filtered.diff().isEmpty()) {
+            throw new ReviewGenerationException(
+                "No reviewable files left after path filtering (dropped: " + String.join(", ", filtered.droppedFiles()) + ")",
+                repo,
+                prNumber
+            );
+        }
+        metrics.recordDiffSize(filtered.diff().utf8Length());
+        DiffFilterReport report = new DiffFilterReport(filtered.diff().files().size(), filtered.droppedFiles(),
+            filtered.droppedBytes(), filtered.droppedTokens());
+        
+        PromptTemplate template = templateRegistry.get(templateName);
+        return new ReviewInput(filtered.diff(), template, ReviewCacheKey.of(filtered.diff(), ollamaClient.getModel(), template),
+            report);
     }
 
-    private String buildPrompt(String unifiedDiff, String templateName) {
-        String template = loadPromptTemplate(templateName);
-        return template.replace("{DIFF_CONTENT}", unifiedDiff);
+    private String buildPrompt(UnifiedDiff diff, PromptTemplate template) {
+        return stage(Stage.PROMPT_BUILD, () -> renderPrompt(diff, template));
+    }
+    
+    /**
+     * Renders the diff straight into a buffer sized for the whole prompt, so that no
+     * intermediate copy of the diff text is made
+     */
+    static String renderPrompt(UnifiedDiff diff, PromptTemplate template) {
+        return template.render(DIFF_PLACEHOLDER, diff.length(), diff::appendTo);
+    }
+    
+    /**
+     * Prompt for the final model call. A diff within the token budget is reviewed directly.
+     * A larger one is split into chunks that are reviewed in parallel first, and the returned
+     * prompt merges their reviews, so latency follows the slowest chunk rather than the size
+     * of the diff. What the chunk and merge generations report is added to {@code usage}.
+     */
+    private String buildReviewPrompt(ReviewInput input, String repo, int prNumber, Deadline deadline,
+                                     AtomicReference<GenerationStats> usage) {
+        if (chunker.fits(input.diff())) {
+            return buildPrompt(input.diff(), input.template());
+        }
+        
+        List<DiffChunk> chunks = chunker.split(input.diff());
+        logger.info("Diff of ~{} tokens is over the budget, reviewing it in {} chunks for repository: {}, PR: {}",
+            DiffChunker.estimateTokens(input.diff().length()), chunks.size(), repo, prNumber);
+        List<String> chunkReviews = generateAll(chunks.stream()
+                .map(chunk -> buildPrompt(chunk.diff(), input.template()))
+                .toList(), deadline, usage);
+        
+        List<String> sections = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            if (StringUtils.hasText(chunkReviews.get(i))) {
+                sections.add("### Часть " + (i + 1) + " из " + chunks.size()
+                        + " (" + String.join(", ", chunks.get(i).files()) + ")\n"
+                        + chunkReviews.get(i).strip());
+            }
+        }
+        if (sections.isEmpty()) {
+            throw new ReviewGenerationException(
+                "AI service returned empty review",
+                repo,
+                prNumber
+            );
+        }
+        
+        // The chunk reviews of a huge diff may themselves overflow the budget; merge them
+        // in parallel groups until one reduce prompt is left
+        PromptTemplate reduceTemplate = templateRegistry.get(TemplateRegistry.REDUCE_TEMPLATE);
+        List<List<String>> groups = groupWithinBudget(sections);
+        while (groups.size() > 1) {
+            List<String> merged = generateAll(groups.stream()
+                    .map(group -> buildReducePrompt(group, reduceTemplate))
+                    .toList(), deadline, usage);
+            sections = new ArrayList<>();
+            for (int i = 0; i < merged.size(); i++) {
+                sections.add("### Часть " + (i + 1) + " из " + merged.size() + "\n" + merged.get(i).strip());
+            }
+            groups = groupWithinBudget(sections);
+        }
+        return buildReducePrompt(groups.get(0), reduceTemplate);
+    }
+    
+    private String buildReducePrompt(List<String> sections, PromptTemplate template) {
+        return stage(Stage.PROMPT_BUILD,
+            () -> template.render(CHUNK_REVIEWS_PLACEHOLDER, String.join("\n\n", sections)));
+    }
+    
+    /**
+     * Runs a stage of the review in a span of its own and records its duration
+     */
+    private <T> T stage(Stage stage, Supplier<T> call) {
+        return tracer.inSpan("review." + stage.tag(), SpanKind.INTERNAL, () -> metrics.time(stage, call));
+    }
+    
+    private void stage(Stage stage, Runnable call) {
+        stage(stage, () -> {
+            call.run();
+            return null;
+        });
+    }
+    
+    private String generate(Stage stage, String prompt, Deadline deadline, AtomicReference<GenerationStats> usage) {
+        metrics.recordPromptSize(prompt.length());
+        Generation generation = stage(stage, () -> ollamaClient.generateWithStats(prompt, deadline));
+        if (generation.stats() != null) {
+            metrics.recordGeneration(ollamaClient.getModel(), generation.stats());
+            usage.accumulateAndGet(generation.stats(), GenerationStats::sum);
+        }
+        return generation.text();
+    }
+    
+    /**
+     * Packs sections into groups within the token budget. Every group takes at least two
+     * sections, so each merge round at least halves their number.
+     */
+    private List<List<String>> groupWithinBudget(List<String> sections) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        int length = 0;
+        for (String section : sections) {
+            if (group.size() >= 2 && !chunker.fits(length + section.length())) {
+                groups.add(group);
+                group = new ArrayList<>();
+                length = 0;
+            }
+            group.add(section);
+            length += section.length() + 2;
+        }
+        groups.add(group);
+        return groups;
+    }
+    
+    /**
+     * Runs the prompts on the chunk pool and returns the generated texts in prompt order,
+     * failing as soon as any of them fails. The review cannot be completed then, so the
+     * deadline is cancelled to abort the generations still running.
+     */
+    private List<String> generateAll(List<String> prompts, Deadline deadline, AtomicReference<GenerationStats> usage) {
+        List<CompletableFuture<String>> generations = prompts.stream()
+                .map(prompt -> CompletableFuture.supplyAsync(
+                        Span.wrap(() -> generate(Stage.CHUNK_GENERATION, prompt, deadline, usage)), chunkExecutor))
+                .toList();
+        
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        generations.forEach(generation -> generation.whenComplete((review, error) -> {
+            if (error != null) {
+                firstFailure.completeExceptionally(error);
+            }
+        }));
+        try {
+            join(CompletableFuture.anyOf(CompletableFuture.allOf(generations.toArray(CompletableFuture[]::new)), firstFailure));
+        } catch (RuntimeException e) {
+            generations.forEach(generation -> generation.cancel(false));
+            deadline.cancel();
+            throw e;
+        }
+        return generations.stream().map(CompletableFuture::join).toList();
+    }
+    
+    private record ReviewInput(UnifiedDiff diff, PromptTemplate template, ReviewCacheKey cacheKey, DiffFilterReport diffFilter) {
+    }
+    
+    /**
+     * @param generationStats {@code null} for a cached review or a server that reports no timings
+     */
+    private record ReviewResult(String review, DiffFilterReport diffFilter, GenerationStats generationStats) {
     }
 }
-
-
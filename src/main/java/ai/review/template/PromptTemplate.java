@@ -0,0 +1,92 @@
+package ai.review.template;
+
+import ai.review.cache.Hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A prompt template split once into literal segments and {@code {PLACEHOLDER}} slots, so that
+ * rendering is a single pass of appends into a buffer of the final size instead of a scan
+ * and copy of the whole text per placeholder.
+ */
+public final class PromptTemplate {
+    
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Z][A-Z0-9_]*)}");
+    
+    private final String name;
+    private final String text;
+    private final String hash;
+    /** literals[i] precedes placeholders[i]; the last literal follows the last placeholder */
+    private final String[] literals;
+    private final String[] placeholders;
+    
+    private PromptTemplate(String name, String text, List<String> literals, List<String> placeholders) {
+        this.name = name;
+        this.text = text;
+        this.hash = Hashing.sha256Hex(text);
+        this.literals = literals.toArray(String[]::new);
+        this.placeholders = placeholders.toArray(String[]::new);
+    }
+    
+    public static PromptTemplate parse(String name, String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        int from = 0;
+        while (matcher.find()) {
+            literals.add(text.substring(from, matcher.start()));
+            placeholders.add(matcher.group(1));
+            from = matcher.end();
+        }
+        literals.add(text.substring(from));
+        return new PromptTemplate(name, text, literals, placeholders);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    /**
+     * SHA-256 of the template text, hex encoded
+     */
+    public String getHash() {
+        return hash;
+    }
+    
+    public String render(String placeholder, String value) {
+        return render(placeholder, value.length(), target -> target.append(value));
+    }
+    
+    /**
+     * Renders the template with every occurrence of {@code placeholder} written by
+     * {@code value}. Other placeholders are kept as they are.
+     *
+     * @param valueLength expected length of the written value, used to size the buffer
+     */
+    public String render(String placeholder, int valueLength, Consumer<StringBuilder> value) {
+        int occurrences = 0;
+        for (String candidate : placeholders) {
+            if (candidate.equals(placeholder)) {
+                occurrences++;
+            }
+        }
+        StringBuilder prompt = new StringBuilder(text.length() + occurrences * valueLength);
+        for (int i = 0; i < placeholders.length; i++) {
+            prompt.append(literals[i]);
+            if (placeholders[i].equals(placeholder)) {
+                value.accept(prompt);
+            } else {
+                prompt.append('{').append(placeholders[i]).append('}');
+            }
+        }
+        return prompt.append(literals[literals.length - 1]).toString();
+    }
+}
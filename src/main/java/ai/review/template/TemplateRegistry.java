@@ -0,0 +1,159 @@
+package ai.review.template;
+
+import ai.review.dto.PromptTemplateType;
+import ai.review.exception.ReviewGenerationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prompt templates parsed once and served from memory. Built-in templates are read from the
+ * classpath at startup; other classpath templates on first use. Templates in an optional
+ * external directory take precedence over the classpath ones with the same name and are
+ * reloaded when the files change, so prompts can be tuned without a redeploy.
+ */
+public class TemplateRegistry implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(TemplateRegistry.class);
+    
+    public static final String REDUCE_TEMPLATE = "reduce-prompt-template.txt";
+    
+    private static final String TEMPLATE_SUFFIX = ".txt";
+    
+    private final Map<String, PromptTemplate> classpathTemplates = new ConcurrentHashMap<>();
+    private final Map<String, PromptTemplate> externalTemplates = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final WatchService watchService;
+    
+    /**
+     * Registry of the classpath templates only
+     */
+    public TemplateRegistry() {
+        this.directory = null;
+        this.watchService = null;
+        preloadBuiltInTemplates();
+    }
+    
+    private TemplateRegistry(Path directory) throws IOException {
+        this.directory = directory;
+        preloadBuiltInTemplates();
+        
+        // Register before the initial scan so that no change in between is missed
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        reloadDirectory();
+        
+        Thread watcher = new Thread(this::watch, "template-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+    
+    /**
+     * Registry that also serves, and hot reloads, the {@code *.txt} templates of {@code directory}
+     */
+    public static TemplateRegistry withDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new IOException("Template directory does not exist: " + directory);
+        }
+        return new TemplateRegistry(directory);
+    }
+    
+    public PromptTemplate get(String name) {
+        PromptTemplate external = externalTemplates.get(name);
+        if (external != null) {
+            return external;
+        }
+        return classpathTemplates.computeIfAbsent(name, TemplateRegistry::loadFromClasspath);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+    
+    private void preloadBuiltInTemplates() {
+        for (PromptTemplateType type : PromptTemplateType.values()) {
+            get(type.getFileName());
+        }
+        get(REDUCE_TEMPLATE);
+    }
+    
+    private static PromptTemplate loadFromClasspath(String name) {
+        try {
+            ClassPathResource resource = new ClassPathResource(name);
+            return PromptTemplate.parse(name, resource.getContentAsString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.error("Failed to load prompt template: {}", name, e);
+            throw new ReviewGenerationException("Failed to load prompt template: " + e.getMessage(), e);
+        }
+    }
+    
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        reloadDirectory();
+                    } else if (event.context() instanceof Path file) {
+                        reload(file.getFileName().toString());
+                    }
+                }
+                if (!key.reset()) {
+                    logger.warn("Template directory {} is no longer accessible, hot reload stopped", directory);
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Registry closed
+        }
+    }
+    
+    private void reloadDirectory() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + TEMPLATE_SUFFIX)) {
+            for (Path file : files) {
+                reload(file.getFileName().toString());
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to scan template directory {}: {}", directory, e.getMessage());
+        }
+    }
+    
+    private void reload(String name) {
+        if (!name.endsWith(TEMPLATE_SUFFIX)) {
+            return;
+        }
+        Path file = directory.resolve(name);
+        if (!Files.isRegularFile(file)) {
+            if (externalTemplates.remove(name) != null) {
+                logger.info("Template {} removed from {}, falling back to the built-in one if any", name, directory);
+            }
+            return;
+        }
+        try {
+            externalTemplates.put(name, PromptTemplate.parse(name, Files.readString(file, StandardCharsets.UTF_8)));
+            logger.info("Loaded template {} from {}", name, directory);
+        } catch (IOException e) {
+            // Keep serving the previous version; a later event retries
+            logger.warn("Failed to load template {} from {}: {}", name, directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ai.review.tracing;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Client spans for outbound HTTP exchanges
+ */
+public final class HttpTracing {
+    
+    private HttpTracing() {
+    }
+    
+    /**
+     * One attempt at sending a request, however it is sent
+     */
+    @FunctionalInterface
+    public interface Exchange<T> {
+        HttpResponse<T> send(HttpRequest request) throws IOException, InterruptedException;
+    }
+    
+    /**
+     * Sends the request in a client span that is a child of the current span, with the span's
+     * context added as a W3C {@code traceparent} header so that the server can join the
+     * trace. The span ends when the response headers have arrived; a status of 500 or above
+     * marks it failed.
+     */
+    public static <T> HttpResponse<T> send(Tracer tracer, String peer, HttpRequest request, Exchange<T> exchange)
+            throws IOException, InterruptedException {
+        Span span = tracer.startSpan(peer + " " + request.method(), SpanKind.CLIENT);
+        span.setAttribute("peer.service", peer)
+            .setAttribute("http.method", request.method())
+            .setAttribute("http.url", request.uri().toString());
+        HttpRequest traced = HttpRequest.newBuilder(request, (name, value) -> !name.equalsIgnoreCase(TraceContext.TRACEPARENT))
+                .header(TraceContext.TRACEPARENT, span.context().traceparent())
+                .build();
+        try {
+            HttpResponse<T> response = exchange.send(traced);
+            span.setAttribute("http.status_code", response.statusCode());
+            if (response.statusCode() >= 500) {
+                span.setError("HTTP " + response.statusCode());
+            }
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
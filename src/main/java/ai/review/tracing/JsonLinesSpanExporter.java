@@ -0,0 +1,65 @@
+package ai.review.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every span to a file as one JSON object per line, a local stand-in for a trace
+ * collector: {@code jq} can group the lines by {@code traceId} into per-request latency
+ * breakdowns. A span that cannot be written is logged and dropped, never failing the
+ * request it belongs to.
+ */
+public class JsonLinesSpanExporter implements SpanExporter, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(JsonLinesSpanExporter.class);
+    
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path file;
+    private final BufferedWriter writer;
+    
+    private JsonLinesSpanExporter(Path file, BufferedWriter writer) {
+        this.file = file;
+        this.writer = writer;
+    }
+    
+    public static JsonLinesSpanExporter open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new JsonLinesSpanExporter(file, Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+    
+    @Override
+    public void export(SpanData span) {
+        try {
+            String line = mapper.writeValueAsString(span);
+            synchronized (writer) {
+                writer.write(line);
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize span {}: {}", span.name(), e.getMessage());
+        } catch (IOException e) {
+            logger.warn("Failed to write span {} to {}: {}", span.name(), file, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+}
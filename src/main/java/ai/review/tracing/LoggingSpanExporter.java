@@ -0,0 +1,28 @@
+package ai.review.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs every span as a JSON line under the {@code ai.review.tracing.spans} logger, so a log
+ * shipper can forward spans to a collector
+ */
+public class LoggingSpanExporter implements SpanExporter {
+    private static final Logger spans = LoggerFactory.getLogger("ai.review.tracing.spans");
+    
+    private final ObjectMapper mapper = new ObjectMapper();
+    
+    @Override
+    public void export(SpanData span) {
+        if (!spans.isInfoEnabled()) {
+            return;
+        }
+        try {
+            spans.info(mapper.writeValueAsString(span));
+        } catch (JsonProcessingException e) {
+            spans.warn("Failed to serialize span {}: {}", span.name(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ai.review.tracing;
+
+/**
+ * Restores the previously current span when closed
+ */
+@FunctionalInterface
+public interface Scope extends AutoCloseable {
+    
+    @Override
+    void close();
+}
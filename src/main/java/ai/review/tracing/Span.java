@@ -0,0 +1,129 @@
+package ai.review.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One timed operation of a trace. A span is current on the thread between
+ * {@link #makeCurrent()} and closing the returned scope; spans started meanwhile become its
+ * children. Work handed to another thread keeps its parent through {@link #wrap(Supplier)}.
+ * Ending a span more than once has no effect.
+ */
+public final class Span {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final String name;
+    private final SpanKind kind;
+    private final SpanExporter exporter;
+    private final long startTimeUnixNano;
+    private final long startNanoTime;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private SpanData.Status status = SpanData.Status.OK;
+    private String statusMessage;
+    private boolean ended;
+    
+    Span(TraceContext context, String parentSpanId, String name, SpanKind kind, SpanExporter exporter,
+         long startTimeUnixNano) {
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.exporter = exporter;
+        this.startTimeUnixNano = startTimeUnixNano;
+        this.startNanoTime = System.nanoTime();
+    }
+    
+    /**
+     * The span current on this thread, or {@code null} outside of any
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * {@code call} run with the span that is current now, on whichever thread runs it
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> call) {
+        Span parent = current();
+        return () -> {
+            try (Scope scope = makeCurrent(parent)) {
+                return call.get();
+            }
+        };
+    }
+    
+    public static Runnable wrap(Runnable task) {
+        Span parent = current();
+        return () -> {
+            try (Scope scope = makeCurrent(parent)) {
+                task.run();
+            }
+        };
+    }
+    
+    public Scope makeCurrent() {
+        return makeCurrent(this);
+    }
+    
+    private static Scope makeCurrent(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return previous != null ? () -> CURRENT.set(previous) : CURRENT::remove;
+    }
+    
+    public TraceContext context() {
+        return context;
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    /**
+     * Whether the span will be exported; unsampled spans still propagate their context
+     */
+    public boolean isRecording() {
+        return context.sampled();
+    }
+    
+    public synchronized Span setAttribute(String key, Object value) {
+        if (isRecording() && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+    
+    /**
+     * Marks the span failed with the exception type and message
+     */
+    public synchronized void recordException(Throwable e) {
+        status = SpanData.Status.ERROR;
+        statusMessage = e.getMessage();
+        setAttribute("exception.type", e.getClass().getName());
+    }
+    
+    public synchronized void setError(String message) {
+        status = SpanData.Status.ERROR;
+        statusMessage = message;
+    }
+    
+    public void end() {
+        SpanData data;
+        synchronized (this) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            if (!isRecording()) {
+                return;
+            }
+            long endTimeUnixNano = startTimeUnixNano + (System.nanoTime() - startNanoTime);
+            data = new SpanData(context.traceId(), context.spanId(), parentSpanId, name, kind,
+                    startTimeUnixNano, endTimeUnixNano, attributes, status, statusMessage);
+        }
+        exporter.export(data);
+    }
+}
@@ -0,0 +1,28 @@
+package ai.review.tracing;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * A finished span as handed to the {@link SpanExporter}. Times are nanoseconds since the
+ * epoch, and {@code parentSpanId} is {@code null} for the root of a trace.
+ */
+public record SpanData(String traceId, String spanId, String parentSpanId, String name, SpanKind kind,
+                       long startTimeUnixNano, long endTimeUnixNano, Map<String, Object> attributes,
+                       Status status, String statusMessage) {
+    
+    public enum Status {
+        OK,
+        ERROR
+    }
+    
+    public SpanData {
+        attributes = Map.copyOf(attributes);
+    }
+    
+    @JsonProperty("durationNanos")
+    public long durationNanos() {
+        return endTimeUnixNano - startTimeUnixNano;
+    }
+}
@@ -0,0 +1,13 @@
+package ai.review.tracing;
+
+/**
+ * Receives every sampled span once it has ended. Called on the thread that ended the span,
+ * so implementations must be thread-safe and should not block for long.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+    
+    SpanExporter NONE = span -> { };
+    
+    void export(SpanData span);
+}
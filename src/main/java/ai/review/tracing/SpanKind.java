@@ -0,0 +1,19 @@
+package ai.review.tracing;
+
+/**
+ * Role of a span in the trace, as in OpenTelemetry
+ */
+public enum SpanKind {
+    /**
+     * Handling of an incoming request
+     */
+    SERVER,
+    /**
+     * An outgoing call to another service
+     */
+    CLIENT,
+    /**
+     * Work inside this service
+     */
+    INTERNAL
+}
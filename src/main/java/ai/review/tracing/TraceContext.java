@@ -0,0 +1,62 @@
+package ai.review.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Identity of a span as carried in a W3C {@code traceparent} header:
+ * {@code 00-<32 hex trace id>-<16 hex span id>-<2 hex flags>}. Only the sampled flag is
+ * interpreted.
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+    public static final String TRACEPARENT = "traceparent";
+    
+    private static final Pattern TRACEPARENT_PATTERN =
+            Pattern.compile("^[0-9a-f]{2}-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}$");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+    
+    /**
+     * The context of a {@code traceparent} header value, or {@code null} when it is missing,
+     * malformed, of the reserved version ff, or carries the all-zero ids, in which case a new
+     * trace is started
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        String value = traceparent.trim();
+        if (value.length() > 55 && !value.startsWith("00") && value.charAt(55) == '-') {
+            // Later versions may append fields; the first four keep their meaning
+            value = value.substring(0, 55);
+        }
+        if (!TRACEPARENT_PATTERN.matcher(value).matches() || value.startsWith("ff")) {
+            return null;
+        }
+        String traceId = value.substring(3, 35);
+        String spanId = value.substring(36, 52);
+        if (traceId.equals(INVALID_TRACE_ID) || spanId.equals(INVALID_SPAN_ID)) {
+            return null;
+        }
+        boolean sampled = (Integer.parseInt(value.substring(53, 55), 16) & 1) == 1;
+        return new TraceContext(traceId, spanId, sampled);
+    }
+    
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+    
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex(random.nextLong(), 16) + hex(random.nextLong() | 1, 16);
+    }
+    
+    static String newSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong() | 1, 16);
+    }
+    
+    private static String hex(long value, int digits) {
+        String hex = Long.toHexString(value);
+        return "0".repeat(digits - hex.length()) + hex;
+    }
+}
@@ -0,0 +1,101 @@
+package ai.review.tracing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Starts spans in the style of OpenTelemetry: a span started while another is current on
+ * the thread joins its trace as a child, otherwise it starts a new trace, or continues the
+ * remote one an incoming {@code traceparent} names. Whether a new trace is recorded is
+ * decided once, at its root, by the sample ratio; continued traces keep the caller's
+ * decision.
+ */
+public class Tracer implements Closeable {
+    
+    private final SpanExporter exporter;
+    private final double sampleRatio;
+    private final Clock clock;
+    
+    public Tracer(SpanExporter exporter, double sampleRatio) {
+        this(exporter, sampleRatio, Clock.systemUTC());
+    }
+    
+    Tracer(SpanExporter exporter, double sampleRatio, Clock clock) {
+        this.exporter = exporter;
+        this.sampleRatio = sampleRatio;
+        this.clock = clock;
+    }
+    
+    /**
+     * A tracer that records nothing but still passes on the context of traces it is handed
+     */
+    public static Tracer noop() {
+        return new Tracer(SpanExporter.NONE, 0.0);
+    }
+    
+    /**
+     * Start a span under the span current on this thread
+     */
+    public Span startSpan(String name, SpanKind kind) {
+        Span parent = Span.current();
+        return startSpan(name, kind, parent != null ? parent.context() : null);
+    }
+    
+    /**
+     * Start a span under {@code parent}, typically a remote one taken from a
+     * {@code traceparent} header; {@code null} starts a new trace
+     */
+    public Span startSpan(String name, SpanKind kind, TraceContext parent) {
+        TraceContext context;
+        if (parent != null) {
+            context = new TraceContext(parent.traceId(), TraceContext.newSpanId(), parent.sampled());
+        } else {
+            boolean sampled = sampleRatio >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRatio;
+            context = new TraceContext(TraceContext.newTraceId(), TraceContext.newSpanId(), sampled);
+        }
+        return new Span(context, parent != null ? parent.spanId() : null, name, kind, exporter, epochNanos());
+    }
+    
+    /**
+     * Runs {@code call} in a new span that is current meanwhile, ended when the call returns
+     * and marked failed when it throws
+     */
+    public <T> T inSpan(String name, SpanKind kind, Supplier<T> call) {
+        Span span = startSpan(name, kind);
+        try (Scope scope = span.makeCurrent()) {
+            return call.get();
+        } catch (RuntimeException | Error e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+    
+    public void inSpan(String name, SpanKind kind, Runnable call) {
+        inSpan(name, kind, () -> {
+            call.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Closes the exporter where it holds a resource, such as the file of
+     * {@link JsonLinesSpanExporter}; Spring calls this when the context shuts down
+     */
+    @Override
+    public void close() throws IOException {
+        if (exporter instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+    
+    private long epochNanos() {
+        Instant now = clock.instant();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
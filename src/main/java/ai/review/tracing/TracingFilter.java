@@ -0,0 +1,93 @@
+package ai.review.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens the server span of every API request, continuing the caller's trace when it sends
+ * a {@code traceparent} header. The span is current while the request is handled, so the
+ * spans of the review stages and of the GitHub and Ollama calls become its children. The
+ * trace id is returned in {@value #TRACE_ID_HEADER} to find the request in the exported
+ * spans. A streamed response ends the span when the stream completes rather than when the
+ * request thread returns.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    
+    private final Tracer tracer;
+    
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TraceContext remoteParent = TraceContext.parse(request.getHeader(TraceContext.TRACEPARENT));
+        Span span = tracer.startSpan(request.getMethod() + " " + request.getRequestURI(), SpanKind.SERVER, remoteParent);
+        span.setAttribute("http.method", request.getMethod());
+        span.setAttribute("http.target", request.getRequestURI());
+        response.setHeader(TRACE_ID_HEADER, span.context().traceId());
+        
+        boolean async = false;
+        try (Scope scope = span.makeCurrent()) {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new EndSpanListener(span, response));
+            } else {
+                end(span, response.getStatus());
+            }
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+    
+    private static void end(Span span, int status) {
+        span.setAttribute("http.status_code", status);
+        if (status >= 500) {
+            span.setError("HTTP " + status);
+        }
+        span.end();
+    }
+    
+    private record EndSpanListener(Span span, HttpServletResponse response) implements AsyncListener {
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            end(span, response.getStatus());
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            span.setError("Async request timed out");
+            end(span, response.getStatus());
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            if (event.getThrowable() != null) {
+                span.recordException(event.getThrowable());
+            }
+            end(span, response.getStatus());
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package ai.review.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentReviewStoreTest {
+    
+    private static final long MAX_BYTES = 64 * 1024 * 1024;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void put_ShouldSurviveReopen() throws IOException {
+        // Given
+        Instant writtenAt = Instant.parse("2024-01-15T10:30:00Z");
+        try (PersistentReviewStore store = PersistentReviewStore.open(directory, MAX_BYTES)) {
+            store.put("key-1", "Первое ревью", writtenAt);
+            store.put("key-2", "second review", writtenAt);
+        }
+        
+        // When
+        try (PersistentReviewStore reopened = PersistentReviewStore.open(directory, MAX_BYTES)) {
+            Optional<StoredReview> first = reopened.get("key-1");
+            
+            // Then
+            assertEquals(2, reopened.size());
+            assertEquals("Первое ревью", first.orElseThrow().review());
+            assertEquals(writtenAt, first.orElseThrow().writtenAt());
+            assertEquals("second review", reopened.get("key-2").orElseThrow().review());
+        }
+    }
+    
+    @Test
+    void put_WithSameKey_ShouldKeepLatestValue() throws IOException {
+        try (PersistentReviewStore store = PersistentReviewStore.open(directory, MAX_BYTES)) {
+            store.put("key", "old review", Instant.now());
+            store.put("key", "new review", Instant.now());
+        }
+        
+        try (PersistentReviewStore reopened = PersistentReviewStore.open(directory, MAX_BYTES)) {
+            assertEquals(1, reopened.size());
+            assertEquals("new review", reopened.get("key").orElseThrow().review());
+        }
+    }
+    
+    @Test
+    void open_WithTornTail_ShouldKeepCompleteRecordsAndTruncate() throws IOException {
+        // Given
+        try (PersistentReviewStore store = PersistentReviewStore.open(directory, MAX_BYTES)) {
+            store.put("key", "review", Instant.now());
+        }
+        Path log = directory.resolve(PersistentReviewStore.FILE_NAME);
+        long intactSize = Files.size(log);
+        Files.write(log, new byte[] {0, 0, 0, 3, 0, 0}, StandardOpenOption.APPEND);
+        
+        // When
+        try (PersistentReviewStore reopened = PersistentReviewStore.open(directory, MAX_BYTES)) {
+            
+            // Then
+            assertEquals("review", reopened.get("key").orElseThrow().review());
+            assertEquals(intactSize, Files.size(log));
+        }
+    }
+    
+    @Test
+    void put_AfterFailedAppend_ShouldSurviveReopen() throws IOException {
+        // Given
+        FailingChannel[] channel = new FailingChannel[1];
+        try (PersistentReviewStore store = PersistentReviewStore.open(directory, MAX_BYTES,
+                opened -> channel[0] = new FailingChannel(opened))) {
+            store.put("first", "review 1", Instant.now());
+            channel[0].failNextWrite = true;
+            store.put("torn", "review 2", Instant.now());
+            
+            // When
+            store.put("last", "review 3", Instant.now());
+        }
+        
+        // Then
+        try (PersistentReviewStore reopened = PersistentReviewStore.open(directory, MAX_BYTES)) {
+            assertEquals("review 1", reopened.get("first").orElseThrow().review());
+            assertEquals("review 3", reopened.get("last").orElseThrow().review());
+            assertTrue(reopened.get("torn").isEmpty());
+        }
+    }
+    
+    @Test
+    void put_BeyondSizeCap_ShouldDropOldestEntries() throws IOException {
+        // Given
+        String review = "x".repeat(1000);
+        try (PersistentReviewStore store = PersistentReviewStore.open(directory, 2500)) {
+            
+            // When
+            store.put("oldest", review, Instant.now());
+            store.put("middle", review, Instant.now());
+            store.put("newest", review, Instant.now());
+            
+            // Then
+            assertTrue(store.get("oldest").isEmpty());
+            assertTrue(store.get("middle").isPresent());
+            assertTrue(store.get("newest").isPresent());
+            assertTrue(store.liveBytes() <= 2500);
+        }
+    }
+    
+    @Test
+    void put_WithMostlyGarbage_ShouldCompactLog() throws IOException {
+        // Given
+        String review = "x".repeat(64 * 1024);
+        try (PersistentReviewStore store = PersistentReviewStore.open(directory, MAX_BYTES)) {
+            
+            // When: rewriting the same key leaves the older copies as garbage
+            for (int i = 0; i < 40; i++) {
+                store.put("key", review + i, Instant.now());
+            }
+            
+            // Then
+            assertEquals(1, store.size());
+            assertTrue(store.fileBytes() < 2 * 1024 * 1024);
+            assertEquals(review + 39, store.get("key").orElseThrow().review());
+        }
+    }
+    
+    @Test
+    void reviewCache_ShouldServePersistedReviewAfterRestart() throws IOException {
+        // Given
+        ReviewCacheKey key = ReviewCacheKey.of("diff", "model", "template");
+        try (ReviewCache cache = new ReviewCache(10, Duration.ofHours(1), PersistentReviewStore.open(directory, MAX_BYTES))) {
+            cache.put(key, "review");
+        }
+        
+        // When
+        try (ReviewCache restarted = new ReviewCache(10, Duration.ofHours(1), PersistentReviewStore.open(directory, MAX_BYTES))) {
+            Optional<String> review = restarted.get(key);
+            
+            // Then
+            assertEquals(Optional.of("review"), review);
+            assertEquals(1, restarted.stats().diskHits());
+            assertEquals(1, restarted.stats().size());
+        }
+    }
+    
+    /**
+     * Fails a write halfway when asked to, like a disk filling up in the middle of an append
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        private volatile boolean failNextWrite;
+        
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                delegate.write(half, position);
+                throw new IOException("No space left on device");
+            }
+            return delegate.write(src, position);
+        }
+        
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+        
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+        
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+        
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+        
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+        
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+        
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+        
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+        
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+        
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+        
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+        
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+        
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+        
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+        
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+        
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ai.review.cache;
+
+import ai.review.diff.UnifiedDiffParser;
+import ai.review.template.PromptTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewCacheTest {
+    
+    private final MutableClock clock = new MutableClock();
+    
+    @Test
+    void get_AfterPut_ShouldReturnReviewAndCountHit() {
+        // Given
+        ReviewCache cache = new ReviewCache(10, Duration.ofMinutes(5), clock);
+        ReviewCacheKey key = ReviewCacheKey.of("diff", "model", "template");
+        
+        // When
+        Optional<String> miss = cache.get(key);
+        cache.put(key, "review");
+        Optional<String> hit = cache.get(key);
+        
+        // Then
+        assertTrue(miss.isEmpty());
+        assertEquals(Optional.of("review"), hit);
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(0.5, cache.stats().hitRate());
+    }
+    
+    @Test
+    void key_ShouldDependOnDiffModelAndTemplate() {
+        ReviewCacheKey key = ReviewCacheKey.of("diff", "model", "template");
+        
+        assertEquals(key, ReviewCacheKey.of("diff", "model", "template"));
+        assertNotEquals(key, ReviewCacheKey.of("other diff", "model", "template"));
+        assertNotEquals(key, ReviewCacheKey.of("diff", "other model", "template"));
+        assertNotEquals(key, ReviewCacheKey.of("diff", "model", "other template"));
+    }
+    
+    @Test
+    void key_OfParsedDiff_ShouldMatchKeyOfRawDiffText() {
+        String diff = "diff --git a/A.java b/A.java\n--- a/A.java\n+++ b/A.java\n@@ -1 +1 @@\n-int a;\n+long a;\n";
+        
+        assertEquals(ReviewCacheKey.of(diff, "model", "template"),
+                ReviewCacheKey.of(UnifiedDiffParser.parse(diff), "model", PromptTemplate.parse("template.txt", "template")));
+    }
+    
+    @Test
+    void key_OfParsedCrlfDiffWithStrippedContext_ShouldMatchKeyOfRawDiffText() {
+        String diff = "diff --git a/A.java b/A.java\n--- a/A.java\n+++ b/A.java\n@@ -1,3 +1,3 @@\n"
+                + " class A {\r\n\n-int a;\r\n+long a;\r\n";
+        
+        assertEquals(ReviewCacheKey.of(diff, "model", "template"),
+                ReviewCacheKey.of(UnifiedDiffParser.parse(diff), "model", PromptTemplate.parse("template.txt", "template")));
+    }
+    
+    @Test
+    void put_BeyondMaxEntries_ShouldEvictLeastRecentlyUsed() {
+        // Given
+        ReviewCache cache = new ReviewCache(2, Duration.ofMinutes(5), clock);
+        ReviewCacheKey first = ReviewCacheKey.of("first", "model", "template");
+        ReviewCacheKey second = ReviewCacheKey.of("second", "model", "template");
+        ReviewCacheKey third = ReviewCacheKey.of("third", "model", "template");
+        
+        // When
+        cache.put(first, "first review");
+        cache.put(second, "second review");
+        cache.get(first);
+        cache.put(third, "third review");
+        
+        // Then
+        assertTrue(cache.get(second).isEmpty());
+        assertTrue(cache.get(first).isPresent());
+        assertTrue(cache.get(third).isPresent());
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+    
+    @Test
+    void get_AfterTtl_ShouldMissAndEvict() {
+        // Given
+        ReviewCache cache = new ReviewCache(10, Duration.ofMinutes(5), clock);
+        ReviewCacheKey key = ReviewCacheKey.of("diff", "model", "template");
+        cache.put(key, "review");
+        
+        // When
+        clock.advance(Duration.ofMinutes(5));
+        
+        // Then
+        assertTrue(cache.get(key).isEmpty());
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(0, cache.stats().size());
+    }
+    
+    @Test
+    void put_EveryMaxEntriesPuts_ShouldSweepExpiredEntries() {
+        // Given
+        ReviewCache cache = new ReviewCache(3, Duration.ofMinutes(5), clock);
+        cache.put(ReviewCacheKey.of("first", "model", "template"), "first review");
+        cache.put(ReviewCacheKey.of("second", "model", "template"), "second review");
+        clock.advance(Duration.ofMinutes(5));
+        
+        // When
+        cache.put(ReviewCacheKey.of("third", "model", "template"), "third review");
+        
+        // Then
+        assertEquals(2, cache.stats().evictions());
+        assertEquals(1, cache.stats().size());
+    }
+    
+    @Test
+    void disabledCache_ShouldNeverStore() {
+        ReviewCache cache = ReviewCache.disabled();
+        ReviewCacheKey key = ReviewCacheKey.of("diff", "model", "template");
+        
+        cache.put(key, "review");
+        
+        assertFalse(cache.isEnabled());
+        assertTrue(cache.get(key).isEmpty());
+    }
+    
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
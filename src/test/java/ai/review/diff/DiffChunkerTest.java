@@ -0,0 +1,100 @@
+package ai.review.diff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiffChunkerTest {
+    
+    private static String fileDiff(String path, int hunks, int linesPerHunk) {
+        StringBuilder diff = new StringBuilder()
+                .append("diff --git a/").append(path).append(" b/").append(path).append('\n')
+                .append("--- a/").append(path).append('\n')
+                .append("+++ b/").append(path).append('\n');
+        for (int h = 0; h < hunks; h++) {
+            diff.append("@@ -").append(h * 100 + 1).append(",0 +").append(h * 100 + 1).append(",").append(linesPerHunk).append(" @@\n");
+            for (int l = 0; l < linesPerHunk; l++) {
+                diff.append("+        int value").append(l).append(" = compute(").append(l).append(");\n");
+            }
+        }
+        return diff.toString();
+    }
+    
+    @Test
+    void split_SmallFiles_ShouldPackThemIntoOneChunk() {
+        // Given
+        String diff = fileDiff("src/A.java", 1, 3) + fileDiff("src/B.java", 1, 3);
+        DiffChunker chunker = new DiffChunker(1000);
+        
+        // When
+        List<DiffChunk> chunks = chunker.split(UnifiedDiffParser.parse(diff));
+        
+        // Then
+        assertTrue(chunker.fits(UnifiedDiffParser.parse(diff)));
+        assertEquals(1, chunks.size());
+        assertEquals(diff, chunks.get(0).diff().render());
+        assertEquals(List.of("src/A.java", "src/B.java"), chunks.get(0).files());
+    }
+    
+    @Test
+    void split_FilesOverBudgetTogether_ShouldKeepEachFileWhole() {
+        // Given
+        String a = fileDiff("src/A.java", 2, 10);
+        String b = fileDiff("src/B.java", 2, 10);
+        DiffChunker chunker = new DiffChunker(DiffChunker.estimateTokens(a.length()) + 10);
+        
+        // When
+        List<DiffChunk> chunks = chunker.split(UnifiedDiffParser.parse(a + b));
+        
+        // Then
+        assertEquals(2, chunks.size());
+        assertEquals(a, chunks.get(0).diff().render());
+        assertEquals(b, chunks.get(1).diff().render());
+    }
+    
+    @Test
+    void split_FileOverBudget_ShouldSplitBetweenHunksAndRepeatFileHeader() {
+        // Given
+        String diff = fileDiff("src/Big.java", 6, 10);
+        DiffChunker chunker = new DiffChunker(200);
+        
+        // When
+        List<DiffChunk> chunks = chunker.split(UnifiedDiffParser.parse(diff));
+        
+        // Then
+        assertTrue(chunks.size() > 1);
+        for (DiffChunk chunk : chunks) {
+            assertTrue(chunk.diff().render().startsWith("diff --git a/src/Big.java b/src/Big.java\n"));
+            assertTrue(chunk.estimatedTokens() <= 200, "chunk over budget: " + chunk.estimatedTokens());
+            assertEquals(List.of("src/Big.java"), chunk.files());
+        }
+        long hunkHeaders = chunks.stream().mapToLong(c -> c.diff().render().lines().filter(l -> l.startsWith("@@")).count()).sum();
+        assertEquals(6, hunkHeaders);
+    }
+    
+    @Test
+    void split_HunkOverBudget_ShouldSplitBetweenLinesWithoutLosingAny() {
+        // Given
+        String diff = fileDiff("src/Huge.java", 1, 200);
+        DiffChunker chunker = new DiffChunker(300);
+        
+        // When
+        List<DiffChunk> chunks = chunker.split(UnifiedDiffParser.parse(diff));
+        
+        // Then
+        assertTrue(chunks.size() > 1);
+        long addedLines = chunks.stream().mapToLong(c -> c.diff().render().lines().filter(l -> l.startsWith("+ ")).count()).sum();
+        assertEquals(200, addedLines);
+        for (DiffChunk chunk : chunks) {
+            assertTrue(chunk.estimatedTokens() <= 300, "chunk over budget: " + chunk.estimatedTokens());
+            assertTrue(chunk.diff().render().contains("\n@@ -1,0 +1,200 @@\n"));
+        }
+    }
+    
+    @Test
+    void constructor_NonPositiveBudget_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new DiffChunker(0));
+    }
+}
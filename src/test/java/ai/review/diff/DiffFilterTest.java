@@ -0,0 +1,92 @@
+package ai.review.diff;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiffFilterTest {
+    
+    private static final String SOURCE = """
+        diff --git a/src/main/java/App.java b/src/main/java/App.java
+        --- a/src/main/java/App.java
+        +++ b/src/main/java/App.java
+        @@ -1 +1 @@
+        -class App {}
+        +final class App {}
+        """;
+    
+    private static final String LOCKFILE = """
+        diff --git a/yarn.lock b/yarn.lock
+        --- a/yarn.lock
+        +++ b/yarn.lock
+        @@ -1 +1 @@
+        -лок: 1
+        +лок: 2
+        """;
+    
+    private static final String GENERATED = """
+        diff --git a/web/src/generated/api.ts b/web/src/generated/api.ts
+        --- a/web/src/generated/api.ts
+        +++ b/web/src/generated/api.ts
+        @@ -1 +1 @@
+        -export const a = 1;
+        +export const a = 2;
+        """;
+    
+    private static final String BINARY = """
+        diff --git a/docs/logo.png b/docs/logo.png
+        index 1b2c3d4..5e6f7a8 100644
+        Binary files a/docs/logo.png and b/docs/logo.png differ
+        """;
+    
+    private static final UnifiedDiff DIFF = UnifiedDiffParser.parse(SOURCE + LOCKFILE + GENERATED + BINARY);
+    
+    @Test
+    void apply_ExcludeGlobs_ShouldDropMatchingAndBinaryFilesAndReportSize() {
+        // Given
+        DiffFilter filter = new DiffFilter(List.of(), List.of("**/*.lock", "**/generated/**"));
+        
+        // When
+        DiffFilter.Result result = filter.apply(DIFF);
+        
+        // Then
+        assertEquals(SOURCE, result.diff().render());
+        assertEquals(List.of("yarn.lock", "web/src/generated/api.ts", "docs/logo.png"), result.droppedFiles());
+        long expectedBytes = (LOCKFILE + GENERATED + BINARY).getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(expectedBytes, result.droppedBytes());
+        assertEquals(DiffChunker.estimateTokens((LOCKFILE + GENERATED + BINARY).length()), result.droppedTokens());
+    }
+    
+    @Test
+    void apply_IncludeGlobs_ShouldKeepOnlyMatchingFiles() {
+        // Given
+        DiffFilter filter = new DiffFilter(List.of("src/**"), List.of());
+        
+        // When
+        DiffFilter.Result result = filter.apply(DIFF);
+        
+        // Then
+        assertEquals(List.of("src/main/java/App.java"), result.diff().files().stream().map(FileDiff::path).toList());
+    }
+    
+    @Test
+    void apply_NothingDropped_ShouldReturnSameDiff() {
+        // Given
+        UnifiedDiff source = UnifiedDiffParser.parse(SOURCE);
+        
+        // When
+        DiffFilter.Result result = new DiffFilter(List.of(), List.of("**/*.lock")).apply(source);
+        
+        // Then
+        assertSame(source, result.diff());
+        assertEquals(0, result.droppedBytes());
+    }
+    
+    @Test
+    void constructor_MalformedGlob_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new DiffFilter(List.of("src/[a"), List.of()));
+    }
+}
@@ -0,0 +1,221 @@
+package ai.review.diff;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnifiedDiffParserTest {
+    
+    private static final String DIFF = """
+        diff --git a/src/main/java/ai/review/Example.java b/src/main/java/ai/review/Example.java
+        index 3b18e51..a9c3f2d 100644
+        --- a/src/main/java/ai/review/Example.java
+        +++ b/src/main/java/ai/review/Example.java
+        @@ -1,3 +1,4 @@ package ai.review;
+         public class Example {
+        -    private String name;
+        +    private final String name;
+        +    // Комментарий
+         }
+        @@ -10 +11 @@ public class Example {
+        --- removed line that looks like a file header
+        +++ added line that looks like a file header
+        diff --git a/docs/new.md b/docs/new.md
+        new file mode 100644
+        index 0000000..e69de29
+        --- /dev/null
+        +++ b/docs/new.md
+        @@ -0,0 +1 @@
+        +# New
+        \\ No newline at end of file
+        diff --git a/docs/old.md b/docs/old.md
+        deleted file mode 100644
+        index e69de29..0000000
+        --- a/docs/old.md
+        +++ /dev/null
+        @@ -1 +0,0 @@
+        -# Old
+        """;
+    
+    @Test
+    void parse_GitDiff_ShouldBuildFilesHunksAndLines() {
+        // When
+        UnifiedDiff diff = UnifiedDiffParser.parse(DIFF);
+        
+        // Then
+        assertEquals(3, diff.files().size());
+        
+        FileDiff modified = diff.files().get(0);
+        assertEquals("src/main/java/ai/review/Example.java", modified.oldPath());
+        assertEquals("src/main/java/ai/review/Example.java", modified.path());
+        assertEquals(4, modified.header().size());
+        assertEquals(2, modified.hunks().size());
+        
+        Hunk first = modified.hunks().get(0);
+        assertEquals(1, first.oldStart());
+        assertEquals(3, first.oldLines());
+        assertEquals(1, first.newStart());
+        assertEquals(4, first.newLines());
+        assertEquals(List.of(DiffLine.Type.CONTEXT, DiffLine.Type.REMOVED, DiffLine.Type.ADDED, DiffLine.Type.ADDED, DiffLine.Type.CONTEXT),
+                first.lines().stream().map(DiffLine::type).toList());
+        assertEquals("    private final String name;", first.lines().get(2).content());
+        
+        Hunk second = modified.hunks().get(1);
+        assertEquals(1, second.oldLines());
+        assertEquals(DiffLine.Type.REMOVED, second.lines().get(0).type());
+        assertEquals(DiffLine.Type.ADDED, second.lines().get(1).type());
+        
+        FileDiff added = diff.files().get(1);
+        assertNull(added.oldPath());
+        assertEquals("docs/new.md", added.path());
+        assertEquals(DiffLine.Type.NO_NEWLINE, added.hunks().get(0).lines().get(1).type());
+        
+        FileDiff deleted = diff.files().get(2);
+        assertNull(deleted.newPath());
+        assertEquals("docs/old.md", deleted.path());
+    }
+    
+    @Test
+    void render_ParsedDiff_ShouldReproduceInputExactly() {
+        // When
+        UnifiedDiff diff = UnifiedDiffParser.parse(DIFF);
+        
+        // Then
+        assertEquals(DIFF, diff.render());
+        assertEquals(DIFF.length(), diff.length());
+    }
+    
+    @Test
+    void parse_Utf8Stream_ShouldMatchParsedString() throws IOException {
+        // When
+        UnifiedDiff fromStream = UnifiedDiffParser.parse(new ByteArrayInputStream(DIFF.getBytes(StandardCharsets.UTF_8)));
+        
+        // Then
+        assertEquals(UnifiedDiffParser.parse(DIFF), fromStream);
+    }
+    
+    @Test
+    void parse_WithFileConsumer_ShouldEmitFilesInOrder() throws IOException {
+        // Given
+        List<String> paths = new ArrayList<>();
+        
+        // When
+        UnifiedDiffParser.parse(new StringReader(DIFF), file -> paths.add(file.path()));
+        
+        // Then
+        assertEquals(List.of("src/main/java/ai/review/Example.java", "docs/new.md", "docs/old.md"), paths);
+    }
+    
+    @Test
+    void parse_PlainUnifiedDiffWithoutGitHeaders_ShouldSplitFilesOnHeaders() {
+        // Given
+        String plain = """
+            --- a/A.txt
+            +++ b/A.txt
+            @@ -1 +1 @@
+            -a
+            +b
+            --- a/B.txt
+            +++ b/B.txt
+            @@ -1 +1 @@
+            -c
+            +d
+            """;
+        
+        // When
+        UnifiedDiff diff = UnifiedDiffParser.parse(plain);
+        
+        // Then
+        assertEquals(List.of("A.txt", "B.txt"), diff.files().stream().map(FileDiff::path).toList());
+        assertEquals(plain, diff.render());
+    }
+    
+    @Test
+    void parse_CrlfFile_ShouldKeepCarriageReturnsInLines() {
+        // Given
+        String crlf = "diff --git a/win.txt b/win.txt\n"
+                + "--- a/win.txt\n"
+                + "+++ b/win.txt\n"
+                + "@@ -1,2 +1,2 @@\n"
+                + " first\r\n"
+                + "-old\r\n"
+                + "+new\r\n";
+        
+        // When
+        UnifiedDiff diff = UnifiedDiffParser.parse(crlf);
+        
+        // Then
+        List<DiffLine> lines = diff.files().get(0).hunks().get(0).lines();
+        assertEquals("new\r", lines.get(2).content());
+        assertEquals(crlf, diff.render());
+        assertEquals(crlf.length(), diff.length());
+    }
+    
+    @Test
+    void parse_BareCarriageReturnInLine_ShouldNotEndLineOrHunk() {
+        // Given
+        String diffText = "diff --git a/a.txt b/a.txt\n"
+                + "--- a/a.txt\n"
+                + "+++ b/a.txt\n"
+                + "@@ -1,2 +1,2 @@\n"
+                + " progress 10%\rprogress 20%\n"
+                + "-+old\n"
+                + "+--- new\n"
+                + "diff --git a/b.txt b/b.txt\n"
+                + "--- a/b.txt\n"
+                + "+++ b/b.txt\n"
+                + "@@ -1 +1 @@\n"
+                + "-x\n"
+                + "+y\n";
+        
+        // When
+        UnifiedDiff diff = UnifiedDiffParser.parse(diffText);
+        
+        // Then
+        assertEquals(List.of("a.txt", "b.txt"), diff.files().stream().map(FileDiff::path).toList());
+        List<DiffLine> lines = diff.files().get(0).hunks().get(0).lines();
+        assertEquals(List.of(DiffLine.Type.CONTEXT, DiffLine.Type.REMOVED, DiffLine.Type.ADDED),
+                lines.stream().map(DiffLine::type).toList());
+        assertEquals("progress 10%\rprogress 20%", lines.get(0).content());
+        assertEquals(diffText, diff.render());
+    }
+    
+    @Test
+    void render_ContextLinesWithoutMarker_ShouldReproduceInputExactly() {
+        // Given
+        String stripped = """
+            diff --git a/A.java b/A.java
+            --- a/A.java
+            +++ b/A.java
+            @@ -1,4 +1,4 @@
+             class A {
+            
+            -    int a;
+            +    int b;
+            }
+            """;
+        
+        // When
+        UnifiedDiff diff = UnifiedDiffParser.parse(stripped);
+        
+        // Then
+        List<DiffLine> lines = diff.files().get(0).hunks().get(0).lines();
+        assertFalse(lines.get(1).marked());
+        assertFalse(lines.get(4).marked());
+        assertEquals("}", lines.get(4).content());
+        assertEquals(stripped, diff.render());
+        assertEquals(stripped.length(), diff.length());
+    }
+    
+    @Test
+    void parse_EmptyInput_ShouldReturnEmptyDiff() {
+        assertTrue(UnifiedDiffParser.parse("").isEmpty());
+    }
+}
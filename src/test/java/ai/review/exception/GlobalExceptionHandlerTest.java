@@ -103,6 +103,96 @@ class GlobalExceptionHandlerTest {
         assertEquals("/api/review", response.getBody().getPath());
     }
     
+    @Test
+    void handleReviewJobRejectedException_ShouldReturnServiceUnavailable() {
+        // Given
+        ReviewJobRejectedException exception = new ReviewJobRejectedException(
+            "Review job queue is full, try again later", 
+            50
+        );
+        
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleReviewJobRejectedException(exception, request);
+        
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("Service Unavailable", response.getBody().getError());
+        assertTrue(response.getBody().getMessage().contains("Queue capacity: 50"));
+        assertEquals("/api/review", response.getBody().getPath());
+    }
+    
+    @Test
+    void handleConcurrencyLimitExceededException_ShouldReturnServiceUnavailableWithRetryAfter() {
+        // Given
+        ConcurrencyLimitExceededException exception = new ConcurrencyLimitExceededException(
+            "Too many concurrent requests to ollama, wait queue is full", 
+            4
+        );
+        
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleConcurrencyLimitExceededException(exception, request);
+        
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Service Unavailable", response.getBody().getError());
+        assertTrue(response.getBody().getMessage().contains("Concurrency limit: 4"));
+        assertEquals("/api/review", response.getBody().getPath());
+    }
+    
+    @Test
+    void handleCircuitBreakerOpenException_ShouldReturnServiceUnavailableWithRetryAfter() {
+        // Given
+        CircuitBreakerOpenException exception = new CircuitBreakerOpenException(
+            "Circuit breaker for ollama is open after repeated failures, not calling it", 
+            "ollama", 
+            27
+        );
+        
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleCircuitBreakerOpenException(exception, request);
+        
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("27", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Service Unavailable", response.getBody().getError());
+        assertTrue(response.getBody().getMessage().contains("ollama is open"));
+        assertEquals("/api/review", response.getBody().getPath());
+    }
+    
+    @Test
+    void handleDeadlineExceededException_ShouldReturnGatewayTimeout() {
+        // Given
+        DeadlineExceededException exception = new DeadlineExceededException(
+            "Request deadline of 30000 ms exceeded before calling Ollama could complete", 
+            30000
+        );
+        
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleDeadlineExceededException(exception, request);
+        
+        // Then
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertEquals("Gateway Timeout", response.getBody().getError());
+        assertEquals(504, response.getBody().getStatus());
+        assertTrue(response.getBody().getMessage().contains("30000 ms exceeded"));
+    }
+    
+    @Test
+    void handleReviewJobNotFoundException_ShouldReturnNotFound() {
+        // Given
+        ReviewJobNotFoundException exception = new ReviewJobNotFoundException("missing-job");
+        
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleReviewJobNotFoundException(exception, request);
+        
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Not Found", response.getBody().getError());
+        assertTrue(response.getBody().getMessage().contains("missing-job"));
+        assertEquals("/api/review", response.getBody().getPath());
+    }
+    
     @Test
     void handleIllegalArgumentException_ShouldReturnBadRequest() {
         // Given
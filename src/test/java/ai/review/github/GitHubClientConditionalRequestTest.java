@@ -0,0 +1,177 @@
+package ai.review.github;
+
+import ai.review.config.GitHubProperties;
+import ai.review.diff.UnifiedDiff;
+import ai.review.http.StubHttpServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubClientConditionalRequestTest {
+    
+    private static final String PR_JSON = "{\"number\":1,\"head\":{\"sha\":\"abc123\"}}";
+    private static final String PR_DIFF = """
+        diff --git a/src/A.java b/src/A.java
+        index 3b18e51..a9c3f2d 100644
+        --- a/src/A.java
+        +++ b/src/A.java
+        @@ -1,2 +1,2 @@
+         class A {
+        -    int x;
+        +    final int x = 1;
+        """;
+    
+    private final List<String> receivedIfNoneMatch = new CopyOnWriteArrayList<>();
+    private final List<String> receivedAcceptEncoding = new CopyOnWriteArrayList<>();
+    private volatile boolean gzipResponses;
+    
+    private StubHttpServer server;
+    private GitHubProperties properties;
+    
+    @BeforeEach
+    void startStubGitHub() throws IOException {
+        server = StubHttpServer.start("/repos/owner/repo/pulls/1", exchange -> {
+            boolean diff = exchange.getRequestHeaders().getFirst("Accept").contains("diff");
+            String etag = diff ? "\"diff-v1\"" : "\"json-v1\"";
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            receivedIfNoneMatch.add(String.valueOf(ifNoneMatch));
+            
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            receivedAcceptEncoding.add(String.valueOf(acceptEncoding));
+            boolean gzip = gzipResponses && acceptEncoding != null && acceptEncoding.contains("gzip");
+            
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (gzip) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = (diff ? PR_DIFF : PR_JSON).getBytes(StandardCharsets.UTF_8);
+                if (gzip) {
+                    body = gzip(body);
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        
+        properties = new GitHubProperties();
+        properties.setBaseUrl(server.baseUrl());
+    }
+    
+    @AfterEach
+    void stopStubGitHub() {
+        server.close();
+    }
+    
+    @Test
+    void getPullRequest_RepeatedFetch_ShouldRevalidateAndServeCachedBodyOn304() {
+        // Given
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        JsonNode first = client.getPullRequest("owner/repo", 1);
+        JsonNode second = client.getPullRequest("owner/repo", 1);
+        
+        // Then
+        assertEquals("abc123", first.path("head").path("sha").asText());
+        assertEquals(first, second);
+        assertEquals(List.of("null", "\"json-v1\""), receivedIfNoneMatch);
+        
+        ResponseCacheStats stats = client.getResponseCacheStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.entries());
+        assertEquals(0.5, stats.hitRate());
+    }
+    
+    @Test
+    void getPullRequestDiff_SameUrlAsJson_ShouldBeCachedSeparatelyByAcceptHeader() {
+        // Given
+        GitHubClient client = new GitHubClient(properties);
+        client.getPullRequest("owner/repo", 1);
+        
+        // When
+        UnifiedDiff diff = client.getPullRequestDiff("owner/repo", 1);
+        UnifiedDiff cachedDiff = client.getPullRequestDiff("owner/repo", 1);
+        
+        // Then
+        assertEquals("src/A.java", diff.files().get(0).path());
+        assertEquals(PR_DIFF, diff.render());
+        assertSame(diff, cachedDiff);
+        assertEquals(List.of("null", "null", "\"diff-v1\""), receivedIfNoneMatch);
+        assertEquals(2, client.getResponseCacheStats().entries());
+    }
+    
+    @Test
+    void getPullRequestDiff_GzipResponse_ShouldInflateAndStillRevalidate() {
+        // Given
+        gzipResponses = true;
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        UnifiedDiff diff = client.getPullRequestDiff("owner/repo", 1);
+        UnifiedDiff cachedDiff = client.getPullRequestDiff("owner/repo", 1);
+        JsonNode pullRequest = client.getPullRequest("owner/repo", 1);
+        
+        // Then
+        assertEquals(PR_DIFF, diff.render());
+        assertSame(diff, cachedDiff);
+        assertEquals("abc123", pullRequest.path("head").path("sha").asText());
+        assertEquals(List.of("gzip, deflate", "gzip, deflate", "gzip, deflate"), receivedAcceptEncoding);
+    }
+    
+    @Test
+    void getPullRequest_CacheDisabled_ShouldNotSendConditionalHeaders() {
+        // Given
+        properties.setResponseCacheMaxMegabytes(0);
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        client.getPullRequest("owner/repo", 1);
+        client.getPullRequest("owner/repo", 1);
+        
+        // Then
+        assertEquals(List.of("null", "null"), receivedIfNoneMatch);
+        assertEquals(0, client.getResponseCacheStats().hits());
+    }
+    
+    @Test
+    void conditionalResponseCache_OverBudget_ShouldEvictLeastRecentlyUsed() {
+        // Given
+        ConditionalResponseCache cache = new ConditionalResponseCache(20);
+        cache.put("a", "\"a\"", null, "12345", 10);
+        cache.put("b", "\"b\"", null, "12345", 10);
+        cache.get("a");
+        
+        // When
+        cache.put("c", "\"c\"", null, "12345", 10);
+        
+        // Then
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(20, cache.stats().bytes());
+    }
+    
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+package ai.review.github;
+
+import ai.review.config.GitHubProperties;
+import ai.review.diff.UnifiedDiff;
+import ai.review.exception.DeadlineExceededException;
+import ai.review.http.Deadline;
+import ai.review.http.StubHttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubClientDeadlineTest {
+    
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch headersSent = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    private StubHttpServer server;
+    private GitHubClient client;
+    
+    @BeforeEach
+    void startStallingGitHub() throws IOException {
+        server = StubHttpServer.start("/repos/owner/repo/", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/x-diff");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write("diff --git a/App.java b/App.java\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            headersSent.countDown();
+            // The rest of the diff never comes
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        }, 0, Executors.newCachedThreadPool());
+        
+        GitHubProperties properties = new GitHubProperties();
+        properties.setBaseUrl(server.baseUrl());
+        properties.getRetry().setInitialBackoffMillis(1);
+        properties.getRetry().setMaxBackoffMillis(10);
+        client = new GitHubClient(properties);
+    }
+    
+    @AfterEach
+    void stopStallingGitHub() {
+        release.countDown();
+        server.close();
+    }
+    
+    @Test
+    void getPullRequestDiff_BodyStallsPastDeadline_ShouldGiveUpWithinBudget() {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(300));
+        
+        // When
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> client.getPullRequestDiff("owner/repo", 1, deadline));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertTrue(elapsedMillis < 2000, "Expected to give up at the deadline, took " + elapsedMillis + " ms");
+        assertEquals(1, requests.get());
+        assertEquals(0, client.getCircuitBreakerStats().failedCalls());
+    }
+    
+    @Test
+    void getPullRequestDiff_DeadlineCancelledWhileBodyStalls_ShouldAbortRead() throws Exception {
+        // Given
+        Deadline deadline = Deadline.none();
+        CompletableFuture<UnifiedDiff> diff = CompletableFuture.supplyAsync(
+            () -> client.getPullRequestDiff("owner/repo", 1, deadline));
+        assertTrue(headersSent.await(5, TimeUnit.SECONDS));
+        
+        // When
+        deadline.cancel();
+        
+        // Then
+        Exception exception = assertThrows(Exception.class, () -> diff.get(2, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof DeadlineExceededException, "Unexpected failure: " + exception);
+        assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,123 @@
+package ai.review.github;
+
+import ai.review.config.GitHubProperties;
+import ai.review.exception.GitHubApiException;
+import ai.review.http.StubHttpServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ai.review.http.StubHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubClientRateLimitTest {
+    
+    private static final String PR_JSON = "{\"number\":1,\"head\":{\"sha\":\"abc123\"}}";
+    
+    // Responses to send before answering 200; each is {status, Retry-After, message}
+    private final Queue<String[]> rateLimitedAnswers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    
+    private StubHttpServer server;
+    private GitHubProperties properties;
+    
+    @BeforeEach
+    void startStubGitHub() throws IOException {
+        server = StubHttpServer.start("/repos/owner/repo/pulls/1", exchange -> {
+            requests.incrementAndGet();
+            long reset = Instant.now().plusSeconds(3600).getEpochSecond();
+            exchange.getResponseHeaders().add("X-RateLimit-Limit", "5000");
+            exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf(reset));
+            exchange.getResponseHeaders().add("X-RateLimit-Resource", "core");
+            String[] answer = rateLimitedAnswers.poll();
+            if (answer != null) {
+                exchange.getResponseHeaders().add("X-RateLimit-Remaining", "4000");
+                if (!answer[1].isEmpty()) {
+                    exchange.getResponseHeaders().add("Retry-After", answer[1]);
+                }
+                respond(exchange, Integer.parseInt(answer[0]), "{\"message\":\"" + answer[2] + "\"}");
+            } else {
+                exchange.getResponseHeaders().add("X-RateLimit-Remaining", "3999");
+                respond(exchange, 200, PR_JSON);
+            }
+        });
+        
+        properties = new GitHubProperties();
+        properties.setBaseUrl(server.baseUrl());
+    }
+    
+    @AfterEach
+    void stopStubGitHub() {
+        server.close();
+    }
+    
+    @Test
+    void getPullRequest_SecondaryRateLimit_ShouldWaitRetryAfterAndSucceed() {
+        // Given
+        rateLimitedAnswers.add(new String[] {"403", "1", "You have exceeded a secondary rate limit"});
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        long start = System.nanoTime();
+        JsonNode pullRequest = client.getPullRequest("owner/repo", 1);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertEquals("abc123", pullRequest.path("head").path("sha").asText());
+        assertEquals(2, requests.get());
+        assertTrue(waitedMillis >= 1000, "Expected to wait out Retry-After, waited " + waitedMillis + " ms");
+        
+        RateLimitStats stats = client.getRateLimitStats();
+        assertEquals(1, stats.rateLimitedResponses());
+        assertEquals(3999, stats.budgets().get(0).remaining());
+        assertEquals(5000, stats.budgets().get(0).limit());
+    }
+    
+    @Test
+    void getPullRequest_RetryAfterBeyondMaxWait_ShouldFailFastWith429() {
+        // Given
+        properties.setRateLimitMaxWaitSeconds(5);
+        rateLimitedAnswers.add(new String[] {"429", "120", "Too many requests"});
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        long start = System.nanoTime();
+        GitHubApiException exception = assertThrows(GitHubApiException.class,
+            () -> client.getPullRequest("owner/repo", 1));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertEquals(429, exception.getStatusCode());
+        assertEquals(1, requests.get());
+        assertTrue(waitedMillis < 1000, "Expected a fast failure, waited " + waitedMillis + " ms");
+        
+        // Later calls are held back by the Retry-After as well
+        assertThrows(GitHubApiException.class, () -> client.getPullRequest("owner/repo", 1));
+        assertEquals(1, requests.get());
+        assertEquals(1, client.getRateLimitStats().rejectedCalls());
+    }
+    
+    @Test
+    void getPullRequest_PermissionDenied_ShouldFailWithoutRetry() {
+        // Given
+        rateLimitedAnswers.add(new String[] {"403", "", "Resource not accessible by integration"});
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        GitHubApiException exception = assertThrows(GitHubApiException.class,
+            () -> client.getPullRequest("owner/repo", 1));
+        
+        // Then
+        assertEquals(403, exception.getStatusCode());
+        assertEquals("Resource not accessible by integration", exception.getApiError());
+        assertEquals(1, requests.get());
+    }
+}
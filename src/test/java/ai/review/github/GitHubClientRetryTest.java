@@ -0,0 +1,100 @@
+package ai.review.github;
+
+import ai.review.config.GitHubProperties;
+import ai.review.exception.GitHubApiException;
+import ai.review.http.StubHttpServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ai.review.http.StubHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubClientRetryTest {
+    
+    private static final String PR_JSON = "{\"number\":1,\"head\":{\"sha\":\"abc123\"}}";
+    
+    // Statuses to answer before a successful one
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    
+    private StubHttpServer server;
+    private GitHubProperties properties;
+    
+    @BeforeEach
+    void startStubGitHub() throws IOException {
+        server = StubHttpServer.start("/repos/owner/repo/", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            Integer failure = failures.poll();
+            if (failure != null) {
+                respond(exchange, failure, "{\"message\":\"Server Error\"}");
+            } else if ("POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 201, "{\"id\":1}");
+            } else {
+                respond(exchange, 200, PR_JSON);
+            }
+        });
+        
+        properties = new GitHubProperties();
+        properties.setBaseUrl(server.baseUrl());
+        properties.setToken("token");
+        properties.getRetry().setInitialBackoffMillis(1);
+        properties.getRetry().setMaxBackoffMillis(10);
+    }
+    
+    @AfterEach
+    void stopStubGitHub() {
+        server.close();
+    }
+    
+    @Test
+    void getPullRequest_TransientServerError_ShouldRetryAndSucceed() {
+        // Given
+        failures.add(502);
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        JsonNode pullRequest = client.getPullRequest("owner/repo", 1);
+        
+        // Then
+        assertEquals("abc123", pullRequest.path("head").path("sha").asText());
+        assertEquals(2, requests.get());
+    }
+    
+    @Test
+    void getPullRequest_NotFound_ShouldFailWithoutRetry() {
+        // Given
+        failures.add(404);
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        GitHubApiException exception = assertThrows(GitHubApiException.class,
+            () -> client.getPullRequest("owner/repo", 1));
+        
+        // Then
+        assertEquals(404, exception.getStatusCode());
+        assertEquals(1, requests.get());
+    }
+    
+    @Test
+    void postIssueComment_ServerError_ShouldNotRepeatPossiblyPostedComment() {
+        // Given
+        failures.add(502);
+        GitHubClient client = new GitHubClient(properties);
+        
+        // When
+        GitHubApiException exception = assertThrows(GitHubApiException.class,
+            () -> client.postIssueComment("owner/repo", 1, "review"));
+        
+        // Then
+        assertEquals(502, exception.getStatusCode());
+        assertEquals(1, requests.get());
+    }
+}
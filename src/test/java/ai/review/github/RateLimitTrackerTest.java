@@ -0,0 +1,158 @@
+package ai.review.github;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTrackerTest {
+    
+    private static final Duration MAX_WAIT = Duration.ofMinutes(5);
+    
+    private final MutableClock clock = new MutableClock();
+    private final RateLimitTracker tracker = new RateLimitTracker(10, clock);
+    
+    @Test
+    void reserve_AboveReserve_ShouldNotDelay() {
+        // Given
+        tracker.update(budget(5000, 4000, Duration.ofMinutes(30)));
+        
+        // When
+        Optional<Duration> delay = tracker.reserve("core", MAX_WAIT);
+        
+        // Then
+        assertEquals(Optional.of(Duration.ZERO), delay);
+        assertEquals(3999, tracker.stats().budgets().get(0).remaining());
+        assertEquals(0, tracker.stats().throttledCalls());
+    }
+    
+    @Test
+    void reserve_WithinReserve_ShouldSpaceCallsUntilReset() {
+        // Given: 10 calls left for the next 100 s, all within the 10% reserve of 100
+        tracker.update(budget(100, 10, Duration.ofSeconds(100)));
+        
+        // When
+        Duration first = tracker.reserve("core", MAX_WAIT).orElseThrow();
+        Duration second = tracker.reserve("core", MAX_WAIT).orElseThrow();
+        Duration third = tracker.reserve("core", MAX_WAIT).orElseThrow();
+        
+        // Then
+        assertEquals(Duration.ZERO, first);
+        assertEquals(Duration.ofSeconds(10), second);
+        assertTrue(third.compareTo(second) > 0, "Expected calls to be spaced further apart, got " + third);
+        assertEquals(2, tracker.stats().throttledCalls());
+    }
+    
+    @Test
+    void reserve_BudgetExhausted_ShouldWaitForResetOrRejectBeyondMaxWait() {
+        // Given
+        tracker.update(budget(5000, 0, Duration.ofSeconds(30)));
+        
+        // When
+        Optional<Duration> withinWait = tracker.reserve("core", Duration.ofMinutes(1));
+        Optional<Duration> beyondWait = tracker.reserve("core", Duration.ofSeconds(10));
+        
+        // Then
+        assertEquals(Optional.of(Duration.ofSeconds(30)), withinWait);
+        assertTrue(beyondWait.isEmpty());
+        assertEquals(1, tracker.stats().rejectedCalls());
+    }
+    
+    @Test
+    void reserve_AfterReset_ShouldNoLongerDelay() {
+        // Given
+        tracker.update(budget(5000, 0, Duration.ofSeconds(30)));
+        
+        // When
+        clock.advance(Duration.ofSeconds(31));
+        
+        // Then
+        assertEquals(Optional.of(Duration.ZERO), tracker.reserve("core", MAX_WAIT));
+    }
+    
+    @Test
+    void backoff_WithRetryAfter_ShouldWaitAtLeastThatLongWithJitterAndHoldBackOtherCalls() {
+        // Given
+        HttpHeaders headers = headers(Map.of("Retry-After", List.of("10")));
+        
+        // When
+        Duration backoff = tracker.backoff(headers, 0);
+        Duration nextCall = tracker.reserve("core", MAX_WAIT).orElseThrow();
+        
+        // Then
+        assertTrue(backoff.compareTo(Duration.ofSeconds(10)) >= 0, "Backoff below Retry-After: " + backoff);
+        assertTrue(backoff.compareTo(Duration.ofSeconds(12)) <= 0, "Jitter too large: " + backoff);
+        assertEquals(backoff, nextCall);
+        assertEquals(1, tracker.stats().rateLimitedResponses());
+    }
+    
+    @Test
+    void backoff_WithoutHints_ShouldGrowExponentially() {
+        // Given
+        HttpHeaders headers = headers(Map.of());
+        
+        // When
+        Duration first = tracker.backoff(headers, 0);
+        Duration third = tracker.backoff(headers, 2);
+        
+        // Then
+        assertTrue(first.compareTo(Duration.ofSeconds(1)) >= 0 && first.compareTo(Duration.ofMillis(1200)) <= 0);
+        assertTrue(third.compareTo(Duration.ofSeconds(4)) >= 0 && third.compareTo(Duration.ofMillis(4800)) <= 0);
+    }
+    
+    @Test
+    void isRateLimited_ShouldTellRateLimitsFromPermissionErrors() {
+        HttpHeaders none = headers(Map.of());
+        
+        assertTrue(RateLimitTracker.isRateLimited(429, none, null));
+        assertTrue(RateLimitTracker.isRateLimited(403, headers(Map.of("Retry-After", List.of("60"))), null));
+        assertTrue(RateLimitTracker.isRateLimited(403, headers(Map.of("X-RateLimit-Remaining", List.of("0"))), null));
+        assertTrue(RateLimitTracker.isRateLimited(403, none, "You have exceeded a secondary rate limit"));
+        assertFalse(RateLimitTracker.isRateLimited(403, none, "Resource not accessible by integration"));
+        assertFalse(RateLimitTracker.isRateLimited(404, none, null));
+    }
+    
+    private HttpHeaders budget(int limit, int remaining, Duration untilReset) {
+        return headers(Map.of(
+            "X-RateLimit-Limit", List.of(String.valueOf(limit)),
+            "X-RateLimit-Remaining", List.of(String.valueOf(remaining)),
+            "X-RateLimit-Reset", List.of(String.valueOf(clock.instant().plus(untilReset).getEpochSecond())),
+            "X-RateLimit-Resource", List.of("core")
+        ));
+    }
+    
+    private static HttpHeaders headers(Map<String, List<String>> values) {
+        return HttpHeaders.of(values, (name, value) -> true);
+    }
+    
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
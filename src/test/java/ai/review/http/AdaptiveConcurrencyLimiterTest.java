@@ -0,0 +1,206 @@
+package ai.review.http;
+
+import ai.review.exception.ConcurrencyLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+    
+    @Test
+    void execute_AtLimitWithNoQueue_ShouldRejectImmediately() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 0, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> limiter.execute(() -> block(started), e -> false));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        
+        // When
+        long start = System.nanoTime();
+        ConcurrencyLimitExceededException exception = assertThrows(ConcurrencyLimitExceededException.class,
+            () -> limiter.execute(() -> "second", e -> false));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertTrue(waitedMillis < 1000, "Expected a fast rejection, waited " + waitedMillis + " ms");
+        assertEquals(1, exception.getLimit());
+        assertEquals(1, limiter.stats().rejected());
+        assertEquals(1, limiter.stats().inFlight());
+    }
+    
+    @Test
+    void execute_QueuedCall_ShouldRunOnceSlotFrees() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 1, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> limiter.execute(() -> block(started), e -> false));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        
+        // When
+        Future<String> queued = callers.submit(() -> limiter.execute(() -> "second", e -> false));
+        awaitQueued(limiter, 1);
+        release.countDown();
+        
+        // Then
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.stats().rejected());
+    }
+    
+    @Test
+    void execute_NoSlotWithinMaxWait_ShouldReject() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 1, Duration.ofMillis(100));
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> limiter.execute(() -> block(started), e -> false));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        
+        // When / Then
+        assertThrows(ConcurrencyLimitExceededException.class, () -> limiter.execute(() -> "second", e -> false));
+        assertEquals(0, limiter.stats().queued());
+    }
+    
+    @Test
+    void execute_DroppedCalls_ShouldCutLimitMultiplicativelyDownToMinimum() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 8, 20, 10, Duration.ofSeconds(1));
+        
+        // When
+        overload(limiter);
+        int afterOneDrop = limiter.stats().limit();
+        for (int i = 0; i < 10; i++) {
+            overload(limiter);
+        }
+        
+        // Then
+        assertEquals(9, afterOneDrop);
+        assertEquals(8, limiter.stats().limit());
+        assertEquals(11, limiter.stats().dropped());
+    }
+    
+    @Test
+    void execute_FailureThatIsNotOverload_ShouldKeepLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 8, 10, Duration.ofSeconds(1));
+        
+        // When
+        assertThrows(IllegalArgumentException.class, () -> limiter.execute(() -> {
+            throw new IllegalArgumentException("bad prompt");
+        }, e -> e instanceof IllegalStateException));
+        
+        // Then
+        assertEquals(4, limiter.stats().limit());
+        assertEquals(0, limiter.stats().inFlight());
+    }
+    
+    @Test
+    void execute_CallFailingWithError_ShouldFreeSlot() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 8, 0, Duration.ofMillis(10));
+        
+        // When
+        assertThrows(StackOverflowError.class, () -> limiter.execute(() -> {
+            throw new StackOverflowError();
+        }, e -> true));
+        
+        // Then
+        assertEquals(0, limiter.stats().inFlight());
+        assertEquals(1, limiter.stats().limit());
+        assertEquals("ok", limiter.execute(() -> "ok", e -> false));
+    }
+    
+    @Test
+    void execute_SuccessWhileLimitIsUsed_ShouldRaiseLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 8, 10, Duration.ofSeconds(1));
+        
+        // When
+        limiter.execute(() -> "ok", e -> false);
+        
+        // Then
+        assertEquals(2, limiter.stats().limit());
+    }
+    
+    @Test
+    void execute_SuccessesWhileMostlyIdle_ShouldNotRaiseLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 1, 16, 10, Duration.ofSeconds(1));
+        
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.execute(() -> "ok", e -> false);
+        }
+        
+        // Then
+        assertEquals(8, limiter.stats().limit());
+    }
+    
+    @Test
+    void execute_CallMuchSlowerThanAverage_ShouldLowerLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 10, 10, Duration.ofSeconds(1));
+        for (int i = 0; i < 10; i++) {
+            limiter.execute(() -> sleep(5), e -> false);
+        }
+        
+        // When
+        limiter.execute(() -> sleep(200), e -> false);
+        
+        // Then
+        assertEquals(9, limiter.stats().limit());
+        assertEquals(0, limiter.stats().dropped());
+    }
+    
+    private static AdaptiveConcurrencyLimiter limiter(int initial, int min, int max, int queue, Duration maxWait) {
+        return new AdaptiveConcurrencyLimiter("test", initial, min, max, queue, maxWait, 2.0);
+    }
+    
+    private static void overload(AdaptiveConcurrencyLimiter limiter) {
+        assertThrows(IllegalStateException.class, () -> limiter.execute(() -> {
+            throw new IllegalStateException("HTTP 503");
+        }, e -> true));
+    }
+    
+    private String block(CountDownLatch started) {
+        started.countDown();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "first";
+    }
+    
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "ok";
+    }
+    
+    private static void awaitQueued(AdaptiveConcurrencyLimiter limiter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.stats().queued() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, limiter.stats().queued());
+    }
+}
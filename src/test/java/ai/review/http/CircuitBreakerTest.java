@@ -0,0 +1,168 @@
+package ai.review.http;
+
+import ai.review.exception.CircuitBreakerOpenException;
+import ai.review.exception.ConcurrencyLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 50, 10, 4, Duration.ofSeconds(30), 2, clock);
+    
+    @Test
+    void execute_FailureRateBelowThreshold_ShouldStayClosed() {
+        // Given
+        succeed(6);
+        
+        // When
+        fail(4);
+        
+        // Then
+        CircuitBreakerStats stats = breaker.stats();
+        assertEquals(CircuitBreaker.State.CLOSED, stats.state());
+        assertEquals(10, stats.bufferedCalls());
+        assertEquals(0.4, stats.failureRate(), 0.001);
+    }
+    
+    @Test
+    void execute_FailureRateReachesThreshold_ShouldOpenAndFailFast() {
+        // Given
+        succeed(3);
+        fail(3);
+        AtomicInteger calls = new AtomicInteger();
+        
+        // When
+        CircuitBreakerOpenException exception = assertThrows(CircuitBreakerOpenException.class,
+            () -> breaker.execute(calls::incrementAndGet, e -> true));
+        
+        // Then
+        assertEquals(0, calls.get());
+        assertEquals("test", exception.getBackend());
+        assertEquals(30, exception.getRetryAfterSeconds());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1, breaker.stats().rejectedCalls());
+        assertEquals(1, breaker.stats().timesOpened());
+    }
+    
+    @Test
+    void execute_FewerThanMinimumCalls_ShouldNotOpen() {
+        // When
+        fail(3);
+        
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    void execute_FailuresNotAcceptedByPredicateOrLimiterRefusals_ShouldNotCount() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThrows(IllegalArgumentException.class, () -> breaker.execute(() -> {
+                throw new IllegalArgumentException("not found");
+            }, e -> e instanceof IllegalStateException));
+            assertThrows(ConcurrencyLimitExceededException.class, () -> breaker.execute(() -> {
+                throw new ConcurrencyLimitExceededException("saturated", 1);
+            }, e -> true));
+        }
+        
+        // Then
+        CircuitBreakerStats stats = breaker.stats();
+        assertEquals(CircuitBreaker.State.CLOSED, stats.state());
+        assertEquals(10, stats.bufferedCalls());
+        assertEquals(0, stats.failedCalls());
+    }
+    
+    @Test
+    void execute_AfterOpenDurationAndSuccessfulTrials_ShouldClose() {
+        // Given
+        fail(4);
+        clock.advance(Duration.ofSeconds(30));
+        
+        // When
+        CircuitBreaker.State beforeTrials = breaker.getState();
+        succeed(2);
+        
+        // Then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, beforeTrials);
+        CircuitBreakerStats stats = breaker.stats();
+        assertEquals(CircuitBreaker.State.CLOSED, stats.state());
+        assertEquals(0, stats.bufferedCalls());
+    }
+    
+    @Test
+    void execute_FailedTrial_ShouldReopen() {
+        // Given
+        fail(4);
+        clock.advance(Duration.ofSeconds(30));
+        
+        // When
+        succeed(1);
+        fail(1);
+        
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.stats().timesOpened());
+        assertThrows(CircuitBreakerOpenException.class, () -> breaker.execute(() -> "ok", e -> true));
+    }
+    
+    @Test
+    void execute_WindowFull_ShouldForgetOldestOutcomes() {
+        // Given
+        succeed(5);
+        fail(3);
+        succeed(2);
+        
+        // When
+        succeed(8);
+        
+        // Then
+        CircuitBreakerStats stats = breaker.stats();
+        assertEquals(10, stats.bufferedCalls());
+        assertEquals(0, stats.failedCalls());
+    }
+    
+    private void succeed(int times) {
+        for (int i = 0; i < times; i++) {
+            assertEquals("ok", breaker.execute(() -> "ok", e -> true));
+        }
+    }
+    
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(IllegalStateException.class, () -> breaker.execute(() -> {
+                throw new IllegalStateException("backend down");
+            }, e -> true));
+        }
+    }
+    
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
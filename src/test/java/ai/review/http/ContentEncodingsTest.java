@@ -0,0 +1,124 @@
+package ai.review.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentEncodingsTest {
+    
+    private static final String DIFF = "diff --git a/src/A.java b/src/A.java\n" + "+    final int x = 1;\n".repeat(500);
+    
+    @Test
+    void decode_Gzip_ShouldInflateWhileReading() throws IOException {
+        // Given
+        byte[] compressed = gzip(DIFF);
+        
+        // When
+        String decoded = readAll(ContentEncodings.decode(new ByteArrayInputStream(compressed), "gzip"));
+        
+        // Then
+        assertEquals(DIFF, decoded);
+        assertTrue(compressed.length * 10 < DIFF.length(), "Expected repetitive diff to compress well");
+    }
+    
+    @Test
+    void decode_ZlibDeflate_ShouldInflate() throws IOException {
+        // Given
+        byte[] compressed = deflate(DIFF, false);
+        
+        // When
+        String decoded = readAll(ContentEncodings.decode(new ByteArrayInputStream(compressed), "deflate"));
+        
+        // Then
+        assertEquals(DIFF, decoded);
+    }
+    
+    @Test
+    void decode_RawDeflate_ShouldInflate() throws IOException {
+        // Given
+        byte[] compressed = deflate(DIFF, true);
+        
+        // When
+        String decoded = readAll(ContentEncodings.decode(new ByteArrayInputStream(compressed), "deflate"));
+        
+        // Then
+        assertEquals(DIFF, decoded);
+    }
+    
+    @Test
+    void decode_NoEncoding_ShouldPassBodyThrough() throws IOException {
+        // Given
+        byte[] plain = DIFF.getBytes(StandardCharsets.UTF_8);
+        
+        // When
+        String decoded = readAll(ContentEncodings.decode(new ByteArrayInputStream(plain), null));
+        
+        // Then
+        assertEquals(DIFF, decoded);
+    }
+    
+    @Test
+    void decode_UnsupportedEncoding_ShouldThrowAndCloseBody() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream body = new ByteArrayInputStream(new byte[0]) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        
+        // When
+        IOException exception = assertThrows(IOException.class, () -> ContentEncodings.decode(body, "br"));
+        
+        // Then
+        assertEquals("Unsupported Content-Encoding: br", exception.getMessage());
+        assertTrue(closed.get());
+    }
+    
+    @Test
+    void close_PartiallyRead_ShouldDrainTheRawBody() throws IOException {
+        // Given
+        ByteArrayInputStream raw = new ByteArrayInputStream(gzip(DIFF));
+        InputStream decoded = ContentEncodings.decode(raw, "gzip");
+        decoded.read(new byte[16]);
+        
+        // When
+        decoded.close();
+        
+        // Then
+        assertEquals(0, raw.available());
+    }
+    
+    private static String readAll(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] deflate(String text, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflate.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,142 @@
+package ai.review.http;
+
+import ai.review.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+    
+    @Test
+    void cap_ShouldUseConfiguredTimeoutWhileMoreBudgetIsLeft() {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMinutes(2));
+        
+        // When
+        Duration timeout = deadline.cap(Duration.ofSeconds(30), "calling GitHub");
+        
+        // Then
+        assertEquals(Duration.ofSeconds(30), timeout);
+    }
+    
+    @Test
+    void cap_ShouldShrinkTimeoutToRemainingBudget() {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+        
+        // When
+        Duration timeout = deadline.cap(Duration.ofSeconds(60), "calling Ollama");
+        
+        // Then
+        assertTrue(timeout.compareTo(Duration.ofSeconds(5)) <= 0, "Expected at most the budget, got " + timeout);
+        assertTrue(timeout.compareTo(Duration.ofSeconds(4)) > 0, "Expected nearly the whole budget, got " + timeout);
+    }
+    
+    @Test
+    void cap_BudgetSpent_ShouldThrowDeadlineExceededException() throws Exception {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(10));
+        Thread.sleep(20);
+        
+        // When
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+            () -> deadline.cap(Duration.ofSeconds(60), "calling Ollama"));
+        
+        // Then
+        assertTrue(exception.getMessage().contains("deadline of 10 ms exceeded before calling Ollama"));
+        assertEquals(10, exception.getBudgetMillis());
+        assertTrue(deadline.isExpired());
+    }
+    
+    @Test
+    void await_CallOutlastingBudget_ShouldCancelCallAndThrow() {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(100));
+        CompletableFuture<String> call = new CompletableFuture<>();
+        
+        // When
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> deadline.await(call, "calling Ollama"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertTrue(call.isCancelled());
+        assertTrue(elapsedMillis < 1000, "Expected to give up at the deadline, took " + elapsedMillis + " ms");
+    }
+    
+    @Test
+    void cancel_ShouldAbortWaitingCallAndFailLaterOnes() throws Exception {
+        // Given
+        Deadline deadline = Deadline.none();
+        CompletableFuture<String> call = new CompletableFuture<>();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        
+        // When
+        scheduler.schedule(deadline::cancel, 50, TimeUnit.MILLISECONDS);
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+            () -> deadline.await(call, "calling GitHub"));
+        scheduler.shutdown();
+        
+        // Then
+        assertTrue(call.isCancelled());
+        assertTrue(exception.getMessage().contains("cancelled by the caller"));
+        assertThrows(DeadlineExceededException.class, () -> deadline.check("posting a comment"));
+    }
+    
+    @Test
+    void await_FailedCall_ShouldRethrowItsIOException() {
+        // Given
+        Deadline deadline = Deadline.none();
+        CompletableFuture<String> call = CompletableFuture.failedFuture(new IOException("Connection refused"));
+        
+        // When
+        IOException exception = assertThrows(IOException.class, () -> deadline.await(call, "calling GitHub"));
+        
+        // Then
+        assertEquals("Connection refused", exception.getMessage());
+        assertFalse(deadline.isExpired());
+    }
+    
+    @Test
+    void readBody_BodyOutlastingBudget_ShouldCloseBodyAndThrow() throws Exception {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(100));
+        CountDownLatch closed = new CountDownLatch(1);
+        // A body whose next bytes never arrive: reads block until it is closed
+        InputStream body = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                try {
+                    closed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Stream closed");
+            }
+            
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+        
+        // When
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class,
+            () -> deadline.readBody(body, "fetching the diff", body::readAllBytes));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertTrue(elapsedMillis < 1000, "Expected to give up at the deadline, took " + elapsedMillis + " ms");
+        assertEquals(0, closed.getCount());
+    }
+}
@@ -0,0 +1,110 @@
+package ai.review.http;
+
+import ai.review.config.GitHubProperties;
+import ai.review.config.HttpProperties;
+import ai.review.config.OllamaProperties;
+import ai.review.github.GitHubClient;
+import ai.review.ollama.OllamaClient;
+import ai.review.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static ai.review.http.StubHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientFactoryTest {
+    
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    
+    private StubHttpServer server;
+    private String baseUrl;
+    
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = StubHttpServer.start("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getRequestBody().readAllBytes();
+            boolean ollama = exchange.getRequestURI().getPath().startsWith("/api/generate");
+            respond(exchange, 200, ollama ? "{\"response\":\"ok\",\"done\":true}" : "{\"number\":1}");
+        });
+        baseUrl = server.baseUrl();
+    }
+    
+    @AfterEach
+    void stopStubServer() {
+        server.close();
+    }
+    
+    @Test
+    void create_ShouldApplyConfiguredVersionAndConnectTimeout() {
+        // Given
+        HttpProperties properties = new HttpProperties();
+        properties.setVersion(HttpClient.Version.HTTP_1_1);
+        properties.setConnectTimeoutSeconds(7);
+        
+        // When
+        HttpClient client = HttpClientFactory.create(properties, null);
+        
+        // Then
+        assertEquals(HttpClient.Version.HTTP_1_1, client.version());
+        assertEquals(Duration.ofSeconds(7), client.connectTimeout().orElseThrow());
+    }
+    
+    @Test
+    void create_PoolPropertySetOnCommandLine_ShouldKeepIt() {
+        // Given
+        String previous = System.getProperty(HttpClientFactory.KEEP_ALIVE_PROPERTY);
+        System.setProperty(HttpClientFactory.KEEP_ALIVE_PROPERTY, "42");
+        HttpProperties properties = new HttpProperties();
+        properties.setKeepAliveSeconds(300);
+        
+        try {
+            // When
+            HttpClientFactory.create(properties, null);
+            
+            // Then
+            assertEquals("42", System.getProperty(HttpClientFactory.KEEP_ALIVE_PROPERTY));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(HttpClientFactory.KEEP_ALIVE_PROPERTY);
+            } else {
+                System.setProperty(HttpClientFactory.KEEP_ALIVE_PROPERTY, previous);
+            }
+        }
+    }
+    
+    @Test
+    void sharedClient_SequentialCallsFromBothClients_ShouldReuseOneConnection() {
+        // Given
+        HttpProperties httpProperties = new HttpProperties();
+        httpProperties.setVersion(HttpClient.Version.HTTP_1_1);
+        HttpClient shared = HttpClientFactory.create(httpProperties, null);
+        
+        GitHubProperties gitHubProperties = new GitHubProperties();
+        gitHubProperties.setBaseUrl(baseUrl);
+        gitHubProperties.setResponseCacheMaxMegabytes(0);
+        OllamaProperties ollamaProperties = new OllamaProperties();
+        ollamaProperties.setApiUrl(baseUrl + "/api/generate");
+        
+        GitHubClient gitHubClient = new GitHubClient(gitHubProperties, shared, Tracer.noop());
+        OllamaClient ollamaClient = new OllamaClient(ollamaProperties, shared, Tracer.noop());
+        
+        // When
+        gitHubClient.getPullRequest("owner/repo", 1);
+        ollamaClient.generate("prompt");
+        gitHubClient.getPullRequest("owner/repo", 1);
+        ollamaClient.generate("prompt");
+        
+        // Then
+        assertEquals(4, clientPorts.size());
+        assertEquals(1, Set.copyOf(clientPorts).size(), "Expected one pooled connection, got ports " + clientPorts);
+    }
+}
@@ -0,0 +1,161 @@
+package ai.review.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestDecompressionFilterTest {
+    
+    private static final String BODY = "{\"repository\":\"owner/repo\",\"prNumber\":1}";
+    
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final RequestDecompressionFilter filter = new RequestDecompressionFilter(1024, mapper);
+    
+    @Test
+    void doFilter_GzipBody_ShouldPassInflatedBodyWithoutEncodingHeader() throws Exception {
+        // Given
+        MockHttpServletRequest request = post(gzip(BODY), "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        // When
+        filter.doFilter(request, response, chain);
+        
+        // Then
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertNotNull(forwarded);
+        assertEquals(BODY, new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(forwarded.getHeader("Content-Encoding"));
+        assertEquals(BODY.length(), forwarded.getContentLength());
+    }
+    
+    @Test
+    void doFilter_GzipBodyReadAsynchronously_ShouldDeliverInflatedBodyToReadListener() throws Exception {
+        // Given
+        MockHttpServletRequest request = post(gzip(BODY), "gzip");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        
+        // When
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[16];
+                int n;
+                while (in.isReady() && (n = in.read(buffer)) != -1) {
+                    read.write(buffer, 0, n);
+                }
+            }
+            
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+        
+        // Then
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+        assertTrue(in.isFinished());
+    }
+    
+    @Test
+    void doFilter_PlainBody_ShouldPassRequestThroughUnchanged() throws Exception {
+        // Given
+        MockHttpServletRequest request = post(BODY.getBytes(StandardCharsets.UTF_8), null);
+        MockFilterChain chain = new MockFilterChain();
+        
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        
+        // Then
+        assertSame(request, chain.getRequest());
+    }
+    
+    @Test
+    void doFilter_InflatesPastLimit_ShouldRejectWith413() throws Exception {
+        // Given
+        MockHttpServletRequest request = post(gzip(" ".repeat(4096)), "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        // When
+        filter.doFilter(request, response, chain);
+        
+        // Then
+        assertNull(chain.getRequest());
+        assertEquals(413, response.getStatus());
+        JsonNode error = mapper.readTree(response.getContentAsString());
+        assertEquals("Payload Too Large", error.path("error").asText());
+        assertEquals("/api/review", error.path("path").asText());
+    }
+    
+    @Test
+    void doFilter_CorruptGzip_ShouldRejectWith400() throws Exception {
+        // Given
+        MockHttpServletRequest request = post(BODY.getBytes(StandardCharsets.UTF_8), "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        // When
+        filter.doFilter(request, response, new MockFilterChain());
+        
+        // Then
+        assertEquals(400, response.getStatus());
+        assertEquals("Invalid Request Body", mapper.readTree(response.getContentAsString()).path("error").asText());
+    }
+    
+    @Test
+    void doFilter_UnsupportedEncoding_ShouldRejectWith415() throws Exception {
+        // Given
+        MockHttpServletRequest request = post(BODY.getBytes(StandardCharsets.UTF_8), "br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        // When
+        filter.doFilter(request, response, new MockFilterChain());
+        
+        // Then
+        assertEquals(415, response.getStatus());
+    }
+    
+    private static MockHttpServletRequest post(byte[] body, String contentEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/review");
+        request.setContentType("application/json");
+        request.setContent(body);
+        if (contentEncoding != null) {
+            request.addHeader("Content-Encoding", contentEncoding);
+        }
+        return request;
+    }
+    
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
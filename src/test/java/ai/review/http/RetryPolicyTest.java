@@ -0,0 +1,124 @@
+package ai.review.http;
+
+import ai.review.config.RetryProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+    
+    @Test
+    void execute_TransientFailures_ShouldRetryUntilSuccess() {
+        // Given
+        RetryPolicy policy = policy(3, Duration.ofSeconds(30));
+        AtomicInteger calls = new AtomicInteger();
+        
+        // When
+        String result = policy.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException("transient");
+            }
+            return "ok";
+        }, e -> true);
+        
+        // Then
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+    }
+    
+    @Test
+    void execute_NonRetryableFailure_ShouldThrowAfterFirstAttempt() {
+        // Given
+        RetryPolicy policy = policy(3, Duration.ofSeconds(30));
+        AtomicInteger calls = new AtomicInteger();
+        
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> policy.execute(() -> {
+                calls.incrementAndGet();
+                throw new IllegalArgumentException("permanent");
+            }, e -> e instanceof IllegalStateException));
+        
+        // Then
+        assertEquals("permanent", exception.getMessage());
+        assertEquals(1, calls.get());
+    }
+    
+    @Test
+    void execute_AttemptsExhausted_ShouldRethrowLastFailure() {
+        // Given
+        RetryPolicy policy = policy(3, Duration.ofSeconds(30));
+        AtomicInteger calls = new AtomicInteger();
+        
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> policy.execute(() -> {
+                throw new IllegalStateException("failure " + calls.incrementAndGet());
+            }, e -> true));
+        
+        // Then
+        assertEquals("failure 3", exception.getMessage());
+        assertEquals(3, calls.get());
+    }
+    
+    @Test
+    void execute_DeadlinePassed_ShouldStopRetrying() {
+        // Given
+        RetryPolicy policy = new RetryPolicy("test", 10, Duration.ZERO, Duration.ZERO, Set.of(), Duration.ofMillis(200));
+        AtomicInteger calls = new AtomicInteger();
+        
+        // When
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> policy.execute(() -> {
+            calls.incrementAndGet();
+            sleep(150);
+            throw new IllegalStateException("slow failure");
+        }, e -> true));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertEquals(2, calls.get());
+        assertTrue(elapsedMillis < 1000, "Expected to stop at the deadline, took " + elapsedMillis + " ms");
+    }
+    
+    @Test
+    void backoffMillis_ShouldStayWithinDoublingCapUpToMaximum() {
+        RetryPolicy policy = new RetryPolicy("test", 10, Duration.ofMillis(100), Duration.ofMillis(1000),
+            Set.of(), Duration.ofSeconds(30));
+        
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoffMillis(1) <= 100);
+            assertTrue(policy.backoffMillis(3) <= 400);
+            assertTrue(policy.backoffMillis(8) <= 1000);
+            assertTrue(policy.backoffMillis(8) >= 0);
+        }
+    }
+    
+    @Test
+    void of_ShouldUseConfiguredRetryableStatuses() {
+        RetryProperties properties = new RetryProperties();
+        properties.setRetryableStatuses(Set.of(502));
+        
+        RetryPolicy policy = RetryPolicy.of("test", properties);
+        
+        assertTrue(policy.isRetryableStatus(502));
+        assertFalse(policy.isRetryableStatus(503));
+    }
+    
+    private static RetryPolicy policy(int maxAttempts, Duration deadline) {
+        return new RetryPolicy("test", maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5), Set.of(503), deadline);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
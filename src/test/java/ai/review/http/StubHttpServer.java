@@ -0,0 +1,66 @@
+package ai.review.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+
+/**
+ * A local HTTP server standing in for GitHub or Ollama in client tests: one handler on a
+ * free loopback port, stopped on {@link #close()}.
+ */
+public final class StubHttpServer implements AutoCloseable {
+    
+    private final HttpServer server;
+    
+    private StubHttpServer(HttpServer server) {
+        this.server = server;
+    }
+    
+    public static StubHttpServer start(String path, HttpHandler handler) throws IOException {
+        return start(path, handler, 0, null);
+    }
+    
+    /**
+     * @param backlog  connections the server queues before refusing more, 0 for the system default
+     * @param executor runs the handler, {@code null} for the server's single dispatcher thread
+     */
+    public static StubHttpServer start(String path, HttpHandler handler, int backlog, Executor executor) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), backlog);
+        server.createContext(path, handler);
+        server.setExecutor(executor);
+        server.start();
+        return new StubHttpServer(server);
+    }
+    
+    /**
+     * The server's address, e.g. {@code http://127.0.0.1:53211}
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    public String url(String path) {
+        return baseUrl() + path;
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+    
+    /**
+     * Answer with a JSON body and end the exchange
+     */
+    public static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
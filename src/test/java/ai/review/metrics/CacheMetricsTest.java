@@ -0,0 +1,52 @@
+package ai.review.metrics;
+
+import ai.review.cache.CacheStats;
+import ai.review.github.ResponseCacheStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheMetricsTest {
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicReference<CacheStats> reviewStats = new AtomicReference<>(new CacheStats(0, 0, 0, 0, 0, 0, 0));
+    private final AtomicReference<ResponseCacheStats> gitHubStats = new AtomicReference<>(new ResponseCacheStats(0, 0, 0, 0, 0));
+    
+    @Test
+    void bindTo_ShouldSplitReviewCacheHitsIntoMemoryAndDisk() {
+        // Given
+        new CacheMetrics(reviewStats::get, gitHubStats::get).bindTo(registry);
+        
+        // When
+        reviewStats.set(new CacheStats(7, 2, 3, 0, 5, 2, 1024));
+        
+        // Then
+        assertEquals(5, lookups("review", "hit"));
+        assertEquals(2, lookups("review", "disk_hit"));
+        assertEquals(3, lookups("review", "miss"));
+        assertEquals(5, registry.get(CacheMetrics.SIZE).tag("cache", "review").gauge().value());
+    }
+    
+    @Test
+    void bindTo_ShouldReadGitHubCacheOnEveryScrape() {
+        // Given
+        new CacheMetrics(reviewStats::get, gitHubStats::get).bindTo(registry);
+        gitHubStats.set(new ResponseCacheStats(1, 4, 0, 3, 2048));
+        assertEquals(1, lookups("github", "hit"));
+        
+        // When
+        gitHubStats.set(new ResponseCacheStats(6, 4, 0, 3, 2048));
+        
+        // Then
+        assertEquals(6, lookups("github", "hit"));
+        assertEquals(4, lookups("github", "miss"));
+        assertEquals(3, registry.get(CacheMetrics.SIZE).tag("cache", "github").gauge().value());
+    }
+    
+    private double lookups(String cache, String result) {
+        return registry.get(CacheMetrics.REQUESTS).tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
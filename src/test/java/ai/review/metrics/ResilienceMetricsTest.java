@@ -0,0 +1,95 @@
+package ai.review.metrics;
+
+import ai.review.github.RateLimitStats;
+import ai.review.http.CircuitBreaker;
+import ai.review.http.CircuitBreakerStats;
+import ai.review.http.LimiterStats;
+import ai.review.ollama.OllamaEndpointStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceMetricsTest {
+    
+    private static final String ENDPOINT = "http://gpu-1:11434/api/generate";
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicReference<RateLimitStats> rateLimits = new AtomicReference<>(new RateLimitStats(List.of(), 0, 0, 0));
+    private final AtomicReference<List<CircuitBreakerStats>> breakers = new AtomicReference<>(List.of(
+        breaker("github", CircuitBreaker.State.CLOSED, 0),
+        breaker("ollama", CircuitBreaker.State.CLOSED, 0)));
+    private final AtomicReference<List<OllamaEndpointStats>> endpoints = new AtomicReference<>(List.of(
+        endpoint(true, 0, new LimiterStats("ollama-gpu-1", 4, 0, 0, 0, 0, 0))));
+    
+    @BeforeEach
+    void setUp() {
+        new ResilienceMetrics(rateLimits::get, breakers::get, endpoints::get).bindTo(registry);
+        // Lookups are only referenced by the meters; they must survive a collection
+        System.gc();
+    }
+    
+    @Test
+    void bindTo_RateLimitBudget_ShouldBeUnknownUntilGitHubReportsIt() {
+        // Given
+        assertTrue(Double.isNaN(registry.get(ResilienceMetrics.RATE_LIMIT_REMAINING).tag("resource", "core").gauge().value()));
+        
+        // When
+        rateLimits.set(new RateLimitStats(List.of(new RateLimitStats.Budget("core", 5000, 312, Instant.now())), 48, 1, 2));
+        
+        // Then
+        assertEquals(312, registry.get(ResilienceMetrics.RATE_LIMIT_REMAINING).tag("resource", "core").gauge().value());
+        assertEquals(5000, registry.get(ResilienceMetrics.RATE_LIMIT_LIMIT).tag("resource", "core").gauge().value());
+        assertEquals(48, rateLimitCalls("throttled"));
+        assertEquals(1, rateLimitCalls("rate_limited"));
+        assertEquals(2, rateLimitCalls("rejected"));
+    }
+    
+    @Test
+    void bindTo_OpenBreaker_ShouldReportStatePerBackend() {
+        // When
+        breakers.set(List.of(breaker("github", CircuitBreaker.State.CLOSED, 0), breaker("ollama", CircuitBreaker.State.OPEN, 3)));
+        
+        // Then
+        assertEquals(1, breakerState("ollama", "open"));
+        assertEquals(0, breakerState("ollama", "closed"));
+        assertEquals(1, breakerState("github", "closed"));
+        assertEquals(3, registry.get(ResilienceMetrics.BREAKER_OPENED).tag("backend", "ollama").functionCounter().count());
+        assertEquals(0, registry.get(ResilienceMetrics.BREAKER_OPENED).tag("backend", "github").functionCounter().count());
+    }
+    
+    @Test
+    void bindTo_EjectedEndpoint_ShouldReportHealthAndLimiterPerEndpoint() {
+        // When
+        endpoints.set(List.of(endpoint(false, 7, new LimiterStats("ollama-gpu-1", 2, 2, 5, 9, 4, 850))));
+        
+        // Then
+        assertEquals(0, registry.get(ResilienceMetrics.ENDPOINT_HEALTHY).tag("endpoint", ENDPOINT).gauge().value());
+        assertEquals(7, registry.get(ResilienceMetrics.ENDPOINT_FAILURES).tag("endpoint", ENDPOINT).functionCounter().count());
+        assertEquals(2, registry.get(ResilienceMetrics.LIMITER_LIMIT).tag("endpoint", ENDPOINT).gauge().value());
+        assertEquals(5, registry.get(ResilienceMetrics.LIMITER_QUEUED).tag("endpoint", ENDPOINT).gauge().value());
+        assertEquals(9, registry.get(ResilienceMetrics.LIMITER_REJECTED).tag("endpoint", ENDPOINT).functionCounter().count());
+        assertEquals(850, registry.get(ResilienceMetrics.LIMITER_LATENCY).tag("endpoint", ENDPOINT).gauge().value());
+    }
+    
+    private double rateLimitCalls(String outcome) {
+        return registry.get(ResilienceMetrics.RATE_LIMIT_CALLS).tag("outcome", outcome).functionCounter().count();
+    }
+    
+    private double breakerState(String backend, String state) {
+        return registry.get(ResilienceMetrics.BREAKER_STATE).tag("backend", backend).tag("state", state).gauge().value();
+    }
+    
+    private static CircuitBreakerStats breaker(String name, CircuitBreaker.State state, long timesOpened) {
+        return new CircuitBreakerStats(name, state, 0.0, 0, 0, 0, timesOpened);
+    }
+    
+    private static OllamaEndpointStats endpoint(boolean healthy, long failures, LimiterStats limiter) {
+        return new OllamaEndpointStats(ENDPOINT, 1, healthy, healthy ? 0 : 3, 20, failures, healthy ? 0 : 1, 0, limiter);
+    }
+}
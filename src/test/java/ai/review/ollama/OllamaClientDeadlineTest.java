@@ -0,0 +1,177 @@
+package ai.review.ollama;
+
+import ai.review.config.OllamaProperties;
+import ai.review.exception.DeadlineExceededException;
+import ai.review.http.Deadline;
+import ai.review.http.StubHttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaClientDeadlineTest {
+    
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch requestReceived = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean stream;
+    
+    private StubHttpServer server;
+    private OllamaClient client;
+    
+    @BeforeEach
+    void startSlowOllama() throws IOException {
+        server = StubHttpServer.start("/api/generate", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            requestReceived.countDown();
+            if (stream) {
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream out = exchange.getResponseBody();
+                out.write("{\"response\":\"Looks \",\"done\":false}\n".getBytes(StandardCharsets.UTF_8));
+                out.write("{\"response\":\"good\",\"done\":false}\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            // A generation that takes longer than anybody is willing to wait
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        }, 0, Executors.newCachedThreadPool());
+        
+        OllamaProperties properties = new OllamaProperties();
+        properties.setApiUrl(server.url("/api/generate"));
+        properties.getRetry().setInitialBackoffMillis(1);
+        properties.getRetry().setMaxBackoffMillis(10);
+        client = new OllamaClient(properties);
+    }
+    
+    @AfterEach
+    void stopSlowOllama() {
+        release.countDown();
+        server.close();
+    }
+    
+    @Test
+    void generate_DeadlineShorterThanGeneration_ShouldGiveUpWithoutRetryOrFailure() {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(300));
+        
+        // When
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> client.generate("prompt", deadline));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertTrue(elapsedMillis < 2000, "Expected to give up at the deadline, took " + elapsedMillis + " ms");
+        assertEquals(1, requests.get());
+        assertEquals(0, client.getCircuitBreakerStats().failedCalls());
+        assertEquals(0, client.getEndpointStats().get(0).failures());
+    }
+    
+    @Test
+    void generate_DeadlineCancelled_ShouldAbortGenerationInFlight() throws Exception {
+        // Given
+        Deadline deadline = Deadline.none();
+        CompletableFuture<String> generation = CompletableFuture.supplyAsync(() -> client.generate("prompt", deadline));
+        assertTrue(requestReceived.await(5, TimeUnit.SECONDS));
+        
+        // When
+        deadline.cancel();
+        
+        // Then
+        Exception exception = assertThrows(Exception.class, () -> generation.get(2, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof DeadlineExceededException, "Unexpected failure: " + exception);
+        assertEquals(1, requests.get());
+    }
+    
+    @Test
+    void generate_BudgetSpentWhileEndpointIsBusy_ShouldFailWithDeadlineExceeded() throws Exception {
+        // Given
+        OllamaProperties properties = new OllamaProperties();
+        properties.setApiUrl(server.url("/api/generate"));
+        properties.setLimiterInitialLimit(1);
+        OllamaClient busyClient = new OllamaClient(properties);
+        Deadline holder = Deadline.none();
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> busyClient.generate("prompt", holder));
+        assertTrue(requestReceived.await(5, TimeUnit.SECONDS));
+        
+        // When
+        assertThrows(DeadlineExceededException.class, () -> busyClient.generate("prompt", Deadline.after(Duration.ZERO)));
+        
+        // Then
+        assertEquals(0, busyClient.getEndpointStats().get(0).limiter().rejected());
+        holder.cancel();
+        assertThrows(Exception.class, () -> inFlight.get(2, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void generateStream_LinesStallPastDeadline_ShouldGiveUpWithinBudget() {
+        // Given
+        stream = true;
+        Deadline deadline = Deadline.after(Duration.ofMillis(300));
+        StringBuilder tokens = new StringBuilder();
+        
+        // When
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> client.generateStream("prompt", tokens::append, deadline));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertTrue(elapsedMillis < 2000, "Expected to give up at the deadline, took " + elapsedMillis + " ms");
+        assertEquals("Looks good", tokens.toString());
+        assertEquals(1, requests.get());
+        assertEquals(0, client.getCircuitBreakerStats().failedCalls());
+    }
+    
+    @Test
+    void generateStream_DeadlineCancelledWhileLinesStall_ShouldAbortStream() throws Exception {
+        // Given
+        stream = true;
+        Deadline deadline = Deadline.none();
+        CountDownLatch tokensReceived = new CountDownLatch(2);
+        CompletableFuture<GenerationStats> generation = CompletableFuture.supplyAsync(
+            () -> client.generateStream("prompt", token -> tokensReceived.countDown(), deadline));
+        assertTrue(tokensReceived.await(5, TimeUnit.SECONDS));
+        
+        // When
+        deadline.cancel();
+        
+        // Then
+        Exception exception = assertThrows(Exception.class, () -> generation.get(2, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof DeadlineExceededException, "Unexpected failure: " + exception);
+        assertEquals(1, requests.get());
+    }
+    
+    @Test
+    void generateStream_ClientGoneMidStream_ShouldStopWithoutCountingServerFailure() {
+        // Given
+        stream = true;
+        Deadline deadline = Deadline.none();
+        
+        // When
+        assertThrows(DeadlineExceededException.class, () -> client.generateStream("prompt", token -> {
+            deadline.cancel();
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        }, deadline));
+        
+        // Then
+        assertEquals(1, requests.get());
+        assertEquals(0, client.getCircuitBreakerStats().failedCalls());
+        assertEquals(0, client.getEndpointStats().get(0).failures());
+    }
+}
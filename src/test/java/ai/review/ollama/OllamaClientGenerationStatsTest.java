@@ -0,0 +1,110 @@
+package ai.review.ollama;
+
+import ai.review.config.OllamaProperties;
+import ai.review.http.Deadline;
+import ai.review.http.StubHttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static ai.review.http.StubHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaClientGenerationStatsTest {
+    
+    private static final String TIMINGS = "\"total_duration\":5043500667,\"load_duration\":5025959,"
+            + "\"prompt_eval_count\":26,\"prompt_eval_duration\":325953000,"
+            + "\"eval_count\":290,\"eval_duration\":4709213000";
+    
+    private volatile String answer;
+    
+    private StubHttpServer server;
+    private OllamaClient client;
+    
+    @BeforeEach
+    void startOllama() throws IOException {
+        server = StubHttpServer.start("/api/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 200, answer);
+        });
+        
+        OllamaProperties properties = new OllamaProperties();
+        properties.setApiUrl(server.url("/api/generate"));
+        client = new OllamaClient(properties);
+    }
+    
+    @AfterEach
+    void stopOllama() {
+        server.close();
+    }
+    
+    @Test
+    void generateWithStats_ShouldParseOllamaTimings() {
+        // Given
+        answer = "{\"response\":\"Looks good\",\"done\":true," + TIMINGS + "}";
+        
+        // When
+        Generation generation = client.generateWithStats("prompt", Deadline.none());
+        
+        // Then
+        assertEquals("Looks good", generation.text());
+        GenerationStats stats = generation.stats();
+        assertEquals(1, stats.generations());
+        assertEquals(5043500667L, stats.totalDuration());
+        assertEquals(5025959L, stats.loadDuration());
+        assertEquals(26, stats.promptEvalCount());
+        assertEquals(325953000L, stats.promptEvalDuration());
+        assertEquals(290, stats.evalCount());
+        assertEquals(4709213000L, stats.evalDuration());
+        assertEquals(61.58, stats.tokensPerSecond(), 0.01);
+    }
+    
+    @Test
+    void generateWithStats_ServerWithoutTimings_ShouldReturnNoStats() {
+        // Given
+        answer = "{\"response\":\"Looks good\"}";
+        
+        // When
+        Generation generation = client.generateWithStats("prompt", Deadline.none());
+        
+        // Then
+        assertEquals("Looks good", generation.text());
+        assertNull(generation.stats());
+    }
+    
+    @Test
+    void generateStream_ShouldReturnTimingsOfFinalLine() {
+        // Given
+        answer = "{\"response\":\"Looks \",\"done\":false}\n"
+                + "{\"response\":\"good\",\"done\":false}\n"
+                + "{\"response\":\"\",\"done\":true," + TIMINGS + "}\n";
+        StringBuilder received = new StringBuilder();
+        
+        // When
+        GenerationStats stats = client.generateStream("prompt", received::append, Deadline.none());
+        
+        // Then
+        assertEquals("Looks good", received.toString());
+        assertEquals(290, stats.evalCount());
+        assertEquals(5025959L, stats.loadDuration());
+    }
+    
+    @Test
+    void sum_ShouldAddUpGenerationsAndIgnoreMissingStats() {
+        // Given
+        GenerationStats chunk = new GenerationStats(1, 3_000_000_000L, 0, 1000, 500_000_000L, 100, 2_000_000_000L);
+        GenerationStats merge = new GenerationStats(1, 2_000_000_000L, 0, 200, 100_000_000L, 50, 1_000_000_000L);
+        
+        // When
+        GenerationStats total = GenerationStats.sum(GenerationStats.sum(null, chunk), merge);
+        
+        // Then
+        assertEquals(2, total.generations());
+        assertEquals(150, total.evalCount());
+        assertEquals(50.0, total.tokensPerSecond(), 0.001);
+        assertEquals(2000.0, total.promptTokensPerSecond(), 0.001);
+        assertSame(chunk, GenerationStats.sum(chunk, null));
+    }
+}
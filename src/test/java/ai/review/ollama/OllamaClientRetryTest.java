@@ -0,0 +1,124 @@
+package ai.review.ollama;
+
+import ai.review.config.OllamaProperties;
+import ai.review.exception.OllamaApiException;
+import ai.review.http.StubHttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ai.review.http.StubHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaClientRetryTest {
+    
+    // Statuses to answer before a successful generation
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile boolean breakStreamAfterFirstToken;
+    
+    private StubHttpServer server;
+    private OllamaProperties properties;
+    
+    @BeforeEach
+    void startStubOllama() throws IOException {
+        server = StubHttpServer.start("/api/generate", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            Integer failure = failures.poll();
+            if (failure != null) {
+                respond(exchange, failure, "{\"error\":\"upstream unavailable\"}");
+            } else if (breakStreamAfterFirstToken) {
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream out = exchange.getResponseBody();
+                out.write("{\"response\":\"Looks \",\"done\":false}\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                // Cut the chunked stream without its terminating chunk
+                exchange.getHttpContext().getServer().stop(0);
+            } else {
+                respond(exchange, 200, "{\"response\":\"Looks good\",\"done\":true}");
+            }
+        });
+        
+        properties = new OllamaProperties();
+        properties.setApiUrl(server.url("/api/generate"));
+        properties.getRetry().setInitialBackoffMillis(1);
+        properties.getRetry().setMaxBackoffMillis(10);
+    }
+    
+    @AfterEach
+    void stopStubOllama() {
+        server.close();
+    }
+    
+    @Test
+    void generate_TransientBadGateway_ShouldRetryAndSucceed() {
+        // Given
+        failures.add(502);
+        failures.add(503);
+        OllamaClient client = new OllamaClient(properties);
+        
+        // When
+        String review = client.generate("prompt");
+        
+        // Then
+        assertEquals("Looks good", review);
+        assertEquals(3, requests.get());
+    }
+    
+    @Test
+    void generate_NonRetryableStatus_ShouldFailWithoutRetry() {
+        // Given
+        failures.add(404);
+        OllamaClient client = new OllamaClient(properties);
+        
+        // When
+        OllamaApiException exception = assertThrows(OllamaApiException.class, () -> client.generate("prompt"));
+        
+        // Then
+        assertEquals(404, exception.getStatusCode());
+        assertEquals(1, requests.get());
+    }
+    
+    @Test
+    void generate_PersistentFailure_ShouldStopAtMaxAttempts() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            failures.add(502);
+        }
+        OllamaClient client = new OllamaClient(properties);
+        
+        // When
+        OllamaApiException exception = assertThrows(OllamaApiException.class, () -> client.generate("prompt"));
+        
+        // Then
+        assertEquals(502, exception.getStatusCode());
+        assertEquals(3, requests.get());
+    }
+    
+    @Test
+    void generateStream_FailureAfterFirstToken_ShouldNotRetry() {
+        // Given
+        breakStreamAfterFirstToken = true;
+        OllamaClient client = new OllamaClient(properties);
+        List<String> tokens = new ArrayList<>();
+        
+        // When
+        OllamaApiException exception = assertThrows(OllamaApiException.class,
+            () -> client.generateStream("prompt", tokens::add));
+        
+        // Then
+        assertEquals(0, exception.getStatusCode(), "Expected a network error, which is otherwise retried");
+        assertEquals(List.of("Looks "), tokens);
+        assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,226 @@
+package ai.review.ollama;
+
+import ai.review.config.AppConfig;
+import ai.review.config.AppProperties;
+import ai.review.http.StubHttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ai.review.http.StubHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for the virtual-thread execution mode: the application is started on a random
+ * port with a small Tomcat worker pool, once on platform threads and once with
+ * spring.threads.virtual.enabled, and many concurrent {@code POST /api/review} calls are
+ * sent to it while stub GitHub and Ollama servers stand in for the backends. The stub model
+ * has a fixed latency and counts the generations in flight; only virtual threads should
+ * lift that count above the worker pool. Runs only when the build uses the Java 21
+ * toolchain (-PjavaVersion=21).
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class OllamaClientVirtualThreadLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(OllamaClientVirtualThreadLoadTest.class);
+    
+    private static final int CONCURRENT_REVIEWS = 100;
+    private static final int TOMCAT_THREADS = 10;
+    private static final long MODEL_LATENCY_MS = 200;
+    
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+    
+    private static ExecutorService stubExecutor;
+    private static StubHttpServer gitHub;
+    private static StubHttpServer ollama;
+    
+    @BeforeAll
+    static void startStubBackends() throws IOException {
+        stubExecutor = Executors.newCachedThreadPool();
+        gitHub = StubHttpServer.start("/repos/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            String prNumber = path.substring(path.lastIndexOf('/') + 1);
+            if (exchange.getRequestHeaders().getFirst("Accept").contains("diff")) {
+                // A diff of its own per pull request, so that no review is served from the cache
+                String diff = "diff --git a/App.java b/App.java\n--- a/App.java\n+++ b/App.java\n"
+                        + "@@ -1 +1 @@\n-int pr = 0;\n+int pr = " + prNumber + ";\n";
+                byte[] bytes = diff.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+                exchange.close();
+            } else {
+                respond(exchange, 200, "{\"number\":" + prNumber + ",\"head\":{\"sha\":\"sha-" + prNumber + "\"}}");
+            }
+        }, CONCURRENT_REVIEWS, stubExecutor);
+        ollama = StubHttpServer.start("/api/generate", exchange -> {
+            int current = inFlight.incrementAndGet();
+            peakInFlight.accumulateAndGet(current, Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(MODEL_LATENCY_MS);
+                respond(exchange, 200, "{\"response\":\"Looks good\",\"done\":true}");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        }, CONCURRENT_REVIEWS, stubExecutor);
+    }
+    
+    @AfterAll
+    static void stopStubBackends() {
+        gitHub.close();
+        ollama.close();
+        stubExecutor.shutdownNow();
+    }
+    
+    @BeforeEach
+    void resetPeak() {
+        peakInFlight.set(0);
+    }
+    
+    @Test
+    void outboundHttpClient_VirtualThreadsEnabled_ShouldRunOnVirtualThreads() {
+        // When
+        HttpClient http = new AppConfig().outboundHttpClient(new AppProperties(), virtualThreads(true));
+        
+        // Then
+        assertInstanceOf(VirtualThreadTaskExecutor.class, http.executor().orElseThrow());
+    }
+    
+    @Test
+    void outboundHttpClient_VirtualThreadsDisabled_ShouldKeepDefaultExecutor() {
+        // When
+        HttpClient http = new AppConfig().outboundHttpClient(new AppProperties(), virtualThreads(false));
+        
+        // Then
+        assertTrue(http.executor().isEmpty());
+    }
+    
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=false",
+        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+        "server.tomcat.threads.min-spare=" + TOMCAT_THREADS
+    })
+    class PlatformThreads {
+        
+        @LocalServerPort
+        int port;
+        
+        @DynamicPropertySource
+        static void backends(DynamicPropertyRegistry registry) {
+            stubBackendProperties(registry);
+        }
+        
+        @Test
+        void postReview_ConcurrentReviews_ShouldBeCappedByTomcatWorkerPool() throws Exception {
+            // When
+            int peak = runConcurrentReviews(port);
+            logger.info("{} reviews at {} ms model latency on a Tomcat pool of {}: peaked at {} in flight",
+                CONCURRENT_REVIEWS, MODEL_LATENCY_MS, TOMCAT_THREADS, peak);
+            
+            // Then
+            assertTrue(peak <= TOMCAT_THREADS,
+                "Expected the worker pool to cap the generations in flight, peak was " + peak);
+        }
+    }
+    
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+        "server.tomcat.threads.min-spare=" + TOMCAT_THREADS
+    })
+    class VirtualThreads {
+        
+        @LocalServerPort
+        int port;
+        
+        @DynamicPropertySource
+        static void backends(DynamicPropertyRegistry registry) {
+            stubBackendProperties(registry);
+        }
+        
+        @Test
+        void postReview_ConcurrentReviews_ShouldLiftConcurrencyAboveTomcatWorkerPool() throws Exception {
+            // When
+            int peak = runConcurrentReviews(port);
+            logger.info("{} reviews at {} ms model latency on virtual threads: peaked at {} in flight",
+                CONCURRENT_REVIEWS, MODEL_LATENCY_MS, peak);
+            
+            // Then
+            assertTrue(peak > TOMCAT_THREADS * 2,
+                "Expected virtual threads to exceed the worker pool of " + TOMCAT_THREADS + ", peak was " + peak);
+        }
+    }
+    
+    /**
+     * Send every review at once and wait for all of them; each one asks about a pull
+     * request of its own
+     */
+    private static int runConcurrentReviews(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int prNumber = 1; prNumber <= CONCURRENT_REVIEWS; prNumber++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/review"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"repository\":\"owner/repo\",\"prNumber\":" + prNumber + "}"))
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            HttpResponse<String> completed = response.get(60, TimeUnit.SECONDS);
+            assertEquals(200, completed.statusCode(), completed.body());
+        }
+        return peakInFlight.get();
+    }
+    
+    /**
+     * Point the application at the stubs, with the model server's concurrency limiter pinned
+     * at the load so that what is measured is the request threads' ceiling rather than the
+     * limiter's
+     */
+    private static void stubBackendProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.github.base-url", gitHub::baseUrl);
+        registry.add("app.ollama.api-url", () -> ollama.url("/api/generate"));
+        registry.add("app.ollama.limiter-initial-limit", () -> CONCURRENT_REVIEWS);
+        registry.add("app.ollama.limiter-min-limit", () -> CONCURRENT_REVIEWS);
+        registry.add("app.ollama.limiter-max-limit", () -> CONCURRENT_REVIEWS);
+        registry.add("app.ollama.limiter-queue-capacity", () -> CONCURRENT_REVIEWS);
+    }
+    
+    private static Environment virtualThreads(boolean enabled) {
+        return new MockEnvironment().withProperty("spring.threads.virtual.enabled", String.valueOf(enabled));
+    }
+}
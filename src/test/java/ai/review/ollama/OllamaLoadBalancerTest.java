@@ -0,0 +1,239 @@
+package ai.review.ollama;
+
+import ai.review.config.OllamaProperties;
+import ai.review.config.OllamaProperties.Routing;
+import ai.review.exception.ConcurrencyLimitExceededException;
+import ai.review.exception.OllamaApiException;
+import ai.review.http.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaLoadBalancerTest {
+    
+    private final MutableClock clock = new MutableClock();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+    
+    @Test
+    void choose_LeastOutstanding_ShouldSpreadSequentialCallsByWeight() {
+        // Given
+        OllamaEndpoint heavy = endpoint("http://gpu-1", 2);
+        OllamaEndpoint light = endpoint("http://gpu-2", 1);
+        OllamaLoadBalancer balancer = new OllamaLoadBalancer(List.of(heavy, light), Routing.LEAST_OUTSTANDING);
+        
+        // When
+        for (int i = 0; i < 30; i++) {
+            OllamaEndpoint chosen = balancer.choose();
+            chosen.execute(() -> "review", e -> false);
+        }
+        
+        // Then
+        assertEquals(20, heavy.requests());
+        assertEquals(10, light.requests());
+    }
+    
+    @Test
+    void choose_LeastOutstanding_ShouldAvoidBusyEndpoint() throws Exception {
+        // Given
+        OllamaEndpoint busy = endpoint("http://gpu-1", 1);
+        OllamaEndpoint idle = endpoint("http://gpu-2", 1);
+        OllamaLoadBalancer balancer = new OllamaLoadBalancer(List.of(busy, idle), Routing.LEAST_OUTSTANDING);
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> busy.execute(() -> block(started), e -> false));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        
+        // When
+        OllamaEndpoint chosen = balancer.choose();
+        
+        // Then
+        assertSame(idle, chosen);
+        assertEquals(1, busy.stats().outstanding());
+    }
+    
+    @Test
+    void execute_ConsecutiveFailuresReachThreshold_ShouldEjectEndpoint() {
+        // Given
+        OllamaEndpoint failing = endpoint("http://gpu-1", 1);
+        OllamaEndpoint healthy = endpoint("http://gpu-2", 1);
+        OllamaLoadBalancer balancer = new OllamaLoadBalancer(List.of(failing, healthy), Routing.LEAST_OUTSTANDING);
+        
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThrows(OllamaApiException.class, () -> failing.execute(() -> { throw serverError(); }, e -> false));
+        }
+        
+        // Then
+        OllamaEndpointStats stats = failing.stats();
+        assertFalse(stats.healthy());
+        assertEquals(3, stats.failures());
+        assertEquals(1, stats.ejections());
+        for (int i = 0; i < 5; i++) {
+            assertSame(healthy, balancer.choose());
+        }
+    }
+    
+    @Test
+    void execute_ClientErrorOrLimiterRejection_ShouldNotCountAsFailure() {
+        // Given
+        OllamaEndpoint endpoint = endpoint("http://gpu-1", 1);
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThrows(OllamaApiException.class, () -> endpoint.execute(
+                () -> { throw new OllamaApiException("model not found", 404, "model"); }, e -> false));
+            assertThrows(ConcurrencyLimitExceededException.class, () -> endpoint.execute(
+                () -> { throw new ConcurrencyLimitExceededException("saturated", 1); }, e -> false));
+        }
+        
+        // Then
+        assertTrue(endpoint.isHealthy());
+        assertEquals(0, endpoint.stats().failures());
+    }
+    
+    @Test
+    void choose_AfterEjectionTime_ShouldTryEndpointAgainAndReejectOnFailedTrial() {
+        // Given
+        OllamaEndpoint flaky = endpoint("http://gpu-1", 1);
+        OllamaEndpoint other = endpoint("http://gpu-2", 1);
+        OllamaLoadBalancer balancer = new OllamaLoadBalancer(List.of(flaky, other), Routing.LEAST_OUTSTANDING);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(OllamaApiException.class, () -> flaky.execute(() -> { throw networkError(); }, e -> false));
+        }
+        
+        // When
+        clock.advance(Duration.ofSeconds(30));
+        boolean healthyAfterEjection = flaky.isHealthy();
+        assertThrows(OllamaApiException.class, () -> flaky.execute(() -> { throw networkError(); }, e -> false));
+        
+        // Then
+        assertTrue(healthyAfterEjection);
+        assertFalse(flaky.isHealthy());
+        assertEquals(2, flaky.stats().ejections());
+        assertSame(other, balancer.choose());
+    }
+    
+    @Test
+    void choose_AllEndpointsEjected_ShouldPickEndpointReturningFirst() {
+        // Given
+        OllamaEndpoint first = endpoint("http://gpu-1", 1);
+        OllamaEndpoint second = endpoint("http://gpu-2", 1);
+        OllamaLoadBalancer balancer = new OllamaLoadBalancer(List.of(first, second), Routing.LATENCY);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(OllamaApiException.class, () -> second.execute(() -> { throw serverError(); }, e -> false));
+        }
+        clock.advance(Duration.ofSeconds(10));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(OllamaApiException.class, () -> first.execute(() -> { throw serverError(); }, e -> false));
+        }
+        
+        // When
+        OllamaEndpoint chosen = balancer.choose();
+        
+        // Then
+        assertFalse(first.isHealthy());
+        assertFalse(second.isHealthy());
+        assertSame(second, chosen);
+    }
+    
+    @Test
+    void fromProperties_WithoutEndpoints_ShouldUseApiUrlAndToken() {
+        // Given
+        OllamaProperties properties = new OllamaProperties();
+        properties.setApiUrl("http://localhost:11434/api/generate");
+        properties.setApiToken("secret");
+        
+        // When
+        OllamaLoadBalancer balancer = OllamaLoadBalancer.fromProperties(properties, clock);
+        
+        // Then
+        OllamaEndpoint endpoint = balancer.choose();
+        assertEquals(URI.create("http://localhost:11434/api/generate"), endpoint.uri());
+        assertEquals("secret", endpoint.apiToken());
+        assertEquals("ollama", balancer.stats().get(0).limiter().name());
+    }
+    
+    @Test
+    void fromProperties_WithEndpoints_ShouldKeepWeightsAndLimitEachEndpointSeparately() {
+        // Given
+        OllamaProperties properties = new OllamaProperties();
+        properties.setApiToken("shared");
+        OllamaProperties.Endpoint own = new OllamaProperties.Endpoint("http://gpu-1", 2);
+        own.setApiToken("own");
+        properties.setEndpoints(List.of(own, new OllamaProperties.Endpoint("http://gpu-2", 1)));
+        
+        // When
+        List<OllamaEndpointStats> stats = OllamaLoadBalancer.fromProperties(properties, clock).stats();
+        
+        // Then
+        assertEquals(List.of("http://gpu-1", "http://gpu-2"), stats.stream().map(OllamaEndpointStats::url).toList());
+        assertEquals(2, stats.get(0).weight());
+        assertEquals("ollama http://gpu-2", stats.get(1).limiter().name());
+    }
+    
+    private OllamaEndpoint endpoint(String url, int weight) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            url, 4, 1, 4, 10, Duration.ofSeconds(5), 2.0);
+        return new OllamaEndpoint(URI.create(url), null, weight, limiter, 3, Duration.ofSeconds(30), clock);
+    }
+    
+    private String block(CountDownLatch started) {
+        started.countDown();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+    
+    private static OllamaApiException serverError() {
+        return new OllamaApiException("Failed to generate response", 500, "model");
+    }
+    
+    private static OllamaApiException networkError() {
+        return new OllamaApiException("Network error", 0, "model", new IOException("Connection refused"));
+    }
+    
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ai.review.service;
+
+import ai.review.config.BatchProperties;
+import ai.review.dto.BatchReviewItemResponse;
+import ai.review.dto.ReviewRequest;
+import ai.review.dto.ReviewResponse;
+import ai.review.http.Deadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchReviewServiceTest {
+    
+    private BatchReviewService batchReviewService;
+    
+    @Mock
+    private ReviewService reviewService;
+    
+    @AfterEach
+    void tearDown() {
+        if (batchReviewService != null) {
+            batchReviewService.shutdown();
+        }
+    }
+    
+    @Test
+    void reviewAll_ShouldDeliverEveryItemAndKeepFailuresPerItem() throws Exception {
+        // Given
+        batchReviewService = new BatchReviewService(reviewService, properties(2));
+        stubDeadlines();
+        when(reviewService.reviewPullRequest(any(), any())).thenAnswer(invocation -> {
+            ReviewRequest request = invocation.getArgument(0);
+            if (request.getPrNumber() == 2) {
+                throw new IllegalStateException("model unavailable");
+            }
+            return new ReviewResponse("Review of #" + request.getPrNumber(), false, "Review generated successfully");
+        });
+        List<BatchReviewItemResponse> results = new CopyOnWriteArrayList<>();
+        
+        // When
+        batchReviewService.reviewAll(requests(3), results::add).get(10, TimeUnit.SECONDS);
+        
+        // Then
+        results.sort(Comparator.comparingInt(BatchReviewItemResponse::getIndex));
+        assertEquals(3, results.size());
+        assertEquals("Review of #1", results.get(0).getResult().getReview());
+        assertNull(results.get(1).getResult());
+        assertEquals("model unavailable", results.get(1).getError());
+        assertEquals(2, results.get(1).getPrNumber());
+        assertEquals("Review of #3", results.get(2).getResult().getReview());
+    }
+    
+    @Test
+    void reviewAll_ShouldRunItemsConcurrentlyUpToParallelism() throws Exception {
+        // Given
+        batchReviewService = new BatchReviewService(reviewService, properties(2));
+        stubDeadlines();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        when(reviewService.reviewPullRequest(any(), any())).thenAnswer(invocation -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(100);
+            inFlight.decrementAndGet();
+            return new ReviewResponse("ok", false, "Review generated successfully");
+        });
+        
+        // When
+        long start = System.nanoTime();
+        batchReviewService.reviewAll(requests(6), result -> { }).get(10, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertEquals(2, peakInFlight.get());
+        assertTrue(elapsedMillis < 600, "Expected about 300 ms with 2 in flight, took " + elapsedMillis);
+    }
+    
+    @Test
+    void reviewAll_WhenDeliveryFails_ShouldSkipItemsNotStartedYet() {
+        // Given
+        batchReviewService = new BatchReviewService(reviewService, properties(1));
+        stubDeadlines();
+        when(reviewService.reviewPullRequest(any(), any()))
+            .thenReturn(new ReviewResponse("ok", false, "Review generated successfully"));
+        
+        // When
+        CompletableFuture<Void> batch = batchReviewService.reviewAll(requests(3), result -> {
+            throw new IllegalStateException("client disconnected");
+        });
+        
+        // Then
+        assertThrows(CompletionException.class, batch::join);
+        verify(reviewService, times(1)).reviewPullRequest(any());
+    }
+    
+    @Test
+    void reviewAll_WhenDeliveryFails_ShouldCancelDeadlinesOfRunningItems() throws Exception {
+        // Given
+        batchReviewService = new BatchReviewService(reviewService, properties(2));
+        stubDeadlines();
+        CountDownLatch slowItemStarted = new CountDownLatch(1);
+        CountDownLatch slowItemCancelled = new CountDownLatch(1);
+        when(reviewService.reviewPullRequest(any(), any())).thenAnswer(invocation -> {
+            ReviewRequest request = invocation.getArgument(0);
+            Deadline deadline = invocation.getArgument(1);
+            if (request.getPrNumber() == 1) {
+                // A long generation, aborted only through its deadline
+                slowItemStarted.countDown();
+                while (!deadline.isCancelled()) {
+                    Thread.sleep(5);
+                }
+                slowItemCancelled.countDown();
+            } else {
+                slowItemStarted.await(5, TimeUnit.SECONDS);
+            }
+            return new ReviewResponse("ok", false, "Review generated successfully");
+        });
+        
+        // When
+        CompletableFuture<Void> batch = batchReviewService.reviewAll(requests(2), result -> {
+            throw new IllegalStateException("client disconnected");
+        });
+        
+        // Then
+        assertTrue(slowItemCancelled.await(5, TimeUnit.SECONDS));
+        assertThrows(CompletionException.class, batch::join);
+    }
+    
+    private void stubDeadlines() {
+        when(reviewService.deadlineFor(any())).thenAnswer(invocation -> Deadline.none());
+    }
+    
+    private static BatchProperties properties(int parallelism) {
+        BatchProperties properties = new BatchProperties();
+        properties.setParallelism(parallelism);
+        return properties;
+    }
+    
+    private static List<ReviewRequest> requests(int count) {
+        return IntStream.rangeClosed(1, count)
+            .mapToObj(pr -> new ReviewRequest("owner/repo", pr, false))
+            .toList();
+    }
+}
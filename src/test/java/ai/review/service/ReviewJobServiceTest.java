@@ -0,0 +1,112 @@
+package ai.review.service;
+
+import ai.review.config.JobProperties;
+import ai.review.dto.ReviewJobResponse;
+import ai.review.dto.ReviewJobStatus;
+import ai.review.dto.ReviewRequest;
+import ai.review.dto.ReviewResponse;
+import ai.review.exception.ReviewJobNotFoundException;
+import ai.review.exception.ReviewJobRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewJobServiceTest {
+    
+    private ReviewJobService reviewJobService;
+    
+    @Mock
+    private ReviewService reviewService;
+    
+    @BeforeEach
+    void setUp() {
+        JobProperties properties = new JobProperties();
+        properties.setWorkerThreads(1);
+        properties.setQueueCapacity(1);
+        reviewJobService = new ReviewJobService(reviewService, properties);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        reviewJobService.shutdown();
+    }
+    
+    @Test
+    void submit_ShouldCompleteJobInBackground() throws InterruptedException {
+        // Given
+        ReviewRequest request = new ReviewRequest("owner/repo", 123, false);
+        ReviewResponse expected = new ReviewResponse("Looks good", false, "Review generated successfully");
+        when(reviewService.reviewPullRequest(any())).thenReturn(expected);
+        
+        // When
+        ReviewJobResponse submitted = reviewJobService.submit(request);
+        ReviewJobResponse finished = awaitCompletion(submitted.getJobId());
+        
+        // Then
+        assertNotNull(submitted.getJobId());
+        assertEquals(ReviewJobStatus.SUCCEEDED, finished.getStatus());
+        assertEquals("Looks good", finished.getResult().getReview());
+        assertNotNull(finished.getCompletedAt());
+    }
+    
+    @Test
+    void submit_WhenGenerationFails_ShouldMarkJobFailed() throws InterruptedException {
+        // Given
+        ReviewRequest request = new ReviewRequest("owner/repo", 123, false);
+        when(reviewService.reviewPullRequest(any())).thenThrow(new IllegalStateException("model unavailable"));
+        
+        // When
+        ReviewJobResponse finished = awaitCompletion(reviewJobService.submit(request).getJobId());
+        
+        // Then
+        assertEquals(ReviewJobStatus.FAILED, finished.getStatus());
+        assertEquals("model unavailable", finished.getError());
+        assertNull(finished.getResult());
+    }
+    
+    @Test
+    void submit_WhenQueueIsFull_ShouldRejectJob() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(reviewService.reviewPullRequest(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new ReviewResponse("Looks good", false, "Review generated successfully");
+        });
+        ReviewRequest request = new ReviewRequest("owner/repo", 123, false);
+        
+        // When
+        reviewJobService.submit(request); // occupies the only worker
+        reviewJobService.submit(request); // fills the queue
+        
+        // Then
+        assertThrows(ReviewJobRejectedException.class, () -> reviewJobService.submit(request));
+        release.countDown();
+    }
+    
+    @Test
+    void getJob_WithUnknownId_ShouldThrowNotFound() {
+        assertThrows(ReviewJobNotFoundException.class, () -> reviewJobService.getJob("missing-job"));
+    }
+    
+    private ReviewJobResponse awaitCompletion(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        ReviewJobResponse job = reviewJobService.getJob(jobId);
+        while (job.getStatus() != ReviewJobStatus.SUCCEEDED && job.getStatus() != ReviewJobStatus.FAILED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = reviewJobService.getJob(jobId);
+        }
+        return job;
+    }
+}
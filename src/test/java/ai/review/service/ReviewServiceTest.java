@@ -1,20 +1,67 @@
 package ai.review.service;
 
+import ai.review.cache.ReviewCache;
+import ai.review.config.ReviewProperties;
+import ai.review.diff.UnifiedDiff;
+import ai.review.diff.UnifiedDiffParser;
+import ai.review.dto.ReviewRequest;
+import ai.review.dto.ReviewResponse;
+import ai.review.exception.DeadlineExceededException;
+import ai.review.exception.GitHubApiException;
+import ai.review.exception.ReviewGenerationException;
 import ai.review.exception.ValidationException;
 import ai.review.github.GitHubClient;
+import ai.review.http.Deadline;
+import ai.review.metrics.ReviewMetrics;
+import ai.review.ollama.Generation;
+import ai.review.ollama.GenerationStats;
 import ai.review.ollama.OllamaClient;
+import ai.review.template.TemplateRegistry;
+import ai.review.tracing.Tracer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ReviewServiceTest {
     
+    private static final UnifiedDiff SAMPLE_DIFF = UnifiedDiffParser.parse("""
+        diff --git a/src/main/java/ai/review/Example.java b/src/main/java/ai/review/Example.java
+        index 3b18e51..a9c3f2d 100644
+        --- a/src/main/java/ai/review/Example.java
+        +++ b/src/main/java/ai/review/Example.java
+        @@ -1,5 +1,6 @@
+         package ai.review;
+        
+        +import java.util.Objects;
+         public class Example {
+             private final String name;
+         }
+        """);
+    
     private ReviewService reviewService;
     
     @Mock
@@ -131,11 +178,10 @@ class ReviewServiceTest {
         // Given
         String validRepo = "owner/repo";
         int validPrNumber = 123;
-        String mockDiff = "diff content";
         String expectedReview = "QA automation review";
         
-        when(gitHubClient.getPullRequestDiff(validRepo, validPrNumber)).thenReturn(mockDiff);
-        when(ollamaClient.generate(org.mockito.ArgumentMatchers.anyString())).thenReturn(expectedReview);
+        when(gitHubClient.getPullRequestDiff(eq(validRepo), eq(validPrNumber), any())).thenReturn(SAMPLE_DIFF);
+        when(ollamaClient.generateWithStats(anyString(), any())).thenReturn(generation(expectedReview));
         
         // When
         String result = reviewService.generateReview(validRepo, validPrNumber, "qa-automation-prompt-template.txt");
@@ -149,11 +195,10 @@ class ReviewServiceTest {
         // Given
         String validRepo = "owner/repo";
         int validPrNumber = 123;
-        String mockDiff = "diff content";
         String expectedReview = "General review";
         
-        when(gitHubClient.getPullRequestDiff(validRepo, validPrNumber)).thenReturn(mockDiff);
-        when(ollamaClient.generate(org.mockito.ArgumentMatchers.anyString())).thenReturn(expectedReview);
+        when(gitHubClient.getPullRequestDiff(eq(validRepo), eq(validPrNumber), any())).thenReturn(SAMPLE_DIFF);
+        when(ollamaClient.generateWithStats(anyString(), any())).thenReturn(generation(expectedReview));
         
         // When
         String result = reviewService.generateReview(validRepo, validPrNumber, "prompt-template.txt");
@@ -161,4 +206,312 @@ class ReviewServiceTest {
         // Then
         assertEquals(expectedReview, result);
     }
+    
+    @Test
+    void streamReview_ShouldForwardTokensFromOllama() {
+        // Given
+        String validRepo = "owner/repo";
+        int validPrNumber = 123;
+        
+        when(gitHubClient.getPullRequestDiff(eq(validRepo), eq(validPrNumber), any())).thenReturn(SAMPLE_DIFF);
+        doAnswer(invocation -> {
+            Consumer<String> onToken = invocation.getArgument(1);
+            onToken.accept("Looks ");
+            onToken.accept("good");
+            return null;
+        }).when(ollamaClient).generateStream(anyString(), any(), any());
+        
+        // When
+        StringBuilder received = new StringBuilder();
+        reviewService.streamReview(validRepo, validPrNumber, "prompt-template.txt", received::append);
+        
+        // Then
+        assertEquals("Looks good", received.toString());
+    }
+    
+    @Test
+    void streamReview_WithNoTokens_ShouldThrowReviewGenerationException() {
+        // Given
+        String validRepo = "owner/repo";
+        int validPrNumber = 123;
+        
+        when(gitHubClient.getPullRequestDiff(eq(validRepo), eq(validPrNumber), any())).thenReturn(SAMPLE_DIFF);
+        
+        // When & Then
+        ReviewGenerationException exception = assertThrows(ReviewGenerationException.class, () -> {
+            reviewService.streamReview(validRepo, validPrNumber, "prompt-template.txt", token -> {});
+        });
+        
+        assertTrue(exception.getMessage().contains("AI service returned empty review"));
+    }
+    
+    @Test
+    void generateReview_WithUnchangedDiff_ShouldServeSecondRequestFromCache() {
+        // Given
+        ReviewService cachingService = new ReviewService(gitHubClient, ollamaClient, new ReviewCache(10, Duration.ofMinutes(5)),
+            new ReviewProperties(), new TemplateRegistry(), ReviewMetrics.disabled(), Tracer.noop());
+        String validRepo = "owner/repo";
+        int validPrNumber = 123;
+        
+        when(gitHubClient.getPullRequestDiff(eq(validRepo), eq(validPrNumber), any())).thenReturn(SAMPLE_DIFF);
+        when(ollamaClient.generateWithStats(anyString(), any())).thenReturn(generation("General review"));
+        
+        // When
+        String first = cachingService.generateReview(validRepo, validPrNumber, "prompt-template.txt");
+        String second = cachingService.generateReview(validRepo, validPrNumber, "prompt-template.txt");
+        
+        // Then
+        assertEquals("General review", first);
+        assertEquals("General review", second);
+        verify(ollamaClient, times(1)).generateWithStats(anyString(), any());
+        assertEquals(1, cachingService.getCacheStats().hits());
+    }
+    
+    @Test
+    void generateReview_WithConcurrentIdenticalRequests_ShouldShareOneGeneration() throws Exception {
+        // Given
+        String validRepo = "owner/repo";
+        int validPrNumber = 123;
+        CountDownLatch generationStarted = new CountDownLatch(1);
+        CountDownLatch releaseGeneration = new CountDownLatch(1);
+        
+        when(gitHubClient.getPullRequest(eq(validRepo), eq(validPrNumber), any()))
+            .thenReturn(new ObjectMapper().readTree("{\"head\":{\"sha\":\"abc123\"}}"));
+        when(gitHubClient.getPullRequestDiff(eq(validRepo), eq(validPrNumber), any())).thenReturn(SAMPLE_DIFF);
+        when(ollamaClient.generateWithStats(anyString(), any())).thenAnswer(invocation -> {
+            generationStarted.countDown();
+            releaseGeneration.await(5, TimeUnit.SECONDS);
+            return generation("Shared review");
+        });
+        
+        // When
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(
+            () -> reviewService.generateReview(validRepo, validPrNumber, "prompt-template.txt"));
+        assertTrue(generationStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(
+            () -> reviewService.generateReview(validRepo, validPrNumber, "prompt-template.txt"));
+        while (reviewService.getCoalescedRequests() == 0 && !follower.isDone()) {
+            Thread.sleep(5);
+        }
+        releaseGeneration.countDown();
+        
+        // Then
+        assertEquals("Shared review", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("Shared review", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, reviewService.getCoalescedRequests());
+        verify(ollamaClient, times(1)).generateWithStats(anyString(), any());
+    }
+    
+    @Test
+    void reviewPullRequest_WhenJoinedRequestRunsOutOfItsDeadline_ShouldGenerateUnderOwnDeadline() throws Exception {
+        // Given
+        ReviewRequest request = new ReviewRequest();
+        request.setRepository("owner/repo");
+        request.setPrNumber(123);
+        CountDownLatch generationStarted = new CountDownLatch(1);
+        CountDownLatch releaseGeneration = new CountDownLatch(1);
+        AtomicInteger generations = new AtomicInteger();
+        
+        when(gitHubClient.getPullRequest(eq("owner/repo"), eq(123), any()))
+            .thenReturn(new ObjectMapper().readTree("{\"head\":{\"sha\":\"abc123\"}}"));
+        when(gitHubClient.getPullRequestDiff(eq("owner/repo"), eq(123), any())).thenReturn(SAMPLE_DIFF);
+        when(ollamaClient.generateWithStats(anyString(), any())).thenAnswer(invocation -> {
+            if (generations.incrementAndGet() > 1) {
+                return generation("Fresh review");
+            }
+            generationStarted.countDown();
+            releaseGeneration.await(5, TimeUnit.SECONDS);
+            throw new DeadlineExceededException("Request deadline of 1000 ms exceeded while generating a review", 1000);
+        });
+        
+        // When
+        CompletableFuture<ReviewResponse> leader = CompletableFuture.supplyAsync(
+            () -> reviewService.reviewPullRequest(request, Deadline.after(Duration.ofSeconds(1))));
+        assertTrue(generationStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ReviewResponse> follower = CompletableFuture.supplyAsync(
+            () -> reviewService.reviewPullRequest(request, Deadline.after(Duration.ofSeconds(300))));
+        while (reviewService.getCoalescedRequests() == 0 && !follower.isDone()) {
+            Thread.sleep(5);
+        }
+        releaseGeneration.countDown();
+        
+        // Then
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, leaderFailure.getCause());
+        assertEquals("Fresh review", follower.get(5, TimeUnit.SECONDS).getReview());
+        verify(ollamaClient, times(2)).generateWithStats(anyString(), any());
+    }
+    
+    @Test
+    void deadlineFor_TimeoutOverMaximum_ShouldThrowValidationException() {
+        // Given
+        ReviewProperties properties = new ReviewProperties();
+        properties.setMaxTimeoutSeconds(300);
+        ReviewService boundedService = new ReviewService(gitHubClient, ollamaClient, ReviewCache.disabled(), properties,
+            new TemplateRegistry(), ReviewMetrics.disabled(), Tracer.noop());
+        ReviewRequest request = new ReviewRequest("owner/repo", 123, false);
+        request.setTimeoutSeconds(301);
+        
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class, () -> boundedService.deadlineFor(request));
+        
+        assertEquals("timeoutSeconds", exception.getField());
+        assertEquals(301, exception.getValue());
+        request.setTimeoutSeconds(300);
+        assertFalse(boundedService.deadlineFor(request).isExpired());
+    }
+    
+    @Test
+    void generateReview_WithDiffOverTokenBudget_ShouldReviewChunksAndMergeReviews() {
+        // Given
+        ReviewProperties properties = new ReviewProperties();
+        properties.setChunkTokenBudget(250);
+        ReviewService chunkingService = new ReviewService(gitHubClient, ollamaClient, ReviewCache.disabled(), properties,
+            new TemplateRegistry(), ReviewMetrics.disabled(), Tracer.noop());
+        String validRepo = "owner/repo";
+        int validPrNumber = 123;
+        UnifiedDiff diff = UnifiedDiffParser.parse(fileDiff("src/main/java/First.java") + fileDiff("src/main/java/Second.java"));
+        
+        when(gitHubClient.getPullRequestDiff(eq(validRepo), eq(validPrNumber), any())).thenReturn(diff);
+        when(ollamaClient.generateWithStats(anyString(), any())).thenAnswer(invocation -> {
+            String prompt = invocation.getArgument(0);
+            if (prompt.contains("Ревью частей PR")) {
+                return generation("Merged review");
+            }
+            return generation(prompt.contains("First.java") ? "Review of First" : "Review of Second");
+        });
+        
+        // When
+        String review = chunkingService.generateReview(validRepo, validPrNumber, "prompt-template.txt");
+        
+        // Then
+        assertEquals("Merged review", review);
+        ArgumentCaptor<String> prompts = ArgumentCaptor.forClass(String.class);
+        verify(ollamaClient, times(3)).generateWithStats(prompts.capture(), any());
+        String reducePrompt = prompts.getAllValues().get(2);
+        assertTrue(reducePrompt.contains("Review of First"));
+        assertTrue(reducePrompt.contains("Review of Second"));
+        assertTrue(reducePrompt.contains("src/main/java/First.java"));
+        chunkingService.shutdown();
+    }
+    
+    @Test
+    void reviewPullRequest_WithExcludePaths_ShouldLeaveFilesOutOfPromptAndReportThem() {
+        // Given
+        String validRepo = "owner/repo";
+        int validPrNumber = 123;
+        UnifiedDiff diff = UnifiedDiffParser.parse(fileDiff("src/main/java/App.java") + fileDiff("package-lock.json"));
+        ReviewRequest request = new ReviewRequest(validRepo, validPrNumber, false);
+        request.setExcludePaths(List.of("**/package-lock.json"));
+        
+        when(gitHubClient.getPullRequestDiff(eq(validRepo), eq(validPrNumber), any())).thenReturn(diff);
+        when(ollamaClient.generateWithStats(anyString(), any())).thenReturn(generation("General review"));
+        
+        // When
+        ReviewResponse response = reviewService.reviewPullRequest(request);
+        
+        // Then
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(ollamaClient).generateWithStats(prompt.capture(), any());
+        assertTrue(prompt.getValue().contains("src/main/java/App.java"));
+        assertFalse(prompt.getValue().contains("package-lock.json"));
+        assertEquals(1, response.getDiffFilter().getReviewedFiles());
+        assertEquals(List.of("package-lock.json"), response.getDiffFilter().getDroppedFiles());
+        assertTrue(response.getDiffFilter().getDroppedTokens() > 0);
+    }
+    
+    @Test
+    void reviewPullRequest_WithMalformedGlob_ShouldThrowValidationException() {
+        // Given
+        ReviewRequest request = new ReviewRequest("owner/repo", 123, false);
+        request.setIncludePaths(List.of("src/[a"));
+        
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class, () -> reviewService.reviewPullRequest(request));
+        assertEquals("includePaths", exception.getField());
+    }
+    
+    @Test
+    void generateReview_WithMetrics_ShouldRecordStageDurationsAndSizes() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReviewService measuredService = new ReviewService(gitHubClient, ollamaClient, ReviewCache.disabled(),
+            new ReviewProperties(), new TemplateRegistry(), new ReviewMetrics(registry), Tracer.noop());
+        
+        when(gitHubClient.getPullRequestDiff(eq("owner/repo"), eq(123), any())).thenReturn(SAMPLE_DIFF);
+        when(ollamaClient.generateWithStats(anyString(), any())).thenReturn(generation("General review"));
+        
+        // When
+        measuredService.generateReview("owner/repo", 123, "prompt-template.txt");
+        
+        // Then
+        for (String stage : List.of("pull_request_fetch", "diff_fetch", "prompt_build", "generation")) {
+            assertEquals(1, registry.get(ReviewMetrics.STAGE_DURATION).tag("stage", stage).tag("outcome", "success")
+                .timer().count(), stage);
+        }
+        assertEquals(SAMPLE_DIFF.utf8Length(), registry.get(ReviewMetrics.DIFF_SIZE).summary().totalAmount(), 0.0);
+        assertTrue(registry.get(ReviewMetrics.PROMPT_SIZE).summary().totalAmount() > SAMPLE_DIFF.length());
+        assertEquals("General review".length(), registry.get(ReviewMetrics.RESPONSE_SIZE).summary().totalAmount(), 0.0);
+    }
+    
+    @Test
+    void generateReview_WhenGitHubFails_ShouldCountErrorByExceptionType() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReviewService measuredService = new ReviewService(gitHubClient, ollamaClient, ReviewCache.disabled(),
+            new ReviewProperties(), new TemplateRegistry(), new ReviewMetrics(registry), Tracer.noop());
+        
+        when(gitHubClient.getPullRequestDiff(eq("owner/repo"), eq(123), any()))
+            .thenThrow(new GitHubApiException("Failed to fetch PR diff", 502, "Bad Gateway"));
+        
+        // When
+        assertThrows(ReviewGenerationException.class,
+            () -> measuredService.generateReview("owner/repo", 123, "prompt-template.txt"));
+        
+        // Then
+        assertEquals(1, registry.get(ReviewMetrics.ERRORS).tag("exception", "GitHubApiException").counter().count());
+        assertEquals(1, registry.get(ReviewMetrics.STAGE_DURATION).tag("stage", "diff_fetch").tag("outcome", "error")
+            .timer().count());
+    }
+    
+    @Test
+    void reviewPullRequest_WithGenerationStatsRequested_ShouldReturnAndRecordThem() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReviewService measuredService = new ReviewService(gitHubClient, ollamaClient, ReviewCache.disabled(),
+            new ReviewProperties(), new TemplateRegistry(), new ReviewMetrics(registry), Tracer.noop());
+        ReviewRequest request = new ReviewRequest("owner/repo", 123, false);
+        request.setIncludeGenerationStats(true);
+        GenerationStats stats = new GenerationStats(1, 6_000_000_000L, 1_500_000_000L, 800, 400_000_000L, 200, 4_000_000_000L);
+        
+        when(gitHubClient.getPullRequestDiff(eq("owner/repo"), eq(123), any())).thenReturn(SAMPLE_DIFF);
+        when(ollamaClient.getModel()).thenReturn("openchat:latest");
+        when(ollamaClient.generateWithStats(anyString(), any())).thenReturn(new Generation("General review", stats));
+        
+        // When
+        ReviewResponse response = measuredService.reviewPullRequest(request);
+        
+        // Then
+        assertEquals(stats, response.getGenerationStats());
+        assertEquals(50.0, registry.get(ReviewMetrics.MODEL_THROUGHPUT).tag("model", "openchat:latest").summary()
+            .totalAmount(), 0.001);
+        assertEquals(1.5, registry.get(ReviewMetrics.MODEL_LOAD_DURATION).timer().totalTime(TimeUnit.SECONDS), 0.001);
+        assertEquals(800, registry.get(ReviewMetrics.MODEL_TOKENS).tag("type", "prompt").counter().count());
+    }
+    
+    private static Generation generation(String text) {
+        return new Generation(text, null);
+    }
+    
+    private static String fileDiff(String path) {
+        StringBuilder diff = new StringBuilder()
+            .append("diff --git a/").append(path).append(" b/").append(path).append('\n')
+            .append("--- a/").append(path).append('\n')
+            .append("+++ b/").append(path).append('\n')
+            .append("@@ -0,0 +1,15 @@\n");
+        for (int i = 0; i < 15; i++) {
+            diff.append("+    private final String field").append(i).append(" = \"value\";\n");
+        }
+        return diff.toString();
+    }
 }
@@ -0,0 +1,47 @@
+package ai.review.template;
+
+import ai.review.cache.Hashing;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptTemplateTest {
+    
+    @Test
+    void render_ShouldReplaceEveryOccurrenceOfPlaceholder() {
+        // Given
+        PromptTemplate template = PromptTemplate.parse("t.txt", "Diff:\n{DIFF_CONTENT}\nAgain: {DIFF_CONTENT}.");
+        
+        // When
+        String prompt = template.render("DIFF_CONTENT", "+a");
+        
+        // Then
+        assertEquals("Diff:\n+a\nAgain: +a.", prompt);
+    }
+    
+    @Test
+    void render_ShouldKeepOtherPlaceholdersAndBraces() {
+        // Given
+        PromptTemplate template = PromptTemplate.parse("t.txt", "{ \"json\": 1 } {CHUNK_REVIEWS} {DIFF_CONTENT}");
+        
+        // When
+        String prompt = template.render("DIFF_CONTENT", 2, target -> target.append("+a"));
+        
+        // Then
+        assertEquals("{ \"json\": 1 } {CHUNK_REVIEWS} +a", prompt);
+    }
+    
+    @Test
+    void render_WithoutPlaceholder_ShouldReturnTemplateText() {
+        PromptTemplate template = PromptTemplate.parse("t.txt", "Просто текст");
+        
+        assertEquals("Просто текст", template.render("DIFF_CONTENT", "ignored"));
+    }
+    
+    @Test
+    void getHash_ShouldBeHashOfTemplateText() {
+        PromptTemplate template = PromptTemplate.parse("t.txt", "Шаблон {DIFF_CONTENT}");
+        
+        assertEquals(Hashing.sha256Hex("Шаблон {DIFF_CONTENT}"), template.getHash());
+    }
+}
@@ -0,0 +1,109 @@
+package ai.review.template;
+
+import ai.review.exception.ReviewGenerationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateRegistryTest {
+    
+    @TempDir
+    Path directory;
+    
+    private TemplateRegistry registry;
+    
+    @AfterEach
+    void closeRegistry() throws IOException {
+        if (registry != null) {
+            registry.close();
+        }
+    }
+    
+    @Test
+    void get_BuiltInTemplate_ShouldServeSameParsedInstance() {
+        // Given
+        registry = new TemplateRegistry();
+        
+        // When
+        PromptTemplate first = registry.get("prompt-template.txt");
+        PromptTemplate second = registry.get("prompt-template.txt");
+        
+        // Then
+        assertSame(first, second);
+        assertTrue(first.getText().contains("{DIFF_CONTENT}"));
+    }
+    
+    @Test
+    void get_UnknownTemplate_ShouldThrowReviewGenerationException() {
+        registry = new TemplateRegistry();
+        
+        assertThrows(ReviewGenerationException.class, () -> registry.get("missing-template.txt"));
+    }
+    
+    @Test
+    void get_TemplateInDirectory_ShouldOverrideBuiltInAndReloadOnChange() throws Exception {
+        // Given
+        Path file = directory.resolve("prompt-template.txt");
+        Files.writeString(file, "v1 {DIFF_CONTENT}", StandardCharsets.UTF_8);
+        registry = TemplateRegistry.withDirectory(directory);
+        assertEquals("v1 {DIFF_CONTENT}", registry.get("prompt-template.txt").getText());
+        
+        // When
+        Files.writeString(file, "v2 {DIFF_CONTENT}", StandardCharsets.UTF_8);
+        
+        // Then
+        awaitText(() -> registry.get("prompt-template.txt").getText(), "v2 {DIFF_CONTENT}");
+    }
+    
+    @Test
+    void get_TemplateRemovedFromDirectory_ShouldFallBackToBuiltIn() throws Exception {
+        // Given
+        Path file = directory.resolve("prompt-template.txt");
+        Files.writeString(file, "override", StandardCharsets.UTF_8);
+        registry = TemplateRegistry.withDirectory(directory);
+        String builtIn = new TemplateRegistry().get("prompt-template.txt").getText();
+        
+        // When
+        Files.delete(file);
+        
+        // Then
+        awaitText(() -> registry.get("prompt-template.txt").getText(), builtIn);
+    }
+    
+    @Test
+    void get_TemplateAddedToDirectory_ShouldBecomeAvailable() throws Exception {
+        // Given
+        registry = TemplateRegistry.withDirectory(directory);
+        
+        // When
+        Files.writeString(directory.resolve("team-template.txt"), "Команда {DIFF_CONTENT}", StandardCharsets.UTF_8);
+        
+        // Then
+        awaitText(() -> {
+            try {
+                return registry.get("team-template.txt").getText();
+            } catch (ReviewGenerationException e) {
+                return null;
+            }
+        }, "Команда {DIFF_CONTENT}");
+    }
+    
+    /**
+     * File system notifications are asynchronous (and polled on some platforms)
+     */
+    private static void awaitText(Supplier<String> actual, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (!expected.equals(actual.get()) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, actual.get());
+    }
+}
@@ -0,0 +1,73 @@
+package ai.review.tracing;
+
+import ai.review.config.OllamaProperties;
+import ai.review.http.Deadline;
+import ai.review.http.StubHttpServer;
+import ai.review.ollama.OllamaClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static ai.review.http.StubHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTracingTest {
+    
+    private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+    private final Tracer tracer = new Tracer(exported::add, 1.0);
+    private final List<String> receivedTraceparents = new CopyOnWriteArrayList<>();
+    
+    private StubHttpServer server;
+    private OllamaClient client;
+    
+    @BeforeEach
+    void startOllama() throws IOException {
+        server = StubHttpServer.start("/api/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            receivedTraceparents.add(exchange.getRequestHeaders().getFirst(TraceContext.TRACEPARENT));
+            respond(exchange, 200, "{\"response\":\"Looks good\",\"eval_count\":10,\"eval_duration\":500000000}");
+        });
+        
+        OllamaProperties properties = new OllamaProperties();
+        properties.setApiUrl(server.url("/api/generate"));
+        client = new OllamaClient(properties, HttpClient.newHttpClient(), tracer);
+    }
+    
+    @AfterEach
+    void stopOllama() {
+        server.close();
+    }
+    
+    @Test
+    void generate_InsideRequestSpan_ShouldSendTraceparentOfClientSpan() {
+        // Given
+        Span request = tracer.startSpan("POST /api/review", SpanKind.SERVER);
+        
+        // When
+        try (Scope scope = request.makeCurrent()) {
+            client.generate("prompt", Deadline.none());
+        }
+        request.end();
+        
+        // Then
+        assertEquals(3, exported.size());
+        SpanData exchange = exported.get(0);
+        SpanData generation = exported.get(1);
+        assertEquals(SpanKind.CLIENT, exchange.kind());
+        assertEquals(200, exchange.attributes().get("http.status_code"));
+        assertEquals(generation.spanId(), exchange.parentSpanId());
+        assertEquals("ollama.generate", generation.name());
+        assertEquals(10L, generation.attributes().get("ollama.eval_count"));
+        assertEquals(request.context().spanId(), generation.parentSpanId());
+        
+        TraceContext sent = TraceContext.parse(receivedTraceparents.get(0));
+        assertEquals(request.context().traceId(), sent.traceId());
+        assertEquals(exchange.spanId(), sent.spanId());
+        assertTrue(sent.sampled());
+    }
+}
@@ -0,0 +1,143 @@
+package ai.review.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+    
+    private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+    private final Tracer tracer = new Tracer(exported::add, 1.0);
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void inSpan_NestedSpans_ShouldShareTraceAndLinkParent() {
+        // When
+        tracer.inSpan("parent", SpanKind.SERVER, () -> tracer.inSpan("child", SpanKind.INTERNAL, () -> { }));
+        
+        // Then
+        assertEquals(2, exported.size());
+        SpanData child = exported.get(0);
+        SpanData parent = exported.get(1);
+        assertEquals("child", child.name());
+        assertEquals(parent.traceId(), child.traceId());
+        assertEquals(parent.spanId(), child.parentSpanId());
+        assertNull(parent.parentSpanId());
+        assertTrue(child.durationNanos() >= 0);
+        assertNull(Span.current());
+    }
+    
+    @Test
+    void inSpan_CallThrows_ShouldMarkSpanFailedAndRethrow() {
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> tracer.inSpan("failing", SpanKind.INTERNAL, () -> {
+                throw new IllegalStateException("boom");
+            }));
+        
+        // Then
+        assertEquals("boom", exception.getMessage());
+        SpanData span = exported.get(0);
+        assertEquals(SpanData.Status.ERROR, span.status());
+        assertEquals("boom", span.statusMessage());
+        assertEquals(IllegalStateException.class.getName(), span.attributes().get("exception.type"));
+    }
+    
+    @Test
+    void startSpan_WithRemoteParent_ShouldContinueCallersTrace() {
+        // Given
+        TraceContext remote = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        
+        // When
+        Span span = tracer.startSpan("POST /api/review", SpanKind.SERVER, remote);
+        span.end();
+        
+        // Then
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", span.context().traceId());
+        assertEquals("00f067aa0ba902b7", exported.get(0).parentSpanId());
+        assertTrue(span.context().traceparent().matches("00-4bf92f3577b34da6a3ce929d0e0e4736-[0-9a-f]{16}-01"));
+    }
+    
+    @Test
+    void startSpan_UnsampledRemoteParent_ShouldPropagateButNotExport() {
+        // Given
+        TraceContext remote = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+        
+        // When
+        Span span = tracer.startSpan("POST /api/review", SpanKind.SERVER, remote);
+        span.end();
+        
+        // Then
+        assertFalse(span.isRecording());
+        assertTrue(span.context().traceparent().endsWith("-00"));
+        assertTrue(exported.isEmpty());
+    }
+    
+    @Test
+    void parse_InvalidTraceparent_ShouldStartNewTrace() {
+        // Then
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse("garbage"));
+        assertNull(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra"));
+        assertNotNull(TraceContext.parse("01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra"));
+    }
+    
+    @Test
+    void wrap_TaskOnAnotherThread_ShouldKeepParentSpan() throws Exception {
+        // Given
+        Span parent = tracer.startSpan("parent", SpanKind.SERVER);
+        
+        // When
+        try (Scope scope = parent.makeCurrent()) {
+            CompletableFuture.runAsync(Span.wrap(() -> tracer.inSpan("chunk", SpanKind.INTERNAL, () -> { }))).get();
+        }
+        parent.end();
+        
+        // Then
+        assertEquals(parent.context().spanId(), exported.get(0).parentSpanId());
+    }
+    
+    @Test
+    void noop_ShouldExportNothing() {
+        // Given
+        Tracer noop = Tracer.noop();
+        
+        // When
+        Span span = noop.startSpan("ignored", SpanKind.INTERNAL);
+        span.setAttribute("key", "value");
+        span.end();
+        
+        // Then
+        assertFalse(span.isRecording());
+        assertEquals(32, span.context().traceId().length());
+    }
+    
+    @Test
+    void close_FileExporter_ShouldCloseFileAndDropLaterSpans() throws IOException {
+        // Given
+        Path file = tempDir.resolve("spans.jsonl");
+        Tracer fileTracer = new Tracer(JsonLinesSpanExporter.open(file), 1.0);
+        fileTracer.inSpan("before", SpanKind.INTERNAL, () -> { });
+        
+        // When
+        fileTracer.close();
+        fileTracer.inSpan("after", SpanKind.INTERNAL, () -> { });
+        
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"before\""));
+    }
+}